@@ -0,0 +1,60 @@
+#!/usr/bin/env bash
+#
+# Measures how long the application takes to start in each launch mode:
+#
+#   web          - the full application with Tomcat, as deployed for the REST API
+#   cli          - the headless "cli" profile jar (no web server, lazy beans)
+#   cli-aot      - the same with the AOT-generated bean definitions
+#   cli-aot-cds  - the same with a class-data sharing archive from a training run
+#
+# Every run stops right after the context has been refreshed (spring.context.exit=onRefresh), so no crawl
+# is started and only startup is measured. Usage: scripts/startup-benchmark.sh [runs]
+#
+set -euo pipefail
+
+RUNS="${1:-5}"
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+WORK="$ROOT/target/startup-benchmark"
+EXIT_ON_REFRESH="-Dspring.context.exit=onRefresh"
+CLI="-Dspring.profiles.active=cli"
+AOT="-Dspring.aot.enabled=true"
+
+cd "$ROOT"
+rm -rf "$WORK"
+mkdir -p "$WORK"
+
+echo "Building the web and cli jars"
+./mvnw -q -B package -DskipTests
+cp target/j-spider-0.0.1-SNAPSHOT.jar "$WORK/web.jar"
+./mvnw -q -B -Pcli package -DskipTests
+java -Djarmode=tools -jar target/j-spider-cli.jar extract --destination "$WORK/cli" > /dev/null
+
+echo "Creating the class-data sharing archive"
+(cd "$WORK/cli" && java -XX:ArchiveClassesAtExit=application.jsa $CLI $AOT $EXIT_ON_REFRESH \
+    -jar j-spider-cli.jar > /dev/null)
+
+measure() {
+    local name="$1"
+    local directory="$2"
+    shift 2
+    local total=0
+    local best=
+    for ((run = 1; run <= RUNS; run++)); do
+        local start end elapsed
+        start=$(date +%s%N)
+        (cd "$directory" && java "$@" > /dev/null)
+        end=$(date +%s%N)
+        elapsed=$(((end - start) / 1000000))
+        total=$((total + elapsed))
+        if [[ -z "$best" || "$elapsed" -lt "$best" ]]; then
+            best=$elapsed
+        fi
+    done
+    printf '%-12s avg %6d ms   min %6d ms\n' "$name" $((total / RUNS)) "$best"
+}
+
+echo "Startup time over $RUNS runs"
+measure web "$WORK" $EXIT_ON_REFRESH -jar web.jar --server.port=0
+measure cli "$WORK/cli" $CLI $EXIT_ON_REFRESH -jar j-spider-cli.jar
+measure cli-aot "$WORK/cli" $CLI $AOT $EXIT_ON_REFRESH -jar j-spider-cli.jar
+measure cli-aot-cds "$WORK/cli" -XX:SharedArchiveFile=application.jsa $CLI $AOT $EXIT_ON_REFRESH -jar j-spider-cli.jar
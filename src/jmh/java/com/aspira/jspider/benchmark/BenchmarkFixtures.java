@@ -0,0 +1,163 @@
+package com.aspira.jspider.benchmark;
+
+import com.aspira.jspider.model.League;
+import com.aspira.jspider.model.Market;
+import com.aspira.jspider.model.Match;
+import com.aspira.jspider.model.Runner;
+import com.aspira.jspider.model.Sport;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Synthetic benchmark data with the shape of {@code example.csv}.
+ * <p>
+ * The rows of {@code example.csv} are replayed in order, and the matches, markets and runners they
+ * describe are cloned with fresh IDs until the requested number of runners is reached. Names, prices
+ * and the number of runners per market therefore follow a real crawl.
+ * </p>
+ */
+public final class BenchmarkFixtures {
+
+    private static final Path EXAMPLE = Path.of("example.csv");
+    private static final long ID_BASE = 1_970_000_000_000_000L;
+
+    private BenchmarkFixtures() {
+    }
+
+    public static ObjectMapper objectMapper() {
+        return JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    /**
+     * Generates matches with exactly {@code runners} runners in total.
+     */
+    public static List<Match> matches(int runners) {
+        final List<String[]> rows = exampleRows();
+        final List<Match> matches = new ArrayList<>();
+        long nextId = ID_BASE;
+        Match match = null;
+        Market market = null;
+        String previousMatchId = null;
+        String previousMarket = null;
+        for (int produced = 0; produced < runners; produced++) {
+            final String[] row = rows.get(produced % rows.size());
+            if (match == null || !row[2].equals(previousMatchId) || produced % rows.size() == 0) {
+                match = newMatch(row, nextId++);
+                matches.add(match);
+                previousMatchId = row[2];
+                previousMarket = null;
+            }
+            if (market == null || !row[6].equals(previousMarket)) {
+                market = new Market();
+                market.setId(Long.toString(nextId++));
+                market.setName(row[6]);
+                market.setRunners(new ArrayList<>());
+                match.getMarkets().add(market);
+                previousMarket = row[6];
+            }
+            final Runner runner = new Runner();
+            runner.setId(Long.toString(nextId++));
+            runner.setName(row[8]);
+            runner.setValue(row[9]);
+            market.getRunners().add(runner);
+        }
+        return matches;
+    }
+
+    /**
+     * Serializes a match with {@code markets} markets as a Leon {@code /betline/event/all} payload, including
+     * fields the model does not bind so that decoders have to skip them.
+     */
+    public static byte[] eventPayload(int markets) {
+        final List<String[]> rows = exampleRows();
+        final Map<String, Object> event = new LinkedHashMap<>();
+        event.put("id", ID_BASE);
+        event.put("name", rows.get(0)[3]);
+        event.put("nameDefault", rows.get(0)[3]);
+        event.put("competitors", List.of(Map.of("id", 1, "name", "Home", "logo", "home.svg"),
+                Map.of("id", 2, "name", "Away", "logo", "away.svg")));
+        event.put("kickoff", 1_722_351_600_000L);
+        event.put("lastUpdated", 1_722_340_000_000L);
+        event.put("league", Map.of("id", 1, "name", rows.get(0)[1],
+                "sport", Map.of("id", 2, "name", rows.get(0)[0], "family", "Soccer"),
+                "region", Map.of("id", 3, "name", "World")));
+        final List<Map<String, Object>> marketList = new ArrayList<>();
+        int row = 0;
+        for (int m = 0; m < markets; m++) {
+            final String marketName = rows.get(row % rows.size())[6];
+            final List<Map<String, Object>> runners = new ArrayList<>();
+            do {
+                final String[] runner = rows.get(row % rows.size());
+                runners.add(Map.of("id", ID_BASE + row, "name", runner[8], "open", true, "r", 0, "c", 0,
+                        "tags", List.of("REGULAR"), "price", Double.parseDouble(runner[9]), "priceStr", runner[9],
+                        "handicap", "0"));
+                row++;
+            } while (rows.get(row % rows.size())[6].equals(marketName) && runners.size() < 10);
+            marketList.add(Map.of("id", ID_BASE + m, "typeTag", "REGULAR", "name", marketName, "marketTypeId", m,
+                    "open", true, "primary", m == 0, "cols", runners.size(), "specifiers", Map.of(),
+                    "selectionTypes", List.of("HOME", "DRAW", "AWAY"), "runners", runners));
+        }
+        event.put("markets", marketList);
+        event.put("marketsCount", markets);
+        event.put("status", "OPEN");
+        event.put("betline", "prematch");
+        try {
+            return objectMapper().writeValueAsBytes(event);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Match newMatch(String[] row, long id) {
+        final Sport sport = new Sport();
+        sport.setName(row[0]);
+        final League league = new League();
+        league.setName(row[1]);
+        league.setSport(sport);
+        final Match match = new Match();
+        match.setId(Long.toString(id));
+        match.setName(row[3]);
+        match.setKickoff(LocalDateTime.parse(row[4]));
+        match.setLeague(league);
+        match.setMarkets(new ArrayList<>());
+        return match;
+    }
+
+    private static List<String[]> exampleRows() {
+        try (Reader reader = Files.newBufferedReader(EXAMPLE, StandardCharsets.UTF_8);
+             CSVReader csv = new CSVReader(reader)) {
+            final List<String[]> rows = new ArrayList<>();
+            csv.readNext();
+            String[] row;
+            while ((row = csv.readNext()) != null) {
+                rows.add(row);
+            }
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (CsvValidationException e) {
+            throw new IllegalStateException("Malformed " + EXAMPLE, e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.aspira.jspider.benchmark;
+
+import com.aspira.jspider.model.Match;
+import com.aspira.jspider.webclient.codec.StreamingMatchDecoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares Jackson data binding of {@link Match} payloads (including the {@code LocalDateTimeDeserializer})
+ * with the token-level {@link StreamingMatchDecoder}. The streaming variant receives the payload in 8 KB
+ * chunks, as it would from the network.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchDeserializationBenchmark {
+
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    @Param({"10", "100", "1000"})
+    private int markets;
+
+    private byte[] payload;
+    private ObjectMapper objectMapper;
+    private StreamingMatchDecoder decoder;
+
+    @Setup
+    public void setUp() {
+        payload = BenchmarkFixtures.eventPayload(markets);
+        objectMapper = BenchmarkFixtures.objectMapper();
+        decoder = new StreamingMatchDecoder();
+        ReflectionTestUtils.setField(decoder, "maxResponseSize", DataSize.ofMegabytes(64));
+    }
+
+    @Benchmark
+    public Match databind() throws IOException {
+        return objectMapper.readValue(payload, Match.class);
+    }
+
+    @Benchmark
+    public Match streaming() {
+        return decoder.decode(chunks()).block();
+    }
+
+    private Flux<DataBuffer> chunks() {
+        final List<DataBuffer> buffers = new ArrayList<>();
+        for (int offset = 0; offset < payload.length; offset += CHUNK_SIZE) {
+            final int length = Math.min(CHUNK_SIZE, payload.length - offset);
+            buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(ByteBuffer.wrap(payload, offset, length)));
+        }
+        return Flux.fromIterable(buffers);
+    }
+}
@@ -0,0 +1,79 @@
+package com.aspira.jspider.benchmark;
+
+import com.aspira.jspider.metrics.CrawlMetrics;
+import com.aspira.jspider.model.Match;
+import com.aspira.jspider.service.ReportFormat;
+import com.aspira.jspider.service.impl.ReportGenerationServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ReportGenerationServiceImpl#generateReport(List)} for crawls of 1k, 100k and 1M runners.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class ReportGenerationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int runners;
+
+    @Param({"CSV", "NDJSON"})
+    private ReportFormat format;
+
+    private List<Match> matches;
+    private Path directory;
+    private ReportGenerationServiceImpl service;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        matches = BenchmarkFixtures.matches(runners);
+        directory = Files.createTempDirectory("report-benchmark");
+        service = new ReportGenerationServiceImpl(BenchmarkFixtures.objectMapper(),
+                new CrawlMetrics(new SimpleMeterRegistry(), ObservationRegistry.NOOP, false));
+        ReflectionTestUtils.setField(service, "filePath", directory.resolve("result").toString());
+        ReflectionTestUtils.setField(service, "format", format);
+        ReflectionTestUtils.setField(service, "charset", StandardCharsets.UTF_8);
+        ReflectionTestUtils.setField(service, "bufferSize", DataSize.ofKilobytes(256));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public void generateReport() {
+        service.generateReport(matches);
+    }
+}
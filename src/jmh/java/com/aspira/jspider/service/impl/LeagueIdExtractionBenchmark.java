@@ -0,0 +1,75 @@
+package com.aspira.jspider.service.impl;
+
+import org.jsoup.Jsoup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Measures top-league ID extraction from the bundled {@code sport-pages/*.html} files: the streaming
+ * {@link TopLeagueLinkScanner} fed in 16 KB chunks against a full Jsoup DOM parse with a CSS query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LeagueIdExtractionBenchmark {
+
+    private static final String TOP_LEAGUE_CLASS = "sports-sidebar-top-leagues__league_Rd8VZ";
+    private static final Pattern LEAGUE_ID = Pattern.compile("(\\d+)-[a-zA-Z0-9-]+");
+    private static final int CHUNK_SIZE = 16 * 1024;
+
+    @Param({"football", "tennis", "basketball", "esports"})
+    private String sport;
+
+    private byte[] page;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        page = Files.readAllBytes(Path.of("sport-pages", sport + ".html"));
+    }
+
+    @Benchmark
+    public List<String> streamingScanner() {
+        final var scanner = new TopLeagueLinkScanner(TOP_LEAGUE_CLASS);
+        for (int offset = 0; offset < page.length; offset += CHUNK_SIZE) {
+            scanner.feed(ByteBuffer.wrap(page, offset, Math.min(CHUNK_SIZE, page.length - offset)));
+        }
+        return scanner.finish();
+    }
+
+    @Benchmark
+    public List<String> jsoupDom() {
+        return Jsoup.parse(new String(page, StandardCharsets.UTF_8))
+                .select("a." + TOP_LEAGUE_CLASS)
+                .stream()
+                .map(link -> {
+                    final Matcher matcher = LEAGUE_ID.matcher(link.attr("href"));
+                    return matcher.find() ? matcher.group(1) : null;
+                })
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
@@ -0,0 +1,270 @@
+package com.aspira.jspider.loadtest;
+
+import com.aspira.jspider.JSpiderApplication;
+import com.aspira.jspider.model.CrawlSummary;
+import com.aspira.jspider.service.LeonBetsParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.springframework.core.env.CommandLinePropertySource.COMMAND_LINE_PROPERTY_SOURCE_NAME;
+
+/**
+ * Load test of the crawl pipeline against the {@link LeonApiSimulator}.
+ * <p>
+ * The simulator is started on a local port and the application is started without a web server, pointed at
+ * it with live sport pages, the response cache switched off and no per-league match limit, so every
+ * iteration crawls the full synthetic betline through {@link LeonBetsParser#parseBetsData()}. After
+ * {@code loadtest.warmup-iterations} unmeasured crawls, {@code loadtest.iterations} crawls are measured for:
+ * </p>
+ * <ul>
+ *   <li>throughput in matches per second;</li>
+ *   <li>p50 and p99 league-list and match-detail fetch latency, merged from the percentile histograms of the
+ *   {@code crawl.league.fetch} and {@code crawl.match.fetch} timers of all sports;</li>
+ *   <li>peak heap use during the crawls, heap use after a full collection, and collection count and time.</li>
+ * </ul>
+ * <p>
+ * The result is printed and written to {@code result.loadtest.json} in {@code loadtest.directory}. The exit
+ * code is {@code 1} when no match was crawled or a {@code loadtest.min-matches-per-second} or
+ * {@code loadtest.max-p99-fetch-latency} threshold is missed, so the run can gate a CI build. Arguments are Spring Boot command-line properties:
+ * {@code simulator.*} shapes the simulator (see {@link SimulatorSettings}), {@code loadtest.*} the run (see
+ * {@link LoadTestSettings}) and any other property overrides the application configuration, e.g.
+ * {@code --crawl.concurrency=64}.
+ * </p>
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class CrawlLoadTest {
+
+    private static final String LEAGUE_FETCH = "crawl.league.fetch";
+    private static final String MATCH_FETCH = "crawl.match.fetch";
+
+    private final LoadTestSettings settings;
+    private final SimulatorSettings simulatorSettings;
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS);
+
+    public static void main(String[] args) throws IOException {
+        final var environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+        final var binder = Binder.get(environment);
+        final var loadTest = new CrawlLoadTest(binder.bindOrCreate("loadtest", LoadTestSettings.class),
+                binder.bindOrCreate("simulator", SimulatorSettings.class));
+        System.exit(loadTest.run(args).passed() ? 0 : 1);
+    }
+
+    /**
+     * Runs the load test.
+     *
+     * @param args command-line properties passed on to the application
+     * @return the measured result
+     */
+    public Result run(String... args) throws IOException {
+        Files.createDirectories(settings.directory());
+        try (var simulator = new LeonApiSimulator(simulatorSettings, new ObjectMapper()).start();
+             var context = new SpringApplicationBuilder(JSpiderApplication.class)
+                     .web(WebApplicationType.NONE)
+                     .bannerMode(Banner.Mode.OFF)
+                     .initializers(application -> overrideProperties(application.getEnvironment(), simulator))
+                     .run(args)) {
+            final var parser = context.getBean(LeonBetsParser.class);
+            final var meterRegistry = context.getBean(MeterRegistry.class);
+            for (int i = 0; i < settings.warmupIterations(); i++) {
+                log.info("Warm-up crawl {} of {}", i + 1, settings.warmupIterations());
+                parser.parseBetsData();
+            }
+
+            final var leagueFetchesBefore = histogram(meterRegistry, LEAGUE_FETCH);
+            final var matchFetchesBefore = histogram(meterRegistry, MATCH_FETCH);
+            final long requestsBefore = simulator.getRequests();
+            final long throttledBefore = simulator.getThrottled();
+            final long failedBefore = simulator.getFailed();
+            final long bytesBefore = simulator.getBytesSent();
+            final long collectionsBefore = collections();
+            final long collectionMillisBefore = collectionMillis();
+            System.gc();
+            heapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+
+            long matches = 0;
+            long failures = 0;
+            final long start = System.nanoTime();
+            for (int i = 0; i < settings.iterations(); i++) {
+                log.info("Measured crawl {} of {}", i + 1, settings.iterations());
+                final CrawlSummary summary = parser.parseBetsData();
+                matches += summary.matches();
+                failures += summary.failures().size();
+            }
+            final var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            final long peakHeap = heapPools().stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+            final long collections = collections() - collectionsBefore;
+            final long collectionMillis = collectionMillis() - collectionMillisBefore;
+            System.gc();
+            final long retainedHeap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+            final var leagueFetches = subtract(histogram(meterRegistry, LEAGUE_FETCH), leagueFetchesBefore);
+            final var matchFetches = subtract(histogram(meterRegistry, MATCH_FETCH), matchFetchesBefore);
+            final double matchesPerSecond = matches / (elapsed.toNanos() / 1e9);
+            final var matchFetchP99 = percentile(matchFetches, 0.99);
+
+            final var result = new Result(simulatorSettings, settings.iterations(), matches, failures, elapsed,
+                    matchesPerSecond, percentile(leagueFetches, 0.5), percentile(leagueFetches, 0.99),
+                    percentile(matchFetches, 0.5), matchFetchP99, simulator.getRequests() - requestsBefore,
+                    simulator.getThrottled() - throttledBefore, simulator.getFailed() - failedBefore,
+                    simulator.getBytesSent() - bytesBefore, peakHeap, retainedHeap, collections, collectionMillis,
+                    matches > 0 && (settings.minMatchesPerSecond() <= 0 || matchesPerSecond >= settings.minMatchesPerSecond())
+                            && (settings.maxP99FetchLatency().isZero()
+                            || matchFetchP99.compareTo(settings.maxP99FetchLatency()) <= 0));
+            final var target = settings.directory().resolve("result.loadtest.json");
+            objectMapper.writeValue(target.toFile(), result);
+            log.info("Load test result written to {}:\n{}", target.toAbsolutePath(),
+                    objectMapper.writeValueAsString(result));
+            if (!result.passed()) {
+                log.error("Load test failed: {} matches at {} matches/s with a p99 match fetch latency of {}; "
+                        + "required are at least {} matches/s and a p99 of at most {}", matches, matchesPerSecond,
+                        matchFetchP99, settings.minMatchesPerSecond(), settings.maxP99FetchLatency());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Points the application at the simulator, above {@code application.properties} but below the arguments.
+     */
+    private void overrideProperties(ConfigurableEnvironment environment, LeonApiSimulator simulator) {
+        final var propertySources = environment.getPropertySources();
+        final var overrides = new MapPropertySource("loadtest", applicationProperties(simulator));
+        if (propertySources.contains(COMMAND_LINE_PROPERTY_SOURCE_NAME)) {
+            propertySources.addAfter(COMMAND_LINE_PROPERTY_SOURCE_NAME, overrides);
+        } else {
+            propertySources.addFirst(overrides);
+        }
+    }
+
+    private Map<String, Object> applicationProperties(LeonApiSimulator simulator) {
+        final var directory = settings.directory();
+        final Map<String, Object> properties = new HashMap<>();
+        properties.put("web-client.base-url", simulator.getBaseUrl());
+        properties.put("web-client.cache.enabled", false);
+        properties.put("crawl.sport-pages.source", "live");
+        properties.put("crawl.plan.max-matches-per-league", -1);
+        properties.put("polling.enabled", false);
+        properties.put("report.file-path", directory.resolve("result.csv").toString());
+        properties.put("report.summary-path", directory.resolve("result.summary.json").toString());
+        properties.put("analytics.file-path", directory.resolve("result.analytics.ndjson").toString());
+        properties.put("odds-history.directory", directory.resolve("odds-history").toString());
+        properties.put("management.metrics.distribution.expiry.crawl", "1d");
+        return properties;
+    }
+
+    /**
+     * Sums the cumulative bucket counts of all timers with the given name, keyed by bucket upper bound.
+     */
+    private static TreeMap<Double, Double> histogram(MeterRegistry meterRegistry, String name) {
+        final TreeMap<Double, Double> buckets = new TreeMap<>();
+        for (Timer timer : meterRegistry.find(name).timers()) {
+            for (CountAtBucket bucket : timer.takeSnapshot().histogramCounts()) {
+                buckets.merge(bucket.bucket(), bucket.count(), Double::sum);
+            }
+        }
+        return buckets;
+    }
+
+    private static TreeMap<Double, Double> subtract(TreeMap<Double, Double> after, Map<Double, Double> before) {
+        final TreeMap<Double, Double> difference = new TreeMap<>();
+        after.forEach((bucket, count) -> difference.put(bucket, count - before.getOrDefault(bucket, 0.0)));
+        return difference;
+    }
+
+    /**
+     * Estimates a percentile from cumulative bucket counts, interpolating linearly within the bucket.
+     */
+    private static Duration percentile(TreeMap<Double, Double> buckets, double quantile) {
+        if (buckets.isEmpty() || buckets.lastEntry().getValue() == 0) {
+            return Duration.ZERO;
+        }
+        final double rank = quantile * buckets.lastEntry().getValue();
+        double lowerBound = 0;
+        double lowerCount = 0;
+        for (Map.Entry<Double, Double> bucket : buckets.entrySet()) {
+            if (bucket.getValue() >= rank) {
+                final double inBucket = bucket.getValue() - lowerCount;
+                final double fraction = inBucket == 0 ? 1 : (rank - lowerCount) / inBucket;
+                return Duration.ofNanos((long) (lowerBound + fraction * (bucket.getKey() - lowerBound)));
+            }
+            lowerBound = bucket.getKey();
+            lowerCount = bucket.getValue();
+        }
+        return Duration.ofNanos(buckets.lastKey().longValue());
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+    }
+
+    private static long collections() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long collectionMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+
+    /**
+     * Measurements of the load test's measured iterations.
+     *
+     * @param simulator        the simulator settings the crawls ran against
+     * @param iterations       the number of measured crawls
+     * @param matches          the matches fetched by all measured crawls
+     * @param failures         the crawl failures of all measured crawls
+     * @param elapsed          the wall-clock time of all measured crawls
+     * @param matchesPerSecond the throughput of the measured crawls
+     * @param leagueFetchP50   the median league-list fetch latency
+     * @param leagueFetchP99   the 99th percentile league-list fetch latency
+     * @param matchFetchP50    the median match-detail fetch latency
+     * @param matchFetchP99    the 99th percentile match-detail fetch latency
+     * @param requests         the league-list and event-detail requests the simulator received
+     * @param throttled        the requests the simulator answered with {@code 429}
+     * @param failed           the requests the simulator answered with {@code 503}
+     * @param bytesSent        the response bytes the simulator sent, including sport pages
+     * @param peakHeapBytes    the sum of the peak usage of all heap pools during the measured crawls
+     * @param retainedHeapBytes the heap in use after a full collection following the measured crawls
+     * @param collections      the garbage collections during the measured crawls
+     * @param collectionMillis the time spent in garbage collections during the measured crawls
+     * @param passed           whether the configured thresholds were met
+     */
+    public record Result(SimulatorSettings simulator, int iterations, long matches, long failures, Duration elapsed,
+                         double matchesPerSecond, Duration leagueFetchP50, Duration leagueFetchP99,
+                         Duration matchFetchP50, Duration matchFetchP99, long requests, long throttled, long failed,
+                         long bytesSent, long peakHeapBytes, long retainedHeapBytes, long collections,
+                         long collectionMillis, boolean passed) {
+    }
+}
@@ -0,0 +1,316 @@
+package com.aspira.jspider.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the Leon API, serving synthetic sport pages, league lists and event details.
+ * <p>
+ * Every sport page links {@code leaguesPerSport} top leagues, every league lists {@code eventsPerLeague}
+ * events and every event has {@code marketsPerEvent} markets: {@code Winner}, {@code Double Chance},
+ * {@code Draw No Bet} and {@code Both Teams To Score}, followed by {@code Total} and {@code Handicap} lines.
+ * IDs encode their parents, so any event can be regenerated from its ID alone, and prices are drawn from a
+ * random generator seeded with the event ID: repeated requests return the same payload.
+ * </p>
+ * <p>
+ * Every league-list and event-detail response is delayed by a log-normally distributed latency, and a
+ * configurable share of them fails with {@code 429 Too Many Requests} or {@code 503 Service Unavailable}.
+ * Sport pages are served at once and never fail. The server runs on Reactor Netty, so a slow response
+ * does not hold a thread.
+ * </p>
+ */
+@Slf4j
+public class LeonApiSimulator implements AutoCloseable {
+
+    public static final int MAX_EVENTS_PER_LEAGUE = 999;
+
+    private static final String SPORT_PAGE_PATH = "/bets/";
+    private static final String ALL_EVENTS_PATH = "/api-2/betline/events/all";
+    private static final String EVENT_PATH = "/api-2/betline/event/all";
+    private static final String TOP_LEAGUE_CLASS = "sports-sidebar-top-leagues__league_Rd8VZ";
+    private static final String APPLICATION_JSON = "application/json";
+    private static final String TEXT_HTML = "text/html;charset=UTF-8";
+    private static final long LEAGUE_ID_BASE = 1_970_324_836_000_000L;
+    private static final long EVENT_ID_BASE = LEAGUE_ID_BASE * 1000;
+    private static final int LEAGUES_PER_SPORT_SLOT = 10_000;
+    private static final double P99_Z_SCORE = 2.326;
+    private static final double MARGIN = 0.06;
+    private static final long HOUR_MILLIS = Duration.ofHours(1).toMillis();
+
+    private final SimulatorSettings settings;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Integer> sportSlots = new ConcurrentHashMap<>();
+    private final Map<Integer, String> sportNames = new ConcurrentHashMap<>();
+    private final AtomicInteger nextSportSlot = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong bytesSent = new AtomicLong();
+    private final long startMillis = Instant.now().toEpochMilli();
+    private final double latencyMu;
+    private final double latencySigma;
+
+    private DisposableServer server;
+
+    public LeonApiSimulator(SimulatorSettings settings, ObjectMapper objectMapper) {
+        this.settings = settings;
+        this.objectMapper = objectMapper;
+        final double median = Math.max(1, settings.latencyMedian().toNanos());
+        this.latencyMu = Math.log(median);
+        this.latencySigma = Math.log(Math.max(median, settings.latencyP99().toNanos()) / median) / P99_Z_SCORE;
+    }
+
+    /**
+     * Starts the server on a free local port.
+     *
+     * @return this simulator
+     */
+    public LeonApiSimulator start() {
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle(this::handle)
+                .bindNow();
+        log.info("Leon API simulator listening on {} with {}", getBaseUrl(), settings);
+        return this;
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.port();
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getThrottled() {
+        return throttled.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public long getBytesSent() {
+        return bytesSent.get();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.disposeNow();
+        }
+    }
+
+    private Publisher<Void> handle(HttpServerRequest request, HttpServerResponse response) {
+        final var uri = new QueryStringDecoder(request.uri());
+        final String path = uri.path();
+        if (path.startsWith(SPORT_PAGE_PATH)) {
+            return send(response, TEXT_HTML, sportPage(path.substring(SPORT_PAGE_PATH.length())));
+        }
+        final String id = firstParameter(uri, path.equals(ALL_EVENTS_PATH) ? "league_id" : "eventId");
+        if (!(path.equals(ALL_EVENTS_PATH) || path.equals(EVENT_PATH)) || id == null) {
+            return response.status(HttpResponseStatus.NOT_FOUND).send();
+        }
+        requests.incrementAndGet();
+        return Mono.delay(sampleLatency()).then(Mono.defer(() -> {
+            final double outcome = ThreadLocalRandom.current().nextDouble();
+            if (outcome < settings.throttleRate()) {
+                throttled.incrementAndGet();
+                if (!settings.retryAfter().isZero()) {
+                    response.header(HttpHeaderNames.RETRY_AFTER, Long.toString(settings.retryAfter().toSeconds()));
+                }
+                return response.status(HttpResponseStatus.TOO_MANY_REQUESTS).send().then();
+            }
+            if (outcome < settings.throttleRate() + settings.errorRate()) {
+                failed.incrementAndGet();
+                return response.status(HttpResponseStatus.SERVICE_UNAVAILABLE).send().then();
+            }
+            final Object body;
+            try {
+                body = path.equals(ALL_EVENTS_PATH) ? leagueList(Long.parseLong(id))
+                        : event(Long.parseLong(id), settings.marketsPerEvent());
+            } catch (NumberFormatException e) {
+                return response.status(HttpResponseStatus.NOT_FOUND).send().then();
+            }
+            return Mono.from(send(response, APPLICATION_JSON, json(body)));
+        }));
+    }
+
+    private Publisher<Void> send(HttpServerResponse response, String contentType, byte[] body) {
+        bytesSent.addAndGet(body.length);
+        return response.header(HttpHeaderNames.CONTENT_TYPE, contentType)
+                .sendByteArray(Mono.just(body));
+    }
+
+    private Duration sampleLatency() {
+        if (latencySigma == 0) {
+            return settings.latencyMedian();
+        }
+        final double gaussian = ThreadLocalRandom.current().nextGaussian();
+        return Duration.ofNanos((long) Math.exp(latencyMu + latencySigma * gaussian));
+    }
+
+    private byte[] sportPage(String slug) {
+        final int slot = sportSlots.computeIfAbsent(slug.toLowerCase(Locale.ROOT), key -> {
+            final int next = nextSportSlot.getAndIncrement();
+            sportNames.put(next, capitalize(key));
+            return next;
+        });
+        final var html = new StringBuilder("<!DOCTYPE html><html><head><title>")
+                .append(slug)
+                .append("</title></head><body><nav>");
+        for (int i = 0; i < settings.leaguesPerSport(); i++) {
+            html.append("<a href=\"/bets/").append(slug).append("/region/")
+                    .append(leagueId(slot, i)).append("-league-").append(i)
+                    .append("\" class=\"").append(TOP_LEAGUE_CLASS).append("\">League ").append(i).append("</a>");
+        }
+        return html.append("</nav></body></html>").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private Map<String, Object> leagueList(long leagueId) {
+        final List<Map<String, Object>> events = new ArrayList<>();
+        for (int j = 0; j < settings.eventsPerLeague(); j++) {
+            events.add(event(leagueId * 1000 + j, Math.min(settings.listMarkets(), settings.marketsPerEvent())));
+        }
+        final Map<String, Object> betline = new LinkedHashMap<>();
+        betline.put("enabled", true);
+        betline.put("vtag", Long.toHexString(startMillis));
+        betline.put("events", events);
+        return betline;
+    }
+
+    /**
+     * Generates an event with its first {@code markets} markets; the same ID always yields the same event.
+     */
+    private Map<String, Object> event(long eventId, int markets) {
+        final long leagueId = eventId / 1000;
+        final int leagueOrdinal = (int) ((leagueId - LEAGUE_ID_BASE) % LEAGUES_PER_SPORT_SLOT);
+        final String sport = sportNames.getOrDefault((int) ((leagueId - LEAGUE_ID_BASE) / LEAGUES_PER_SPORT_SLOT),
+                "Unknown");
+        final var random = new SplittableRandom(eventId);
+        final Map<String, Object> event = new LinkedHashMap<>();
+        event.put("id", eventId);
+        event.put("name", sport + " Home " + eventId % 1000 + " - " + sport + " Away " + eventId % 1000);
+        event.put("kickoff", startMillis + HOUR_MILLIS + random.nextLong(3 * 24 * HOUR_MILLIS));
+        event.put("lastUpdated", startMillis);
+        event.put("league", Map.of("id", leagueId, "name", sport + " League " + leagueOrdinal,
+                "sport", Map.of("id", leagueId / LEAGUES_PER_SPORT_SLOT, "name", sport)));
+        event.put("betline", "prematch");
+        event.put("status", "OPEN");
+        event.put("marketsCount", settings.marketsPerEvent());
+        event.put("markets", markets(eventId, random, markets));
+        return event;
+    }
+
+    private static List<Map<String, Object>> markets(long eventId, SplittableRandom random, int count) {
+        final double home = 0.25 + 0.4 * random.nextDouble();
+        final double draw = 0.2 + 0.1 * random.nextDouble();
+        final double away = 1 - home - draw;
+        final long firstMarketId = (eventId - EVENT_ID_BASE) * 100;
+        final List<Map<String, Object>> markets = new ArrayList<>(count);
+        for (int k = 0; k < count; k++) {
+            final long marketId = firstMarketId + k;
+            final Map<String, Double> runners = new LinkedHashMap<>();
+            final String name;
+            switch (k) {
+                case 0 -> {
+                    name = "Winner";
+                    runners.put("1", home);
+                    runners.put("X", draw);
+                    runners.put("2", away);
+                }
+                case 1 -> {
+                    name = "Double Chance";
+                    runners.put("1X", home + draw);
+                    runners.put("12", home + away);
+                    runners.put("X2", draw + away);
+                }
+                case 2 -> {
+                    name = "Draw No Bet";
+                    runners.put("1", home / (home + away));
+                    runners.put("2", away / (home + away));
+                }
+                case 3 -> {
+                    name = "Both Teams To Score";
+                    final double yes = 0.4 + 0.2 * random.nextDouble();
+                    runners.put("Yes", yes);
+                    runners.put("No", 1 - yes);
+                }
+                default -> {
+                    final double line = 0.5 + (k - 4) / 2;
+                    if (k % 2 == 0) {
+                        name = "Total";
+                        final double over = clamp(0.5 + (2.5 - line) * 0.15 + 0.05 * random.nextGaussian());
+                        runners.put("Over (" + line + ")", over);
+                        runners.put("Under (" + line + ")", 1 - over);
+                    } else {
+                        name = "Handicap";
+                        final double covers = clamp(0.5 + (home - away) - (line - 0.5) * 0.1);
+                        runners.put("1 (-" + line + ")", covers);
+                        runners.put("2 (+" + line + ")", 1 - covers);
+                    }
+                }
+            }
+            final List<Map<String, Object>> runnerList = new ArrayList<>(runners.size());
+            int r = 0;
+            for (Map.Entry<String, Double> runner : runners.entrySet()) {
+                final double price = Math.max(1.01, Math.round(100 / (runner.getValue() * (1 + MARGIN))) / 100.0);
+                runnerList.add(Map.of("id", marketId * 10 + r++, "name", runner.getKey(), "open", true,
+                        "price", price, "priceStr", Double.toString(price)));
+            }
+            markets.add(Map.of("id", marketId, "name", name, "open", true, "runners", runnerList));
+        }
+        return markets;
+    }
+
+    private byte[] json(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long leagueId(int sportSlot, int league) {
+        return LEAGUE_ID_BASE + (long) sportSlot * LEAGUES_PER_SPORT_SLOT + league;
+    }
+
+    private static String firstParameter(QueryStringDecoder uri, String name) {
+        final List<String> values = uri.parameters().get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    private static double clamp(double probability) {
+        return Math.min(0.95, Math.max(0.05, probability));
+    }
+
+    private static String capitalize(String slug) {
+        return slug.isEmpty() ? slug : Character.toUpperCase(slug.charAt(0)) + slug.substring(1);
+    }
+}
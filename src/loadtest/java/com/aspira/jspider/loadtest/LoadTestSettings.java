@@ -0,0 +1,23 @@
+package com.aspira.jspider.loadtest;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of a {@link CrawlLoadTest} run, bound from the {@code loadtest.*} arguments.
+ *
+ * @param warmupIterations     crawls run before measuring, to warm up the JIT and the connection pool
+ * @param iterations           measured crawls
+ * @param directory            directory for the reports, odds history and the load-test result
+ * @param minMatchesPerSecond  fail the run when the measured throughput is lower, or zero to not check
+ * @param maxP99FetchLatency   fail the run when the 99th percentile match fetch latency is higher, or zero to
+ *                             not check
+ */
+public record LoadTestSettings(@DefaultValue("1") int warmupIterations,
+                               @DefaultValue("3") int iterations,
+                               @DefaultValue("target/loadtest") Path directory,
+                               @DefaultValue("0") double minMatchesPerSecond,
+                               @DefaultValue("0s") Duration maxP99FetchLatency) {
+}
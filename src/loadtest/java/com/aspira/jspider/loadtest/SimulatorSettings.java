@@ -0,0 +1,41 @@
+package com.aspira.jspider.loadtest;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Shape and behaviour of the {@link LeonApiSimulator}, bound from the {@code simulator.*} arguments.
+ *
+ * @param leaguesPerSport  top-league links on every sport page
+ * @param eventsPerLeague  events in every league list, at most 999
+ * @param marketsPerEvent  markets of every event detail
+ * @param listMarkets      markets already included in the league-list entries; with {@code marketsPerEvent}
+ *                         the crawler serves the match from the list without a detail request
+ * @param latencyMedian    median response latency
+ * @param latencyP99       99th percentile response latency; latencies are drawn from a log-normal distribution
+ *                         with this median and 99th percentile
+ * @param throttleRate     share of API requests answered with {@code 429 Too Many Requests}
+ * @param retryAfter       {@code Retry-After} sent with throttled responses, or zero for none
+ * @param errorRate        share of API requests answered with {@code 503 Service Unavailable}
+ */
+public record SimulatorSettings(@DefaultValue("10") int leaguesPerSport,
+                                @DefaultValue("20") int eventsPerLeague,
+                                @DefaultValue("30") int marketsPerEvent,
+                                @DefaultValue("1") int listMarkets,
+                                @DefaultValue("20ms") Duration latencyMedian,
+                                @DefaultValue("100ms") Duration latencyP99,
+                                @DefaultValue("0") double throttleRate,
+                                @DefaultValue("1s") Duration retryAfter,
+                                @DefaultValue("0") double errorRate) {
+
+    public SimulatorSettings {
+        if (eventsPerLeague < 0 || eventsPerLeague > LeonApiSimulator.MAX_EVENTS_PER_LEAGUE) {
+            throw new IllegalArgumentException("simulator.events-per-league must be between 0 and "
+                    + LeonApiSimulator.MAX_EVENTS_PER_LEAGUE);
+        }
+        if (latencyP99.compareTo(latencyMedian) < 0) {
+            throw new IllegalArgumentException("simulator.latency-p99 must not be below simulator.latency-median");
+        }
+    }
+}
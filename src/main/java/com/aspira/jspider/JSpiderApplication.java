@@ -1,13 +1,20 @@
 package com.aspira.jspider;
 
+import com.aspira.jspider.cli.CrawlCommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.core.env.Profiles;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+@EnableScheduling
 @SpringBootApplication
 public class JSpiderApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(JSpiderApplication.class, args);
+        final var context = SpringApplication.run(JSpiderApplication.class, args);
+        if (context.getEnvironment().acceptsProfiles(Profiles.of(CrawlCommandLineRunner.PROFILE))) {
+            System.exit(SpringApplication.exit(context));
+        }
     }
 
-}
\ No newline at end of file
+}
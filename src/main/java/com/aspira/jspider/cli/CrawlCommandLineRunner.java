@@ -0,0 +1,51 @@
+package com.aspira.jspider.cli;
+
+import com.aspira.jspider.model.CrawlSummary;
+import com.aspira.jspider.service.LeonBetsParser;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs a single crawl when the application is started with the {@value #PROFILE} profile.
+ * <p>
+ * The profile starts no web server and initializes beans lazily, so only the crawl pipeline is created.
+ * The crawl writes the report and the crawl summary as {@code POST /api/analyze-leon} does, after which
+ * {@link com.aspira.jspider.JSpiderApplication} closes the context and exits. The exit code is {@code 0}
+ * when everything was crawled and {@code cli.partial-exit-code} when some pages, leagues or matches failed;
+ * a crawl that could not run at all exits with {@code 1}.
+ * </p>
+ */
+@Slf4j
+@Component
+@Profile(CrawlCommandLineRunner.PROFILE)
+@RequiredArgsConstructor
+public class CrawlCommandLineRunner implements CommandLineRunner, ExitCodeGenerator {
+
+    public static final String PROFILE = "cli";
+
+    private final LeonBetsParser leonBetsParser;
+
+    @Value("${cli.partial-exit-code:2}")
+    private int partialExitCode;
+
+    private int exitCode;
+
+    @Override
+    public void run(String... args) {
+        final CrawlSummary summary = leonBetsParser.parseBetsData();
+        log.info("Crawled {} matches from {} leagues and {} sport pages with {} failures in {} ms", summary.matches(),
+                summary.leagues(), summary.pages(), summary.failures().size(),
+                summary.finishedAt().toEpochMilli() - summary.startedAt().toEpochMilli());
+        exitCode = summary.failures().isEmpty() ? 0 : partialExitCode;
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+}
@@ -0,0 +1,27 @@
+package com.aspira.jspider.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Configuration of the fork-join pool that runs the odds analytics.
+ * <p>
+ * The pool has {@code analytics.parallelism} threads, or one per processor when the property is {@code 0}.
+ * Like the crawl executor, it lives as long as the application context, so crawls share it instead of
+ * starting and stopping threads for every analysis.
+ * </p>
+ */
+@Configuration
+public class AnalyticsExecutorConfig {
+
+    @Value("${analytics.parallelism:0}")
+    private int parallelism;
+
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool analyticsPool() {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -0,0 +1,72 @@
+package com.aspira.jspider.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Configuration of the executor that runs crawl tasks.
+ * <p>
+ * The execution mode is selected with the {@code crawl.executor.mode} property:
+ * </p>
+ * <ul>
+ *   <li><code>fixed</code> - a fixed pool of {@code crawl.executor.pool-size} platform threads (default);</li>
+ *   <li><code>cached</code> - an unbounded pool of platform threads that are reused when idle;</li>
+ *   <li><code>virtual</code> - a new virtual thread per task. Requires JDK 21+, older runtimes fall back
+ *   to <code>cached</code>.</li>
+ * </ul>
+ * <p>
+ * The executor lives as long as the application context and is shut down when the context closes,
+ * so the crawl can be triggered any number of times.
+ * </p>
+ */
+@Slf4j
+@Configuration
+public class CrawlExecutorConfig {
+
+    private static final String THREAD_NAME_PREFIX = "crawl-";
+
+    @Value("${crawl.executor.mode:fixed}")
+    private String mode;
+
+    @Value("${crawl.executor.pool-size:3}")
+    private int poolSize;
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService crawlExecutor() {
+        final var threadFactory = new CustomizableThreadFactory(THREAD_NAME_PREFIX);
+        return switch (mode.toLowerCase(Locale.ROOT)) {
+            case "fixed" -> Executors.newFixedThreadPool(poolSize, threadFactory);
+            case "cached" -> Executors.newCachedThreadPool(threadFactory);
+            case "virtual" -> newVirtualThreadPerTaskExecutor(threadFactory);
+            default -> throw new IllegalArgumentException("Unknown crawl.executor.mode: " + mode);
+        };
+    }
+
+    @Bean
+    public Scheduler crawlScheduler(ExecutorService crawlExecutor) {
+        return Schedulers.fromExecutorService(crawlExecutor, "crawl");
+    }
+
+    /**
+     * Creates a virtual-thread-per-task executor through reflection, so the project still compiles and
+     * runs on JDK 17.
+     */
+    private ExecutorService newVirtualThreadPerTaskExecutor(CustomizableThreadFactory fallbackThreadFactory) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.warn("Virtual threads are not available on Java {}, falling back to a cached thread pool",
+                    Runtime.version().feature());
+            return Executors.newCachedThreadPool(fallbackThreadFactory);
+        }
+    }
+}
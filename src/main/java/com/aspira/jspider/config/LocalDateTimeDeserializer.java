@@ -22,7 +22,16 @@ import java.time.ZoneOffset;
 public class LocalDateTimeDeserializer extends JsonDeserializer<LocalDateTime> {
     @Override
     public LocalDateTime deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
-        long timestamp = p.getLongValue();
+        return fromEpochMilli(p.getLongValue());
+    }
+
+    /**
+     * Converts a timestamp in milliseconds since the epoch to a {@link LocalDateTime} in UTC.
+     *
+     * @param timestamp milliseconds since 1970-01-01T00:00:00Z
+     * @return the corresponding UTC {@link LocalDateTime}
+     */
+    public static LocalDateTime fromEpochMilli(long timestamp) {
         return LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneOffset.UTC);
     }
 }
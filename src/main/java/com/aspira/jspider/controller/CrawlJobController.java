@@ -0,0 +1,113 @@
+package com.aspira.jspider.controller;
+
+import com.aspira.jspider.model.CrawlJobStatus;
+import com.aspira.jspider.model.Match;
+import com.aspira.jspider.service.CrawlJobService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * REST controller for running crawls of the "Leon" bookmaker as asynchronous jobs.
+ * <p>
+ * Unlike <code>POST /api/analyze-leon</code>, submitting a job returns immediately. The job is then polled
+ * for its progress, its matches are streamed while they are being fetched, and it can be cancelled.
+ * </p>
+ *
+ * <p>Endpoints:</p>
+ * <ul>
+ *   <li><code>POST /api/crawl-jobs</code> - Submits a crawl job, optionally for selected sports and with a report.</li>
+ *   <li><code>GET /api/crawl-jobs</code> - Lists the known jobs.</li>
+ *   <li><code>GET /api/crawl-jobs/{id}</code> - Returns the state and progress of a job.</li>
+ *   <li><code>GET /api/crawl-jobs/{id}/matches</code> - Streams the matches of a job as NDJSON or server-sent events.</li>
+ *   <li><code>DELETE /api/crawl-jobs/{id}</code> - Cancels a job.</li>
+ * </ul>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ * POST /api/crawl-jobs?sports=football,tennis&amp;report=true
+ * GET /api/crawl-jobs/{id}/matches
+ * </pre>
+ *
+ * @see CrawlJobService
+ * @see CrawlJobStatus
+ */
+@Slf4j
+@RestController
+@ConditionalOnWebApplication
+@RequestMapping("/api/crawl-jobs")
+@RequiredArgsConstructor
+public class CrawlJobController {
+
+    private final CrawlJobService crawlJobService;
+
+    @Value("${crawl.sports:football,tennis,basketball,esports}")
+    private List<String> defaultSports;
+
+    /**
+     * Handles the HTTP POST request to the endpoint <code>/api/crawl-jobs</code>.
+     *
+     * @param sports the sports to crawl; all sports if omitted
+     * @param report whether the crawled matches are also written to the report file
+     * @return a {@link ResponseEntity} with status 202, the job status and its location
+     */
+    @PostMapping
+    public ResponseEntity<CrawlJobStatus> submit(@RequestParam(required = false) List<String> sports,
+                                                 @RequestParam(defaultValue = "false") boolean report) {
+        log.debug("REST request to submit crawl job for sports {}", sports);
+        final var status = crawlJobService.submit(sports == null || sports.isEmpty() ? defaultSports : sports, report);
+        final var location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(status.id())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(status);
+    }
+
+    @GetMapping
+    public List<CrawlJobStatus> getJobs() {
+        log.debug("REST request to list crawl jobs");
+        return crawlJobService.getJobs();
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<CrawlJobStatus> getStatus(@PathVariable String id) {
+        log.debug("REST request to get crawl job {}", id);
+        return ResponseEntity.of(crawlJobService.getStatus(id));
+    }
+
+    /**
+     * Handles the HTTP GET request to the endpoint <code>/api/crawl-jobs/{id}/matches</code>.
+     * <p>
+     * The response starts with the most recent matches the job has already fetched and stays open until
+     * the job finishes.
+     * </p>
+     *
+     * @param id the job ID
+     * @return a {@link ResponseEntity} with the stream of matches, or 404 if the job is unknown
+     */
+    @GetMapping(path = "/{id}/matches", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public ResponseEntity<Flux<Match>> streamMatches(@PathVariable String id) {
+        log.debug("REST request to stream matches of crawl job {}", id);
+        return ResponseEntity.of(crawlJobService.streamMatches(id));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<CrawlJobStatus> cancel(@PathVariable String id) {
+        log.debug("REST request to cancel crawl job {}", id);
+        return ResponseEntity.of(crawlJobService.cancel(id));
+    }
+}
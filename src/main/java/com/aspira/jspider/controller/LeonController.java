@@ -1,9 +1,11 @@
 package com.aspira.jspider.controller;
 
 
+import com.aspira.jspider.model.CrawlSummary;
 import com.aspira.jspider.service.LeonBetsParser;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -13,7 +15,8 @@ import org.springframework.web.bind.annotation.RestController;
  * REST controller for handling requests related to analyzing bookmaker data for "Leon".
  * <p>
  * This controller exposes an endpoint to trigger the parsing of bets data from the "Leon" bookmaker.
- * It uses the {@link LeonBetsParser} service to process the data and provides a simple confirmation response.
+ * It uses the {@link LeonBetsParser} service to process the data and responds with the {@link CrawlSummary}
+ * of the crawl, which lists any sport pages, leagues and matches that could not be fetched.
  * </p>
  *
  * <p>Endpoints:</p>
@@ -31,6 +34,7 @@ import org.springframework.web.bind.annotation.RestController;
  */
 @Slf4j
 @RestController
+@ConditionalOnWebApplication
 @RequestMapping("/api")
 @RequiredArgsConstructor
 public class LeonController {
@@ -43,14 +47,12 @@ public class LeonController {
      * Logs the request for debugging purposes and delegates the data parsing task to the {@link LeonBetsParser}.
      * </p>
      *
-     * @return a {@link ResponseEntity} with a message indicating that the data was processed successfully
+     * @return a {@link ResponseEntity} with the summary of the crawl
      */
     @PostMapping("/analyze-leon")
-    public ResponseEntity<String> analyzeLeon() {
+    public ResponseEntity<CrawlSummary> analyzeLeon() {
         log.debug("REST request to analyze bookmaker leon");
-        leonBetsParser.parseBetsData();
-
-        return ResponseEntity.ok("Data successfully processed");
+        return ResponseEntity.ok(leonBetsParser.parseBetsData());
     }
 
 }
\ No newline at end of file
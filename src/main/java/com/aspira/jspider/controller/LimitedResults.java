@@ -0,0 +1,30 @@
+package com.aspira.jspider.controller;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * Cuts the results of the list endpoints to a requested limit.
+ * <p>
+ * The limit defaults to and is capped at the endpoint's configured maximum. The {@code X-Total-Count} header
+ * carries the number of results before the limit, and a limit below 1 is rejected with 400.
+ * </p>
+ */
+final class LimitedResults {
+
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    private LimitedResults() {
+    }
+
+    static <T> ResponseEntity<List<T>> limit(List<T> results, Integer limit, int maxResults) {
+        if (limit != null && limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        final int size = Math.min(results.size(), limit == null ? maxResults : Math.min(limit, maxResults));
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(results.size()))
+                .body(results.subList(0, size));
+    }
+}
@@ -0,0 +1,84 @@
+package com.aspira.jspider.controller;
+
+import com.aspira.jspider.model.Match;
+import com.aspira.jspider.store.MarketQuote;
+import com.aspira.jspider.store.OddsIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * REST controller serving the current odds of the latest crawls from the {@link OddsIndex}.
+ *
+ * <p>Endpoints:</p>
+ * <ul>
+ *   <li><code>GET /api/odds/matches/{matchId}</code> - Returns a match from every bookmaker offering it,
+ *   or 404 if it is not indexed.</li>
+ *   <li><code>GET /api/odds/matches</code> - Returns the matches of a <code>sport</code> and/or
+ *   <code>league</code>.</li>
+ *   <li><code>GET /api/odds/markets</code> - Returns all markets with the given <code>name</code>, optionally
+ *   of one <code>sport</code>.</li>
+ * </ul>
+ * The list endpoints accept optional ISO-8601 <code>from</code> and <code>to</code> kickoff bounds in UTC and
+ * return at most <code>limit</code> results, by default and at most <code>odds-index.max-results</code>, in
+ * kickoff order. The <code>X-Total-Count</code> header carries the number of results before the limit; a
+ * <code>limit</code> below 1 is rejected with 400.
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ * GET /api/odds/markets?name=Winner&amp;sport=football&amp;from=2024-07-30T00:00:00&amp;to=2024-07-30T23:59:59
+ * </pre>
+ *
+ * @see OddsIndex
+ * @see MarketQuote
+ */
+@Slf4j
+@RestController
+@ConditionalOnWebApplication
+@RequestMapping("/api/odds")
+@RequiredArgsConstructor
+public class OddsController {
+
+    private final OddsIndex oddsIndex;
+
+    @Value("${odds-index.max-results:1000}")
+    private int maxResults;
+
+    @GetMapping("/matches/{matchId}")
+    public ResponseEntity<List<Match>> getMatch(@PathVariable String matchId) {
+        log.debug("REST request to get odds of match {}", matchId);
+        final List<Match> matches = oddsIndex.findMatch(matchId);
+        return matches.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(matches);
+    }
+
+    @GetMapping("/matches")
+    public ResponseEntity<List<Match>> getMatches(@RequestParam(required = false) String sport,
+                                                  @RequestParam(required = false) String league,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                  @RequestParam(required = false) Integer limit) {
+        log.debug("REST request to get odds of sport {} and league {}", sport, league);
+        return LimitedResults.limit(oddsIndex.findMatches(sport, league, from, to), limit, maxResults);
+    }
+
+    @GetMapping("/markets")
+    public ResponseEntity<List<MarketQuote>> getMarkets(@RequestParam String name,
+                                                        @RequestParam(required = false) String sport,
+                                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                        @RequestParam(required = false) Integer limit) {
+        log.debug("REST request to get {} markets of sport {}", name, sport);
+        return LimitedResults.limit(oddsIndex.findMarkets(name, sport, from, to), limit, maxResults);
+    }
+}
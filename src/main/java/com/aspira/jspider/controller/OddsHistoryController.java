@@ -0,0 +1,70 @@
+package com.aspira.jspider.controller;
+
+import com.aspira.jspider.store.OddsHistoryStore;
+import com.aspira.jspider.store.OddsObservation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * REST controller for querying the odds time series recorded by the {@link OddsHistoryStore}.
+ *
+ * <p>Endpoints:</p>
+ * <ul>
+ *   <li><code>GET /api/odds-history/matches/{matchId}</code> - Returns the observed prices of all runners of a match.</li>
+ *   <li><code>GET /api/odds-history/runners/{runnerId}</code> - Returns the observed prices of a runner.</li>
+ * </ul>
+ * Both endpoints accept optional ISO-8601 <code>from</code> and <code>to</code> parameters and return at most
+ * <code>limit</code> observations, by default and at most <code>odds-history.max-results</code>, oldest first.
+ * The <code>X-Total-Count</code> header carries the number of observations before the limit, so a client can
+ * page through a long series by moving <code>from</code>; a <code>limit</code> below 1 is rejected with 400.
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ * GET /api/odds-history/runners/1970326224678567?from=2024-07-30T00:00:00Z
+ * </pre>
+ *
+ * @see OddsHistoryStore
+ * @see OddsObservation
+ */
+@Slf4j
+@RestController
+@ConditionalOnWebApplication
+@RequestMapping("/api/odds-history")
+@RequiredArgsConstructor
+public class OddsHistoryController {
+
+    private final OddsHistoryStore oddsHistoryStore;
+
+    @Value("${odds-history.max-results:1000}")
+    private int maxResults;
+
+    @GetMapping("/matches/{matchId}")
+    public ResponseEntity<List<OddsObservation>> getMatchHistory(@PathVariable long matchId,
+                                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                                                 @RequestParam(required = false) Integer limit) {
+        log.debug("REST request to get odds history of match {}", matchId);
+        return LimitedResults.limit(oddsHistoryStore.matchHistory(matchId, from, to), limit, maxResults);
+    }
+
+    @GetMapping("/runners/{runnerId}")
+    public ResponseEntity<List<OddsObservation>> getRunnerHistory(@PathVariable long runnerId,
+                                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                                                  @RequestParam(required = false) Integer limit) {
+        log.debug("REST request to get odds history of runner {}", runnerId);
+        return LimitedResults.limit(oddsHistoryStore.runnerHistory(runnerId, from, to), limit, maxResults);
+    }
+}
@@ -0,0 +1,189 @@
+package com.aspira.jspider.metrics;
+
+import com.aspira.jspider.model.CrawlFailure;
+import com.aspira.jspider.model.Market;
+import com.aspira.jspider.model.Match;
+import com.aspira.jspider.webclient.AdaptiveRateLimiter;
+import com.aspira.jspider.webclient.PathCircuitBreaker;
+import com.aspira.jspider.webclient.RequestHedger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Locale;
+import java.util.Objects;
+
+
+/**
+ * Micrometer instrumentation of the crawl pipeline.
+ * <p>
+ * Every stage records its own meter so bottlenecks can be located from the Actuator {@code /metrics} and
+ * {@code /prometheus} endpoints:
+ * </p>
+ * <ul>
+ *   <li><code>crawl.page.parse</code> - league discovery time, tagged by source, sport and outcome;</li>
+ *   <li><code>crawl.league.fetch</code> - league-list fetch latency, tagged by source, sport and outcome;</li>
+ *   <li><code>crawl.match.fetch</code> - match-detail fetch latency, tagged by source, sport and outcome;</li>
+ *   <li><code>crawl.matches</code>, <code>crawl.markets</code>, <code>crawl.runners</code> - produced items;</li>
+ *   <li><code>crawl.failures</code> - skipped sport pages, leagues and matches, tagged by source and stage;</li>
+ *   <li><code>crawl.matches.listed</code> - matches built from the league list without a detail request;</li>
+ *   <li><code>leon.client.retries</code>, <code>leon.client.throttled</code> - retries and 429 responses;</li>
+ *   <li><code>leon.client.bytes.received</code> - response bytes received from the Leon API;</li>
+ *   <li><code>leon.rate-limiter.*</code> - permits/sec, concurrency limit, in-flight requests and queue depth;</li>
+ *   <li><code>leon.circuit-breaker.open</code> - request paths whose circuit is open or half-open;</li>
+ *   <li><code>leon.client.hedged</code> - duplicate requests sent for slow responses;</li>
+ *   <li><code>report.write</code> - report write duration, tagged by format and outcome.</li>
+ * </ul>
+ * <p>
+ * With {@code crawl.tracing.enabled} every crawl is additionally wrapped in a {@code crawl} observation,
+ * which becomes a trace span when a tracing bridge is on the classpath.
+ * </p>
+ */
+@Component
+public class CrawlMetrics {
+
+    private static final String SOURCE = "source";
+    private static final String SPORT = "sport";
+    private static final String OUTCOME = "outcome";
+    private static final String STAGE = "stage";
+    private static final String ALL_SOURCES = "all";
+
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+    private final Counter matches;
+    private final Counter markets;
+    private final Counter runners;
+    private final Counter listedMatches;
+    private final Counter retries;
+    private final Counter throttled;
+    private final Counter bytesReceived;
+
+    public CrawlMetrics(MeterRegistry meterRegistry, ObservationRegistry observationRegistry,
+                        @Value("${crawl.tracing.enabled:true}") boolean tracingEnabled) {
+        this.meterRegistry = meterRegistry;
+        this.observationRegistry = tracingEnabled ? observationRegistry : ObservationRegistry.NOOP;
+        this.matches = meterRegistry.counter("crawl.matches");
+        this.markets = meterRegistry.counter("crawl.markets");
+        this.runners = meterRegistry.counter("crawl.runners");
+        this.listedMatches = meterRegistry.counter("crawl.matches.listed");
+        this.retries = meterRegistry.counter("leon.client.retries");
+        this.throttled = meterRegistry.counter("leon.client.throttled");
+        this.bytesReceived = Counter.builder("leon.client.bytes.received")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public <T> Mono<T> timePageParse(String source, String sport, Mono<T> parse) {
+        return time("crawl.page.parse", source, sport, parse);
+    }
+
+    public <T> Mono<T> timeLeagueFetch(String source, String sport, Mono<T> fetch) {
+        return time("crawl.league.fetch", source, sport, fetch);
+    }
+
+    public <T> Mono<T> timeMatchFetch(String source, String sport, Mono<T> fetch) {
+        return time("crawl.match.fetch", source, sport, fetch);
+    }
+
+    public <T> Mono<T> timeReportWrite(String format, Mono<T> write) {
+        return Mono.defer(() -> {
+            final var sample = Timer.start(meterRegistry);
+            return write.doFinally(signal -> sample.stop(timer("report.write", "format", format, OUTCOME, outcome(signal))));
+        });
+    }
+
+    /**
+     * Runs a whole crawl inside a {@code crawl} observation.
+     */
+    public void observeCrawl(String sports, Runnable crawl) {
+        Observation.createNotStarted("crawl", observationRegistry)
+                .highCardinalityKeyValue("sports", sports)
+                .observe(crawl);
+    }
+
+    public void recordMatch(Match match) {
+        matches.increment();
+        if (match.getMarkets() == null) {
+            return;
+        }
+        markets.increment(match.getMarkets().size());
+        for (Market market : match.getMarkets()) {
+            if (market.getRunners() != null) {
+                runners.increment(market.getRunners().size());
+            }
+        }
+    }
+
+    public void recordListedMatch() {
+        listedMatches.increment();
+    }
+
+    public void recordFailure(CrawlFailure failure) {
+        meterRegistry.counter("crawl.failures", SOURCE, Objects.toString(failure.source(), ALL_SOURCES),
+                STAGE, failure.stage().name().toLowerCase(Locale.ROOT)).increment();
+    }
+
+    public void recordRetry() {
+        retries.increment();
+    }
+
+    public void recordThrottled() {
+        throttled.increment();
+    }
+
+    public void recordBytesReceived(int bytes) {
+        bytesReceived.increment(bytes);
+    }
+
+    public void bindRateLimiter(AdaptiveRateLimiter rateLimiter) {
+        Gauge.builder("leon.rate-limiter.permits-per-second", rateLimiter, AdaptiveRateLimiter::getPermitsPerSecond)
+                .register(meterRegistry);
+        Gauge.builder("leon.rate-limiter.concurrency-limit", rateLimiter, AdaptiveRateLimiter::getConcurrencyLimit)
+                .register(meterRegistry);
+        Gauge.builder("leon.rate-limiter.in-flight", rateLimiter, AdaptiveRateLimiter::getInFlight)
+                .register(meterRegistry);
+        Gauge.builder("leon.rate-limiter.queue-depth", rateLimiter, AdaptiveRateLimiter::getQueueDepth)
+                .register(meterRegistry);
+    }
+
+    public void bindCircuitBreaker(PathCircuitBreaker circuitBreaker) {
+        Gauge.builder("leon.circuit-breaker.open", circuitBreaker, PathCircuitBreaker::getOpenCircuits)
+                .register(meterRegistry);
+    }
+
+    public void bindRequestHedger(RequestHedger hedger) {
+        FunctionCounter.builder("leon.client.hedged", hedger, RequestHedger::getHedgedRequests)
+                .register(meterRegistry);
+    }
+
+    private <T> Mono<T> time(String name, String source, String sport, Mono<T> fetch) {
+        return Mono.defer(() -> {
+            final var sample = Timer.start(meterRegistry);
+            return fetch.doFinally(signal -> sample.stop(
+                    timer(name, SOURCE, source, SPORT, sport, OUTCOME, outcome(signal))));
+        });
+    }
+
+    private Timer timer(String name, String... tags) {
+        return Timer.builder(name)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static String outcome(SignalType signal) {
+        return switch (signal) {
+            case ON_COMPLETE -> "success";
+            case ON_ERROR -> "error";
+            default -> "cancelled";
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.aspira.jspider.model;
+
+/**
+ * An event found in a league list that may be fetched in detail during a crawl.
+ *
+ * @param sport         the sport the league was discovered for
+ * @param leagueId      the ID of the league listing the event
+ * @param event         the league-list entry of the event
+ * @param leagueMarkets the total number of markets offered by all events of the league
+ */
+public record CrawlCandidate(String sport, String leagueId, Event event, long leagueMarkets) {
+}
@@ -0,0 +1,23 @@
+package com.aspira.jspider.model;
+
+import java.time.Instant;
+
+/**
+ * A part of a crawl that failed or ran out of time; the rest of the crawl carries on without it.
+ *
+ * @param stage    the crawl stage that failed
+ * @param source   the bookmaker source, or {@code null} for the whole crawl
+ * @param sport    the sport being crawled, or {@code null} for the whole crawl
+ * @param id       the ID of the failed league or match, or {@code null} for a sport page or the whole crawl
+ * @param error    the simple class name of the underlying error
+ * @param message  the message of the underlying error
+ * @param retries  the number of retries sent before giving up
+ * @param failedAt when the failure was observed
+ */
+public record CrawlFailure(Stage stage, String source, String sport, String id, String error, String message,
+                           long retries, Instant failedAt) {
+
+    public enum Stage {
+        PAGE, LEAGUE, MATCH, DEADLINE
+    }
+}
@@ -0,0 +1,32 @@
+package com.aspira.jspider.model;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Snapshot of the state and progress of an asynchronous crawl job.
+ *
+ * @param id          the job ID
+ * @param sports      the sports crawled by the job
+ * @param state       the current state of the job
+ * @param pagesDone   the number of sport pages parsed so far
+ * @param leaguesDone the number of league lists fetched so far
+ * @param matchesDone the number of matches fetched so far
+ * @param failures    the sport pages, leagues and matches skipped so far because they failed
+ * @param error       the failure message if the job failed
+ * @param createdAt   when the job was submitted
+ * @param startedAt   when the job started running
+ * @param finishedAt  when the job finished
+ */
+public record CrawlJobStatus(String id, List<String> sports, State state, int pagesDone, int leaguesDone,
+                             int matchesDone, List<CrawlFailure> failures, String error, Instant createdAt,
+                             Instant startedAt, Instant finishedAt) {
+
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED;
+
+        public boolean isFinished() {
+            return this == COMPLETED || this == FAILED || this == CANCELLED;
+        }
+    }
+}
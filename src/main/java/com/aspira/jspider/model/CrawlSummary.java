@@ -0,0 +1,19 @@
+package com.aspira.jspider.model;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Outcome of a crawl: how much of it finished and what failed.
+ *
+ * @param sports     the crawled sports
+ * @param startedAt  when the crawl started
+ * @param finishedAt when the crawl finished
+ * @param pages      the number of sport pages parsed
+ * @param leagues    the number of league lists fetched
+ * @param matches    the number of matches fetched
+ * @param failures   the sport pages, leagues and matches that failed, in the order they failed
+ */
+public record CrawlSummary(List<String> sports, Instant startedAt, Instant finishedAt, int pages, int leagues,
+                           int matches, List<CrawlFailure> failures) {
+}
@@ -1,10 +1,23 @@
 package com.aspira.jspider.model;
 
+import com.aspira.jspider.config.LocalDateTimeDeserializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import lombok.Data;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Data
 public class Event {
 
     private String id;
+    private String name;
+    private Long lastUpdated;
+    @JsonDeserialize(using = LocalDateTimeDeserializer.class)
+    private LocalDateTime kickoff;
+    private String betline;
+    private League league;
+    private List<Market> markets;
+    private Integer marketsCount;
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,53 @@
+package com.aspira.jspider.model;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Margin and implied probabilities of one book of a market: the runners of one line, e.g. the
+ * {@code Over (2.5)} and {@code Under (2.5)} runners of a {@code Total} market.
+ *
+ * @param bookmaker     the bookmaker offering the market
+ * @param matchId       the ID of the match
+ * @param match         the name of the match
+ * @param marketId      the ID of the market
+ * @param market        the name of the market
+ * @param line          the total or the handicap of the home side of the book, or {@code null} if the market
+ *                      has none
+ * @param runners       the names of the runners
+ * @param prices        the decimal odds of the runners; {@code null} where a price could not be parsed
+ * @param probabilities the implied probabilities of the runners with the margin removed, or {@code null} if
+ *                      the book is incomplete
+ * @param overround     the sum of the raw implied probabilities, or {@code null} if the book is incomplete
+ * @param winners       the number of runners that win: two for Double Chance markets, one otherwise
+ * @param margin        the bookmaker margin relative to the number of winners, or {@code null} if the book is
+ *                      incomplete
+ * @param flags         the anomalies found in the book
+ */
+public record MarketAnalysis(String bookmaker, String matchId, String match, String marketId, String market,
+                             String line, List<String> runners, List<Double> prices, List<Double> probabilities,
+                             Double overround, Integer winners, Double margin, Set<Flag> flags) {
+
+    public enum Flag {
+        /**
+         * Fewer than two runners, or a runner without a valid price.
+         */
+        INCOMPLETE,
+        /**
+         * A negative margin: backing every runner returns a profit.
+         */
+        ARBITRAGE,
+        /**
+         * A margin above {@code analytics.max-margin}.
+         */
+        HIGH_MARGIN,
+        /**
+         * A margin far from the margins of the other markets with the same name.
+         */
+        MARGIN_OUTLIER,
+        /**
+         * Probabilities that contradict a related market of the same match.
+         */
+        INCONSISTENT
+    }
+}
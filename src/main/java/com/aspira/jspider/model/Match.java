@@ -13,6 +13,7 @@ import java.util.List;
 @Data
 public class Match {
 
+    private String bookmaker;
     private String id;
     private String name;
     @JsonDeserialize(using = LocalDateTimeDeserializer.class)
@@ -0,0 +1,19 @@
+package com.aspira.jspider.model;
+
+import java.time.Instant;
+
+/**
+ * Price movement of a single runner between two consecutive polls.
+ *
+ * @param runnerId   the ID of the runner whose price changed
+ * @param matchId    the ID of the match the runner belongs to
+ * @param matchName  the name of the match
+ * @param marketName the name of the market the runner belongs to
+ * @param runnerName the name of the runner
+ * @param oldValue   the price seen by the previous poll
+ * @param newValue   the price seen by the current poll
+ * @param timestamp  the time the current poll started
+ */
+public record OddsChange(String runnerId, String matchId, String matchName, String marketName,
+                         String runnerName, String oldValue, String newValue, Instant timestamp) {
+}
@@ -0,0 +1,30 @@
+package com.aspira.jspider.service;
+
+import com.aspira.jspider.model.Event;
+import com.aspira.jspider.model.Match;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * A bookmaker the {@link CrawlEngine} can crawl.
+ * <p>
+ * A crawl of a source runs in three steps: the leagues of every sport are discovered, the events of each
+ * league are listed, and the events selected by the {@link CrawlPlanner} are fetched as {@link Match}es.
+ * Implementations translate their bookmaker's API into the shared model and own their HTTP client, so
+ * connection pools, rate limits and retries are never shared between sources.
+ * </p>
+ */
+public interface BookmakerSource {
+
+    /**
+     * @return the unique, lower-case name of the source, e.g. {@code leon}
+     */
+    String getName();
+
+    Mono<List<String>> discoverLeagues(String sport);
+
+    Mono<List<Event>> listEvents(String leagueId);
+
+    Mono<Match> fetchMatch(String eventId);
+}
@@ -0,0 +1,13 @@
+package com.aspira.jspider.service;
+
+import com.aspira.jspider.model.Match;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+public interface CrawlEngine {
+
+    List<String> getSourceNames();
+
+    Flux<Match> crawlMatches(List<String> sports, CrawlProgress progress);
+}
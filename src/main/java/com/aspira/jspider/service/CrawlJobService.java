@@ -0,0 +1,21 @@
+package com.aspira.jspider.service;
+
+import com.aspira.jspider.model.CrawlJobStatus;
+import com.aspira.jspider.model.Match;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface CrawlJobService {
+
+    CrawlJobStatus submit(List<String> sports, boolean writeReport);
+
+    Optional<CrawlJobStatus> getStatus(String id);
+
+    List<CrawlJobStatus> getJobs();
+
+    Optional<Flux<Match>> streamMatches(String id);
+
+    Optional<CrawlJobStatus> cancel(String id);
+}
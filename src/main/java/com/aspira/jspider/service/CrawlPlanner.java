@@ -0,0 +1,10 @@
+package com.aspira.jspider.service;
+
+import com.aspira.jspider.model.CrawlCandidate;
+
+import java.util.List;
+
+public interface CrawlPlanner {
+
+    List<CrawlCandidate> plan(List<CrawlCandidate> candidates);
+}
@@ -0,0 +1,29 @@
+package com.aspira.jspider.service;
+
+import com.aspira.jspider.model.CrawlFailure;
+import com.aspira.jspider.model.Match;
+
+/**
+ * Callback notified as a crawl advances through its stages.
+ * <p>
+ * All methods have empty defaults, so implementations only override the stages they track. Callbacks may
+ * be invoked concurrently from several crawl threads.
+ * </p>
+ */
+public interface CrawlProgress {
+
+    CrawlProgress NONE = new CrawlProgress() {
+    };
+
+    default void onPageParsed(String sport, int leagues) {
+    }
+
+    default void onLeagueFetched(String leagueId, int events) {
+    }
+
+    default void onMatchFetched(Match match) {
+    }
+
+    default void onFailure(CrawlFailure failure) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.aspira.jspider.service;
+
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface LeagueDiscoveryService {
+
+    Mono<List<String>> discoverTopLeagueIds(String sport);
+}
@@ -1,7 +1,19 @@
 package com.aspira.jspider.service;
 
 
+import com.aspira.jspider.model.CrawlSummary;
+import com.aspira.jspider.model.Match;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
 public interface LeonBetsParser {
 
-        void parseBetsData();
-}
\ No newline at end of file
+        CrawlSummary parseBetsData();
+
+        Flux<Match> crawlMatches();
+
+        Flux<Match> crawlMatches(List<String> sports);
+
+        Flux<Match> crawlMatches(List<String> sports, CrawlProgress progress);
+}
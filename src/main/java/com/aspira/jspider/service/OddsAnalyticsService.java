@@ -0,0 +1,13 @@
+package com.aspira.jspider.service;
+
+import com.aspira.jspider.model.MarketAnalysis;
+import com.aspira.jspider.store.OddsSnapshot;
+
+import java.util.List;
+
+public interface OddsAnalyticsService {
+
+    List<MarketAnalysis> analyze(OddsSnapshot snapshot);
+
+    void writeAnalytics(List<MarketAnalysis> analyses);
+}
@@ -0,0 +1,16 @@
+package com.aspira.jspider.service;
+
+import com.aspira.jspider.model.OddsChange;
+
+/**
+ * In-process callback for odds movements detected by the {@link OddsPollingService}.
+ * <p>
+ * Every bean implementing this interface is notified of each change. Listeners are called on the
+ * polling thread and should return quickly.
+ * </p>
+ */
+@FunctionalInterface
+public interface OddsChangeListener {
+
+    void onOddsChange(OddsChange change);
+}
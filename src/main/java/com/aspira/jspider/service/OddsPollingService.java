@@ -0,0 +1,10 @@
+package com.aspira.jspider.service;
+
+import com.aspira.jspider.model.OddsChange;
+
+import java.util.List;
+
+public interface OddsPollingService {
+
+    List<OddsChange> poll(String sport);
+}
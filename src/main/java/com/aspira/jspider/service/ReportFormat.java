@@ -0,0 +1,22 @@
+package com.aspira.jspider.service;
+
+/**
+ * Output formats supported by the {@link ReportGenerationService}.
+ */
+public enum ReportFormat {
+
+    /**
+     * One row per runner with sport, league, match, market and runner columns.
+     */
+    CSV,
+
+    /**
+     * One JSON document per match and line.
+     */
+    NDJSON,
+
+    /**
+     * Excel workbook with one row per runner, written with a streaming (SXSSF) workbook.
+     */
+    XLSX
+}
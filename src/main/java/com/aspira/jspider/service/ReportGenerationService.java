@@ -1,10 +1,20 @@
 package com.aspira.jspider.service;
 
+import com.aspira.jspider.model.CrawlSummary;
 import com.aspira.jspider.model.Match;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.io.IOException;
 import java.util.List;
 
 public interface ReportGenerationService {
 
     void generateReport(List<Match> matches);
-}
\ No newline at end of file
+
+    Mono<Void> generateReport(Flux<Match> matches);
+
+    ReportSink openSink() throws IOException;
+
+    void writeSummary(CrawlSummary summary);
+}
@@ -0,0 +1,24 @@
+package com.aspira.jspider.service;
+
+import com.aspira.jspider.model.Match;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Destination that accepts matches one by one while a crawl is still running.
+ * <p>
+ * A sink writes to a temporary location and publishes the report only when {@link #commit()} is called.
+ * Closing a sink that was not committed discards everything written so far, so readers never observe a
+ * partially written report.
+ * </p>
+ */
+public interface ReportSink extends Closeable {
+
+    void write(Match match) throws IOException;
+
+    void commit() throws IOException;
+
+    @Override
+    void close() throws IOException;
+}
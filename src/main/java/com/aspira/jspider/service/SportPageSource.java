@@ -0,0 +1,17 @@
+package com.aspira.jspider.service;
+
+/**
+ * Where the {@link LeagueDiscoveryService} reads sport pages from.
+ */
+public enum SportPageSource {
+
+    /**
+     * Saved pages named {@code <sport>.html} in the configured directory.
+     */
+    FILE,
+
+    /**
+     * Pages downloaded from the bookmaker site on every crawl.
+     */
+    LIVE
+}
@@ -0,0 +1,319 @@
+package com.aspira.jspider.service.impl;
+
+import com.aspira.jspider.metrics.CrawlMetrics;
+import com.aspira.jspider.model.CrawlCandidate;
+import com.aspira.jspider.model.CrawlFailure;
+import com.aspira.jspider.model.CrawlFailure.Stage;
+import com.aspira.jspider.model.Event;
+import com.aspira.jspider.model.Market;
+import com.aspira.jspider.model.Match;
+import com.aspira.jspider.service.BookmakerSource;
+import com.aspira.jspider.service.CrawlEngine;
+import com.aspira.jspider.service.CrawlPlanner;
+import com.aspira.jspider.service.CrawlProgress;
+import com.aspira.jspider.store.OddsHistoryStore;
+import com.aspira.jspider.store.OddsIndex;
+import com.aspira.jspider.webclient.RetryExhaustedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the {@link CrawlEngine} that crawls every enabled {@link BookmakerSource} in parallel
+ * and merges their matches into one stream.
+ * <p>
+ * The sources are the {@code BookmakerSource} beans named in {@code crawl.sources.enabled}, or all of them
+ * when the property is empty. Each source runs its own pipeline on the shared crawl executor (see
+ * {@link com.aspira.jspider.config.CrawlExecutorConfig}): the leagues of every sport are discovered, their
+ * events are listed and planned by the {@link CrawlPlanner}, and the planned matches are fetched. A source
+ * has at most {@code crawl.sources.<name>.concurrency} (default {@code crawl.concurrency}) league or match
+ * requests in flight and its own plan budget, so a slow or large bookmaker cannot starve the others.
+ * </p>
+ * <p>
+ * A league linked from several sport pages is listed once per source, and the planner selects every event at
+ * most once. With {@code crawl.list-payload.enabled} no match-detail request is sent for an event whose
+ * league-list entry already carries the needed markets: all of its {@code marketsCount} markets or, when
+ * {@code crawl.list-payload.required-markets} is set, markets with each of those names. The match is then
+ * built from the list entry.
+ * </p>
+ * <p>
+ * Every stage is isolated: a sport page, league list or match that fails or exceeds its
+ * {@code crawl.timeouts.*} is reported to {@link CrawlProgress#onFailure} and skipped, and the rest of the
+ * crawl carries on. Once the whole crawl has run for {@code crawl.deadline}, everything still in flight is
+ * cancelled and the stream completes with the matches fetched so far.
+ * </p>
+ * <p>
+ * Every emitted match is tagged with the name of its source, counted in the {@link CrawlMetrics} and
+ * recorded in the {@link OddsHistoryStore}. When the crawl completes, including when it stops at the
+ * deadline, its matches are published to the {@link OddsIndex}; a cancelled crawl leaves the index as it was.
+ * Every failure marks its sport, and the deadline marks all sports, as incomplete in the index update, so
+ * their previous matches that could not be fetched again stay in the index.
+ * </p>
+ *
+ * @see BookmakerSource
+ * @see CrawlPlanner
+ */
+@Slf4j
+@Service
+public class CrawlEngineImpl implements CrawlEngine {
+
+    private static final String CONCURRENCY_PROPERTY = "crawl.sources.%s.concurrency";
+
+    private final Map<String, BookmakerSource> sources = new LinkedHashMap<>();
+    private final CrawlPlanner crawlPlanner;
+    private final Scheduler crawlScheduler;
+    private final CrawlMetrics crawlMetrics;
+    private final OddsHistoryStore oddsHistoryStore;
+    private final OddsIndex oddsIndex;
+    private final Environment environment;
+
+    @Value("${crawl.concurrency:16}")
+    private int concurrency;
+
+    @Value("${crawl.timeouts.page:60s}")
+    private Duration pageTimeout;
+
+    @Value("${crawl.timeouts.league:60s}")
+    private Duration leagueTimeout;
+
+    @Value("${crawl.timeouts.match:60s}")
+    private Duration matchTimeout;
+
+    @Value("${crawl.deadline:10m}")
+    private Duration deadline;
+
+    @Value("${crawl.list-payload.enabled:true}")
+    private boolean listPayloadEnabled;
+
+    @Value("${crawl.list-payload.required-markets:}")
+    private Set<String> requiredMarkets;
+
+    public CrawlEngineImpl(List<BookmakerSource> available, CrawlPlanner crawlPlanner, Scheduler crawlScheduler,
+                           CrawlMetrics crawlMetrics, OddsHistoryStore oddsHistoryStore, OddsIndex oddsIndex,
+                           Environment environment, @Value("${crawl.sources.enabled:}") List<String> enabled) {
+        this.crawlPlanner = crawlPlanner;
+        this.crawlScheduler = crawlScheduler;
+        this.crawlMetrics = crawlMetrics;
+        this.oddsHistoryStore = oddsHistoryStore;
+        this.oddsIndex = oddsIndex;
+        this.environment = environment;
+        final Map<String, BookmakerSource> byName = new LinkedHashMap<>();
+        for (BookmakerSource source : available) {
+            if (byName.putIfAbsent(source.getName(), source) != null) {
+                throw new IllegalStateException("Duplicate bookmaker source " + source.getName());
+            }
+        }
+        if (enabled.isEmpty()) {
+            sources.putAll(byName);
+        }
+        for (String name : enabled) {
+            final var source = byName.get(name.trim());
+            if (source == null) {
+                throw new IllegalStateException("Unknown bookmaker source " + name + ", available: " + byName.keySet());
+            }
+            sources.put(source.getName(), source);
+        }
+        log.info("Crawling bookmaker sources {}", sources.keySet());
+    }
+
+    @Override
+    public List<String> getSourceNames() {
+        return List.copyOf(sources.keySet());
+    }
+
+    /**
+     * Crawls the given sports at every enabled source and emits match data as soon as each match-detail
+     * response arrives.
+     *
+     * @param sports   the sports to crawl, e.g. {@code football}
+     * @param progress the callback notified after each discovered sport, fetched league list, fetched match and
+     *                 failure
+     * @return a {@link Flux} of {@link Match} objects of all sources in completion order; it completes normally
+     * even when parts of the crawl failed or the deadline was reached
+     */
+    @Override
+    public Flux<Match> crawlMatches(List<String> sports, CrawlProgress progress) {
+        return Flux.defer(() -> {
+            final var update = oddsIndex.newUpdate(sports);
+            final var tracked = new IndexedProgress(progress, update);
+            return Flux.fromIterable(sources.values())
+                    .flatMap(source -> crawlSource(source, sports, tracked, update))
+                    .takeUntilOther(Mono.delay(deadline).doOnNext(tick -> {
+                        log.warn("Crawl deadline of {} reached, completing with the matches fetched so far", deadline);
+                        report(tracked, new CrawlFailure(Stage.DEADLINE, null, null, null, "TimeoutException",
+                                "Crawl deadline of " + deadline + " reached", 0, Instant.now()));
+                    }))
+                    .doOnNext(match -> {
+                        crawlMetrics.recordMatch(match);
+                        oddsHistoryStore.append(match, Instant.now());
+                        tracked.onMatchFetched(match);
+                    })
+                    .doOnComplete(update::publish);
+        });
+    }
+
+    /**
+     * Crawls one source: all league lists are fetched, at most {@code concurrency} at a time, the listed events
+     * are planned and their match details requested in plan order, again at most {@code concurrency} at a time.
+     */
+    private Flux<Match> crawlSource(BookmakerSource source, List<String> sports, CrawlProgress progress,
+                                    OddsIndex.Update update) {
+        final int limit = environment.getProperty(CONCURRENCY_PROPERTY.formatted(source.getName()), Integer.class,
+                concurrency);
+        return Flux.fromIterable(sports)
+                .flatMap(sport -> crawlMetrics.timePageParse(source.getName(), sport,
+                                source.discoverLeagues(sport).timeout(pageTimeout))
+                        .subscribeOn(crawlScheduler)
+                        .doOnNext(ids -> progress.onPageParsed(sport, ids.size()))
+                        .onErrorResume(e -> skip(progress, Stage.PAGE, source, sport, null, e))
+                        .flatMapIterable(ids -> ids.stream().map(id -> Tuples.of(sport, id)).toList()))
+                .distinct(Tuple2::getT2)
+                .flatMap(league -> fetchCandidates(source, league, progress), limit)
+                .collectList()
+                .flatMapIterable(crawlPlanner::plan)
+                .flatMap(candidate -> fetchMatch(source, candidate, progress)
+                        .doOnNext(match -> {
+                            match.setBookmaker(source.getName());
+                            update.add(candidate.sport(), match);
+                        }), limit);
+    }
+
+    /**
+     * Retrieves the events listed by a league.
+     *
+     * @param source   the bookmaker listing the league
+     * @param league   the sport and ID of the league
+     * @param progress the callback notified once the league list has been fetched
+     * @return a {@link Flux} of the league's events as {@link CrawlCandidate}s
+     */
+    private Flux<CrawlCandidate> fetchCandidates(BookmakerSource source, Tuple2<String, String> league,
+                                                 CrawlProgress progress) {
+        final String sport = league.getT1();
+        final String id = league.getT2();
+        log.info("Request to get all {} matches by league id {}", source.getName(), id);
+        return crawlMetrics.timeLeagueFetch(source.getName(), sport, source.listEvents(id).timeout(leagueTimeout))
+                .subscribeOn(crawlScheduler)
+                .onErrorResume(e -> skip(progress, Stage.LEAGUE, source, sport, id, e))
+                .flatMapIterable(events -> {
+                    progress.onLeagueFetched(id, events.size());
+                    final long leagueMarkets = events.stream()
+                            .map(Event::getMarketsCount)
+                            .filter(Objects::nonNull)
+                            .mapToLong(Integer::longValue)
+                            .sum();
+                    return events.stream().map(event -> new CrawlCandidate(sport, id, event, leagueMarkets)).toList();
+                });
+    }
+
+    /**
+     * Retrieves the detailed betting data of a planned event.
+     *
+     * @param source    the bookmaker listing the event
+     * @param candidate the event selected by the {@link CrawlPlanner}
+     * @param progress  the callback notified if the match cannot be fetched
+     * @return a {@link Mono} emitting the {@link Match}, or completing empty if it failed
+     */
+    private Mono<Match> fetchMatch(BookmakerSource source, CrawlCandidate candidate, CrawlProgress progress) {
+        final String id = candidate.event().getId();
+        if (isListed(candidate.event())) {
+            log.debug("Using the {} league-list entry of the match with id {}", source.getName(), id);
+            crawlMetrics.recordListedMatch();
+            return Mono.just(toMatch(candidate.event()));
+        }
+        log.info("Request to get {} betting data for the match with id {}", source.getName(), id);
+        return crawlMetrics.timeMatchFetch(source.getName(), candidate.sport(),
+                        source.fetchMatch(id).timeout(matchTimeout))
+                .subscribeOn(crawlScheduler)
+                .onErrorResume(e -> skip(progress, Stage.MATCH, source, candidate.sport(), id, e));
+    }
+
+    /**
+     * Records a failed stage and lets the crawl continue without it.
+     *
+     * @return an empty {@link Mono} replacing the failed stage
+     */
+    private <T> Mono<T> skip(CrawlProgress progress, Stage stage, BookmakerSource source, String sport, String id,
+                             Throwable error) {
+        final long retries = error instanceof RetryExhaustedException exhausted ? exhausted.getRetries() : 0;
+        final Throwable cause = error instanceof RetryExhaustedException && error.getCause() != null
+                ? error.getCause()
+                : error;
+        log.warn("Skipping {} {} of {} sport {} after {} retries: {}", stage, Objects.toString(id, ""),
+                source.getName(), sport, retries, cause.toString());
+        report(progress, new CrawlFailure(stage, source.getName(), sport, id, cause.getClass().getSimpleName(),
+                cause.getMessage(), retries, Instant.now()));
+        return Mono.empty();
+    }
+
+    private void report(CrawlProgress progress, CrawlFailure failure) {
+        crawlMetrics.recordFailure(failure);
+        progress.onFailure(failure);
+    }
+
+    /**
+     * @return whether the league-list entry of the event carries every market the crawl needs
+     */
+    private boolean isListed(Event event) {
+        final List<Market> markets = event.getMarkets();
+        if (!listPayloadEnabled || markets == null || markets.isEmpty()) {
+            return false;
+        }
+        if (requiredMarkets.isEmpty()) {
+            return event.getMarketsCount() != null && markets.size() >= event.getMarketsCount();
+        }
+        return markets.stream().map(Market::getName).collect(Collectors.toSet()).containsAll(requiredMarkets);
+    }
+
+    private static Match toMatch(Event event) {
+        final var match = new Match();
+        match.setId(event.getId());
+        match.setName(event.getName());
+        match.setKickoff(event.getKickoff());
+        match.setLeague(event.getLeague());
+        match.setMarkets(event.getMarkets());
+        return match;
+    }
+
+    /**
+     * Forwards every stage to the caller's callback and marks the sport of every failure as incomplete in the
+     * {@link OddsIndex} update of the crawl.
+     */
+    private record IndexedProgress(CrawlProgress progress, OddsIndex.Update update) implements CrawlProgress {
+
+        @Override
+        public void onPageParsed(String sport, int leagues) {
+            progress.onPageParsed(sport, leagues);
+        }
+
+        @Override
+        public void onLeagueFetched(String leagueId, int events) {
+            progress.onLeagueFetched(leagueId, events);
+        }
+
+        @Override
+        public void onMatchFetched(Match match) {
+            progress.onMatchFetched(match);
+        }
+
+        @Override
+        public void onFailure(CrawlFailure failure) {
+            update.markIncomplete(failure.sport());
+            progress.onFailure(failure);
+        }
+    }
+}
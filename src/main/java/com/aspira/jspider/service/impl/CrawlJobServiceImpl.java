@@ -0,0 +1,287 @@
+package com.aspira.jspider.service.impl;
+
+import com.aspira.jspider.model.CrawlFailure;
+import com.aspira.jspider.model.CrawlJobStatus;
+import com.aspira.jspider.model.CrawlJobStatus.State;
+import com.aspira.jspider.model.Match;
+import com.aspira.jspider.service.CrawlJobService;
+import com.aspira.jspider.service.CrawlProgress;
+import com.aspira.jspider.service.LeonBetsParser;
+import com.aspira.jspider.service.ReportGenerationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementation of the {@link CrawlJobService} that runs crawls in the background.
+ * <p>
+ * Submitted jobs are queued and at most {@code crawl.jobs.max-concurrent} of them run at the same time;
+ * the next queued job starts as soon as a running one finishes. Each job counts its parsed pages, fetched
+ * league lists, fetched matches and skipped failures through a {@link CrawlProgress} callback, and replays up to
+ * {@code crawl.jobs.replay-size} of its most recent matches to every client that streams them while it runs.
+ * When a job is submitted with a report, its matches are also written through the {@link ReportGenerationService}.
+ * </p>
+ * <p>
+ * Finished jobs are kept for status queries until more than {@code crawl.jobs.max-retained} jobs are
+ * known, at which point the oldest finished ones are forgotten. A finished job only keeps its status and
+ * counters: its replay buffer is released as soon as it finishes, so retained jobs do not pin their matches.
+ * </p>
+ *
+ * @see CrawlJobStatus
+ * @see LeonBetsParser
+ */
+@Slf4j
+@Service
+public class CrawlJobServiceImpl implements CrawlJobService {
+
+    private final LeonBetsParser leonBetsParser;
+    private final ReportGenerationService reportGenerationService;
+    private final int maxConcurrent;
+    private final int maxRetained;
+    private final int replaySize;
+
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+    private final Deque<Job> queue = new ArrayDeque<>();
+    private int running;
+
+    public CrawlJobServiceImpl(LeonBetsParser leonBetsParser,
+                               ReportGenerationService reportGenerationService,
+                               @Value("${crawl.jobs.max-concurrent:2}") int maxConcurrent,
+                               @Value("${crawl.jobs.max-retained:100}") int maxRetained,
+                               @Value("${crawl.jobs.replay-size:10000}") int replaySize) {
+        this.leonBetsParser = leonBetsParser;
+        this.reportGenerationService = reportGenerationService;
+        this.maxConcurrent = maxConcurrent;
+        this.maxRetained = maxRetained;
+        this.replaySize = replaySize;
+    }
+
+    /**
+     * Queues a crawl of the given sports and starts it as soon as a slot is free.
+     *
+     * @param sports      the sports to crawl
+     * @param writeReport whether the crawled matches are also written to the report file
+     * @return the status of the new job
+     */
+    @Override
+    public CrawlJobStatus submit(List<String> sports, boolean writeReport) {
+        final var job = new Job(UUID.randomUUID().toString(), List.copyOf(sports), writeReport);
+        synchronized (this) {
+            jobs.put(job.id, job);
+            queue.add(job);
+            evictFinishedJobs();
+        }
+        log.info("Submitted crawl job {} for sports {}", job.id, job.sports);
+        startQueuedJobs();
+        return job.status();
+    }
+
+    @Override
+    public synchronized Optional<CrawlJobStatus> getStatus(String id) {
+        return Optional.ofNullable(jobs.get(id)).map(Job::status);
+    }
+
+    @Override
+    public synchronized List<CrawlJobStatus> getJobs() {
+        return jobs.values().stream().map(Job::status).toList();
+    }
+
+    /**
+     * Streams the matches of a job: the most recent ones already fetched first, then every new one until
+     * the job finishes. The matches of a finished job are no longer available, so its stream completes
+     * immediately, or fails if the job failed.
+     *
+     * @param id the job ID
+     * @return the matches of the job, or an empty {@link Optional} if the job is unknown
+     */
+    @Override
+    public synchronized Optional<Flux<Match>> streamMatches(String id) {
+        return Optional.ofNullable(jobs.get(id)).map(Job::streamMatches);
+    }
+
+    /**
+     * Cancels a queued or running job. Finished jobs are left untouched.
+     *
+     * @param id the job ID
+     * @return the status of the job after cancellation, or an empty {@link Optional} if the job is unknown
+     */
+    @Override
+    public Optional<CrawlJobStatus> cancel(String id) {
+        final Job job;
+        synchronized (this) {
+            job = jobs.get(id);
+            if (job == null) {
+                return Optional.empty();
+            }
+            if (job.state == State.QUEUED) {
+                queue.remove(job);
+                job.finish(State.CANCELLED, null);
+                return Optional.of(job.status());
+            }
+        }
+        if (job.state == State.RUNNING) {
+            log.info("Cancelling crawl job {}", id);
+            finish(job, State.CANCELLED, null);
+            final var subscription = job.subscription;
+            if (subscription != null) {
+                subscription.dispose();
+            }
+        }
+        return Optional.of(job.status());
+    }
+
+    private void startQueuedJobs() {
+        final List<Job> toStart = new ArrayList<>();
+        synchronized (this) {
+            while (running < maxConcurrent && !queue.isEmpty()) {
+                final var job = queue.poll();
+                job.state = State.RUNNING;
+                job.startedAt = Instant.now();
+                running++;
+                toStart.add(job);
+            }
+        }
+        toStart.forEach(this::start);
+    }
+
+    private void start(Job job) {
+        log.info("Starting crawl job {}", job.id);
+        final Flux<Match> matches = leonBetsParser.crawlMatches(job.sports, job)
+                .doOnNext(job::emit);
+        final Mono<Void> pipeline = job.writeReport
+                ? reportGenerationService.generateReport(matches)
+                : matches.then();
+        job.subscription = pipeline.subscribe(null,
+                error -> finish(job, State.FAILED, error),
+                () -> finish(job, State.COMPLETED, null));
+        if (job.state == State.CANCELLED) {
+            job.subscription.dispose();
+        }
+    }
+
+    private void finish(Job job, State state, Throwable error) {
+        synchronized (this) {
+            if (job.state != State.RUNNING) {
+                return;
+            }
+            job.finish(state, error);
+            running--;
+        }
+        if (error == null) {
+            log.info("Crawl job {} {}", job.id, state.name().toLowerCase(Locale.ROOT));
+        } else {
+            log.error("Crawl job {} failed", job.id, error);
+        }
+        startQueuedJobs();
+    }
+
+    private void evictFinishedJobs() {
+        final Iterator<Job> iterator = jobs.values().iterator();
+        while (jobs.size() > maxRetained && iterator.hasNext()) {
+            if (iterator.next().state.isFinished()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Mutable state of a single job; counters are updated concurrently by the crawl threads. The replay sink
+     * is dropped when the job finishes. Emissions and the terminal signal are serialized on the job, because a
+     * cancellation finishes the job on the request thread while the crawl threads may still be emitting, and a
+     * sink rejects concurrent signals instead of waiting for them.
+     */
+    private final class Job implements CrawlProgress {
+
+        private final String id;
+        private final List<String> sports;
+        private final boolean writeReport;
+        private final Instant createdAt = Instant.now();
+        private final AtomicInteger pagesDone = new AtomicInteger();
+        private final AtomicInteger leaguesDone = new AtomicInteger();
+        private final AtomicInteger matchesDone = new AtomicInteger();
+        private final Queue<CrawlFailure> failures = new ConcurrentLinkedQueue<>();
+
+        private Sinks.Many<Match> matches = Sinks.many().replay().limit(replaySize);
+        private volatile State state = State.QUEUED;
+        private volatile String error;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile Disposable subscription;
+
+        private Job(String id, List<String> sports, boolean writeReport) {
+            this.id = id;
+            this.sports = sports;
+            this.writeReport = writeReport;
+        }
+
+        @Override
+        public void onPageParsed(String sport, int leagues) {
+            pagesDone.incrementAndGet();
+        }
+
+        @Override
+        public void onLeagueFetched(String leagueId, int events) {
+            leaguesDone.incrementAndGet();
+        }
+
+        @Override
+        public void onMatchFetched(Match match) {
+            matchesDone.incrementAndGet();
+        }
+
+        @Override
+        public void onFailure(CrawlFailure failure) {
+            failures.add(failure);
+        }
+
+        private synchronized void emit(Match match) {
+            if (matches != null) {
+                matches.emitNext(match, Sinks.EmitFailureHandler.FAIL_FAST);
+            }
+        }
+
+        private synchronized Flux<Match> streamMatches() {
+            if (matches != null) {
+                return matches.asFlux();
+            }
+            return state == State.FAILED ? Flux.error(new IllegalStateException(error)) : Flux.empty();
+        }
+
+        private synchronized void finish(State state, Throwable error) {
+            this.state = state;
+            this.finishedAt = Instant.now();
+            final var sink = matches;
+            matches = null;
+            if (error == null) {
+                sink.emitComplete(Sinks.EmitFailureHandler.FAIL_FAST);
+            } else {
+                this.error = String.valueOf(error.getMessage());
+                sink.emitError(error, Sinks.EmitFailureHandler.FAIL_FAST);
+            }
+        }
+
+        private CrawlJobStatus status() {
+            return new CrawlJobStatus(id, sports, state, pagesDone.get(), leaguesDone.get(), matchesDone.get(),
+                    List.copyOf(failures), error, createdAt, startedAt, finishedAt);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.aspira.jspider.service.impl;
+
+import com.aspira.jspider.model.CrawlCandidate;
+import com.aspira.jspider.model.Event;
+import com.aspira.jspider.service.CrawlPlanner;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Implementation of the {@link CrawlPlanner} that decides which events of a crawl run are fetched in detail,
+ * and in which order.
+ * <p>
+ * Events starting later than {@code crawl.plan.kickoff-window} from now are dropped; live events and events
+ * without a kickoff are always eligible. The remaining events are taken from a priority queue:
+ * live events first, then events starting within {@code crawl.plan.imminent-window}, then events of leagues
+ * offering more markets, and finally by kickoff. An event is skipped when its league or sport has reached its
+ * limit, and planning stops once {@code crawl.plan.max-match-requests} events have been selected.
+ * </p>
+ * <p>
+ * An event listed by several leagues or sport pages is planned at most once, under its highest-priority
+ * listing; the other listings do not count towards any limit.
+ * </p>
+ * <p>
+ * The per-league limit is {@code crawl.plan.leagues.<leagueId>.max-matches} or
+ * {@code crawl.plan.max-matches-per-league}; the per-sport limit is
+ * {@code crawl.plan.sports.<sport>.max-matches} or {@code crawl.plan.max-matches-per-sport}. A negative limit
+ * or budget means unlimited.
+ * </p>
+ *
+ * @see CrawlCandidate
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CrawlPlannerImpl implements CrawlPlanner {
+
+    private static final String LIVE_BETLINE = "inplay";
+    private static final String LEAGUE_LIMIT_PROPERTY = "crawl.plan.leagues.%s.max-matches";
+    private static final String SPORT_LIMIT_PROPERTY = "crawl.plan.sports.%s.max-matches";
+
+    private final Environment environment;
+
+    @Value("${crawl.plan.max-matches-per-league:2}")
+    private int maxMatchesPerLeague;
+
+    @Value("${crawl.plan.max-matches-per-sport:-1}")
+    private int maxMatchesPerSport;
+
+    @Value("${crawl.plan.max-match-requests:-1}")
+    private int maxMatchRequests;
+
+    @Value("${crawl.plan.kickoff-window:7d}")
+    private Duration kickoffWindow;
+
+    @Value("${crawl.plan.imminent-window:2h}")
+    private Duration imminentWindow;
+
+    /**
+     * Filters, orders and limits the candidate events of one crawl run.
+     *
+     * @param candidates every event listed by the crawled leagues
+     * @return the events to fetch, highest priority first
+     */
+    @Override
+    public List<CrawlCandidate> plan(List<CrawlCandidate> candidates) {
+        final var now = LocalDateTime.now(ZoneOffset.UTC);
+        final var queue = new PriorityQueue<>(Math.max(1, candidates.size()), priority(now));
+        for (CrawlCandidate candidate : candidates) {
+            if (isLive(candidate.event(), now) || isWithinWindow(candidate.event(), now)) {
+                queue.add(candidate);
+            }
+        }
+        final Map<String, Integer> perLeague = new HashMap<>();
+        final Map<String, Integer> perSport = new HashMap<>();
+        final Map<String, Integer> leagueLimits = new HashMap<>();
+        final Map<String, Integer> sportLimits = new HashMap<>();
+        final Set<String> planned = new HashSet<>();
+        final List<CrawlCandidate> plan = new ArrayList<>();
+        int duplicates = 0;
+        while (!queue.isEmpty() && !isExhausted(maxMatchRequests, plan.size())) {
+            final var candidate = queue.poll();
+            if (planned.contains(candidate.event().getId())) {
+                duplicates++;
+                continue;
+            }
+            final int leagueCount = perLeague.getOrDefault(candidate.leagueId(), 0);
+            final int sportCount = perSport.getOrDefault(candidate.sport(), 0);
+            if (isExhausted(leagueLimits.computeIfAbsent(candidate.leagueId(), this::leagueLimit), leagueCount)
+                    || isExhausted(sportLimits.computeIfAbsent(candidate.sport(), this::sportLimit), sportCount)) {
+                continue;
+            }
+            perLeague.put(candidate.leagueId(), leagueCount + 1);
+            perSport.put(candidate.sport(), sportCount + 1);
+            planned.add(candidate.event().getId());
+            plan.add(candidate);
+        }
+        log.info("Planned {} of {} events for detail requests, skipped {} duplicate listings", plan.size(),
+                candidates.size(), duplicates);
+        return plan;
+    }
+
+    private Comparator<CrawlCandidate> priority(LocalDateTime now) {
+        final Comparator<CrawlCandidate> live = Comparator.comparing(candidate -> !isLive(candidate.event(), now));
+        return live
+                .thenComparing(candidate -> !isImminent(candidate.event(), now))
+                .thenComparing(Comparator.comparingLong(CrawlCandidate::leagueMarkets).reversed())
+                .thenComparing(candidate -> candidate.event().getKickoff(),
+                        Comparator.nullsLast(Comparator.naturalOrder()));
+    }
+
+    private boolean isLive(Event event, LocalDateTime now) {
+        return LIVE_BETLINE.equalsIgnoreCase(event.getBetline())
+                || (event.getKickoff() != null && !event.getKickoff().isAfter(now));
+    }
+
+    private boolean isImminent(Event event, LocalDateTime now) {
+        return event.getKickoff() != null && !event.getKickoff().isAfter(now.plus(imminentWindow));
+    }
+
+    private boolean isWithinWindow(Event event, LocalDateTime now) {
+        return event.getKickoff() == null || !event.getKickoff().isAfter(now.plus(kickoffWindow));
+    }
+
+    private int leagueLimit(String leagueId) {
+        return environment.getProperty(LEAGUE_LIMIT_PROPERTY.formatted(leagueId), Integer.class, maxMatchesPerLeague);
+    }
+
+    private int sportLimit(String sport) {
+        return environment.getProperty(SPORT_LIMIT_PROPERTY.formatted(sport), Integer.class, maxMatchesPerSport);
+    }
+
+    private static boolean isExhausted(int limit, int used) {
+        return limit >= 0 && used >= limit;
+    }
+}
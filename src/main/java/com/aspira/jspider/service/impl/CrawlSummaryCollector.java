@@ -0,0 +1,55 @@
+package com.aspira.jspider.service.impl;
+
+import com.aspira.jspider.model.CrawlFailure;
+import com.aspira.jspider.model.CrawlSummary;
+import com.aspira.jspider.model.Match;
+import com.aspira.jspider.service.CrawlProgress;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link CrawlProgress} that counts the finished stages of one crawl and keeps its failures for the
+ * {@link CrawlSummary}.
+ */
+final class CrawlSummaryCollector implements CrawlProgress {
+
+    private final List<String> sports;
+    private final Instant startedAt = Instant.now();
+    private final AtomicInteger pages = new AtomicInteger();
+    private final AtomicInteger leagues = new AtomicInteger();
+    private final AtomicInteger matches = new AtomicInteger();
+    private final Queue<CrawlFailure> failures = new ConcurrentLinkedQueue<>();
+
+    CrawlSummaryCollector(List<String> sports) {
+        this.sports = List.copyOf(sports);
+    }
+
+    @Override
+    public void onPageParsed(String sport, int leagues) {
+        pages.incrementAndGet();
+    }
+
+    @Override
+    public void onLeagueFetched(String leagueId, int events) {
+        leagues.incrementAndGet();
+    }
+
+    @Override
+    public void onMatchFetched(Match match) {
+        matches.incrementAndGet();
+    }
+
+    @Override
+    public void onFailure(CrawlFailure failure) {
+        failures.add(failure);
+    }
+
+    CrawlSummary toSummary() {
+        return new CrawlSummary(sports, startedAt, Instant.now(), pages.get(), leagues.get(), matches.get(),
+                List.copyOf(failures));
+    }
+}
@@ -0,0 +1,96 @@
+package com.aspira.jspider.service.impl;
+
+import com.aspira.jspider.service.LeagueDiscoveryService;
+import com.aspira.jspider.service.SportPageSource;
+import com.aspira.jspider.webclient.rest.LeonClient;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Implementation of the {@link LeagueDiscoveryService} that finds the top leagues of a sport on its sport page.
+ * <p>
+ * With {@code crawl.sport-pages.source=live} the page is downloaded through the {@link LeonClient} from
+ * {@code web-client.sport-page-path}, using the slug configured in {@code crawl.sport-pages.slugs.<sport>}
+ * or the lower-cased sport name. With {@code crawl.sport-pages.source=file} the page is read from
+ * {@code <crawl.sport-pages.directory>/<sport>.html}, again with the sport name lower-cased.
+ * </p>
+ * <p>
+ * In both cases the page is fed chunk by chunk into a {@link TopLeagueLinkScanner}, so no DOM is built and
+ * only the chunk in flight and the tag being scanned are held in memory.
+ * </p>
+ *
+ * @see TopLeagueLinkScanner
+ * @see SportPageSource
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LeagueDiscoveryServiceImpl implements LeagueDiscoveryService {
+
+    private static final String TOP_LEAGUE_CLASS = "sports-sidebar-top-leagues__league_Rd8VZ";
+    private static final String PAGE_SUFFIX = ".html";
+    private static final String SLUG_PROPERTY_PREFIX = "crawl.sport-pages.slugs.";
+
+    private final LeonClient leonClient;
+    private final Environment environment;
+
+    @Value("${crawl.sport-pages.source:file}")
+    private SportPageSource source;
+
+    @Value("${crawl.sport-pages.directory:sport-pages}")
+    private String directory;
+
+    @Value("${crawl.sport-pages.buffer-size:16KB}")
+    private DataSize bufferSize;
+
+    /**
+     * Extracts the IDs of the top leagues linked from the sport page.
+     *
+     * @param sport the sport, e.g. {@code football}
+     * @return a {@link Mono} emitting the league IDs in page order
+     */
+    @Override
+    public Mono<List<String>> discoverTopLeagueIds(String sport) {
+        log.info("Request to discover top leagues for sport {} from {} page", sport, source);
+        return Mono.defer(() -> {
+            final var scanner = new TopLeagueLinkScanner(TOP_LEAGUE_CLASS);
+            return sportPage(sport)
+                    .doOnNext(buffer -> feed(scanner, buffer))
+                    .then(Mono.fromCallable(scanner::finish));
+        }).doOnError(e -> log.error("Error while reading the sport page for sport {}", sport, e));
+    }
+
+    private Flux<DataBuffer> sportPage(String sport) {
+        final String name = sport.toLowerCase(Locale.ROOT);
+        return switch (source) {
+            case LIVE -> leonClient.getSportPage(environment.getProperty(SLUG_PROPERTY_PREFIX + sport, name));
+            case FILE -> DataBufferUtils.read(Path.of(directory, name + PAGE_SUFFIX),
+                    DefaultDataBufferFactory.sharedInstance, (int) bufferSize.toBytes());
+        };
+    }
+
+    private void feed(TopLeagueLinkScanner scanner, DataBuffer buffer) {
+        try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+            while (iterator.hasNext()) {
+                final ByteBuffer chunk = iterator.next();
+                scanner.feed(chunk);
+            }
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+}
@@ -1,145 +1,134 @@
 package com.aspira.jspider.service.impl;
 
 
-import com.aspira.jspider.model.Event;
+import com.aspira.jspider.metrics.CrawlMetrics;
+import com.aspira.jspider.model.CrawlSummary;
 import com.aspira.jspider.model.Match;
+import com.aspira.jspider.service.BookmakerSource;
+import com.aspira.jspider.service.CrawlEngine;
+import com.aspira.jspider.service.CrawlProgress;
 import com.aspira.jspider.service.LeonBetsParser;
+import com.aspira.jspider.service.OddsAnalyticsService;
 import com.aspira.jspider.service.ReportGenerationService;
-import com.aspira.jspider.webclient.rest.LeonClient;
+import com.aspira.jspider.store.OddsSnapshot;
+import com.aspira.jspider.store.OddsSnapshotBuilder;
+import com.aspira.jspider.store.OddsStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.select.Elements;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
-
-import java.io.File;
-import java.io.IOException;
-import java.nio.charset.Charset;
 import java.util.List;
-import java.util.Objects;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 /**
- * Implementation of the {@link LeonBetsParser} interface responsible for parsing bets data from
- * sports-related HTML pages and generating reports based on the parsed data.
+ * Implementation of the {@link LeonBetsParser} interface responsible for crawling bets data and generating
+ * reports based on the crawled data.
+ * <p>
+ * The crawl itself is run by the {@link CrawlEngine}, which crawls Leon and every other enabled
+ * {@link BookmakerSource} in parallel and emits their matches as one stream. Matches are streamed into the
+ * {@link ReportGenerationService} as soon as they arrive.
+ * </p>
+ * <p>
+ * Failed sport pages, leagues and matches do not fail the crawl: the report is written with everything
+ * that finished, and a {@link CrawlSummary} listing the failures is written next to it.
+ * </p>
  * <p>
- * This service uses a fixed thread pool to process multiple sports pages concurrently. It retrieves
- * match data from HTML files and makes HTTP requests to fetch detailed betting data. After processing,
- * it generates a report based on the collected data.
+ * When {@code analytics.enabled} is set, the crawled matches are also added to an {@link OddsSnapshot} as they
+ * arrive, so only their compact columns are kept until the crawl has finished. The snapshot is then handed to
+ * the {@link OddsAnalyticsService}, which writes their margins and anomalies next to the report.
  * </p>
  *
  * @see LeonBetsParser
- * @see LeonClient
+ * @see CrawlEngine
  * @see ReportGenerationService
+ * @see OddsAnalyticsService
  * @see Match
- * @see Event
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class LeonBetsParserImpl implements LeonBetsParser {
 
-    private static final int MATCHES_TO_PROCESS = 2;
-    private static final String ATTRIBUTE_KEY = "href";
-    private static final String PAGE_PREFIX = "sport-pages/";
-    private static final String REGEX = "(\\d+)-[a-zA-Z0-9-]+";
-    private static final String CSS_QUERY = "a.sports-sidebar-top-leagues__league_Rd8VZ";
-    private static final List<String> SPORT_PAGES = List.of("football.html", "tennis.html", "basketBall.html", "esports.html");
-
-    private final LeonClient leonClient;
+    private final CrawlEngine crawlEngine;
     private final ReportGenerationService reportGenerationService;
-    private final ExecutorService executorService = Executors.newFixedThreadPool(3);
+    private final CrawlMetrics crawlMetrics;
+    private final OddsAnalyticsService oddsAnalyticsService;
+    private final OddsStore oddsStore;
+
+    @Value("${crawl.sports:football,tennis,basketball,esports}")
+    private List<String> sports;
+
+    @Value("${analytics.enabled:true}")
+    private boolean analyticsEnabled;
 
     /**
      * Parses bets data for each sport page concurrently and generates a report based on the collected data.
      * <p>
-     * This method processes each sport page in parallel using a fixed thread pool. It collects match data
-     * from each page and then generates a report using the {@link ReportGenerationService}.
+     * This method crawls all {@code crawl.sports} and streams every match into the
+     * {@link ReportGenerationService}, blocking the caller until the report, the crawl summary and, if enabled,
+     * the odds analytics have been written.
      * </p>
+     *
+     * @return the summary of the crawl, including everything that failed
      */
     @Override
-    public void parseBetsData() {
-        log.info("Request to parse matches data for sports: {}", SPORT_PAGES);
-        final var futures = SPORT_PAGES.stream()
-                .map(sport -> CompletableFuture.supplyAsync(() -> parseBetsDataConcurrently(PAGE_PREFIX + sport), executorService))
-                .toList();
-        final var matches = futures.stream()
-                .map(CompletableFuture::join)
-                .flatMap(List::stream)
-                .collect(Collectors.toList());
-
-        executorService.shutdown();
-        reportGenerationService.generateReport(matches);
+    public CrawlSummary parseBetsData() {
+        log.info("Request to parse matches data for sports {} from sources {}", sports, crawlEngine.getSourceNames());
+        final var collector = new CrawlSummaryCollector(sports);
+        final OddsSnapshotBuilder crawled = oddsStore.newSnapshot();
+        final var matches = analyticsEnabled ? crawlMatches(sports, collector).doOnNext(match -> {
+            synchronized (crawled) {
+                crawled.add(match);
+            }
+        }) : crawlMatches(sports, collector);
+        crawlMetrics.observeCrawl(String.join(",", sports),
+                () -> reportGenerationService.generateReport(matches).block());
+        final var summary = collector.toSummary();
+        if (!summary.failures().isEmpty()) {
+            log.warn("Crawl finished with {} matches and {} failures", summary.matches(), summary.failures().size());
+        }
+        reportGenerationService.writeSummary(summary);
+        if (analyticsEnabled) {
+            final OddsSnapshot snapshot;
+            synchronized (crawled) {
+                snapshot = crawled.build();
+            }
+            oddsAnalyticsService.writeAnalytics(oddsAnalyticsService.analyze(snapshot));
+        }
+        return summary;
     }
 
-
     /**
-     * Parses bets data for a specific sport page.
-     * <p>
-     * This method reads an HTML file, extracts league IDs using a regular expression, and retrieves match
-     * data for each league ID. It handles the file I/O and data extraction processes and returns a list of
-     * matches.
-     * </p>
+     * Crawls all {@code crawl.sports} and emits match data as soon as each match-detail response arrives.
      *
-     * @param fileName the name of the HTML file containing the sport data
-     * @return a list of {@link Match} objects containing betting data
-     * @throws RuntimeException if an error occurs while reading the file or parsing data
+     * @return a {@link Flux} of {@link Match} objects in completion order
      */
-    private List<Match> parseBetsDataConcurrently(String fileName) {
-        try {
-            log.info("Request to parse matches data for sport: {}", fileName);
-
-            Document document = Jsoup.parse(new File(fileName), Charset.defaultCharset().displayName());
-            Elements topLeagues = document.select(CSS_QUERY);
-            Pattern pattern = Pattern.compile(REGEX);
-
-            List<String> topLeaguesIds = topLeagues.stream()
-                    .map(tl -> {
-                        Matcher matcher = pattern.matcher(tl.attr(ATTRIBUTE_KEY));
-                        return matcher.find() ? matcher.group(1) : null;
-                    })
-                    .filter(Objects::nonNull)
-                    .toList();
-
-            return topLeaguesIds.stream()
-                    .map(this::processTopLeaguesMatches)
-                    .flatMap(List::stream)
-                    .toList();
-
-        } catch (IOException e) {
-            log.error("Error while parsing the file.", e);
-            throw new RuntimeException(e);
-        }
+    @Override
+    public Flux<Match> crawlMatches() {
+        return crawlMatches(sports);
     }
 
-
     /**
-     * Retrieves match data for a specific league ID.
-     * <p>
-     * This method fetches events associated with the league ID and retrieves detailed betting data for each
-     * match. It limits the number of matches to process based on the {@code MATCHES_TO_PROCESS} constant.
-     * </p>
+     * Crawls the given sports and emits match data as soon as each match-detail response arrives.
      *
-     * @param id the league ID to retrieve match data for
-     * @return a list of {@link Match} objects for the specified league
+     * @param sports the sports to crawl, e.g. {@code football}
+     * @return a {@link Flux} of {@link Match} objects in completion order
      */
-    private List<Match> processTopLeaguesMatches(String id) {
-        log.info("Request to get all matches by league id {}", id);
-        List<Event> events = leonClient.getMatchesByLeagueId(id).getEvents();
-        return events.stream()
-                .limit(MATCHES_TO_PROCESS)
-                .map(event -> {
-                    log.info("Request to get betting data for the match with id {}", event.getId());
-                    return leonClient.getMatchDataById(event.getId());
-                })
-                .toList();
+    @Override
+    public Flux<Match> crawlMatches(List<String> sports) {
+        return crawlMatches(sports, CrawlProgress.NONE);
     }
 
-}
\ No newline at end of file
+    /**
+     * Crawls the given sports and reports every completed stage to a {@link CrawlProgress} callback.
+     *
+     * @param sports   the sports to crawl, e.g. {@code football}
+     * @param progress the callback notified after each parsed page, fetched league list and fetched match
+     * @return a {@link Flux} of {@link Match} objects of all sources in completion order
+     */
+    @Override
+    public Flux<Match> crawlMatches(List<String> sports, CrawlProgress progress) {
+        return crawlEngine.crawlMatches(sports, progress);
+    }
+}
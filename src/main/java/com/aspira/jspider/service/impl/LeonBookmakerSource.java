@@ -0,0 +1,51 @@
+package com.aspira.jspider.service.impl;
+
+import com.aspira.jspider.model.Event;
+import com.aspira.jspider.model.Match;
+import com.aspira.jspider.service.BookmakerSource;
+import com.aspira.jspider.service.LeagueDiscoveryService;
+import com.aspira.jspider.webclient.rest.LeonClient;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * The Leon {@link BookmakerSource}.
+ * <p>
+ * Leagues are the top leagues found on the sport pages by the {@link LeagueDiscoveryService}; events and
+ * matches come from the Leon betline API through the {@link LeonClient}, whose connection pool, rate limiter,
+ * circuit breaker and hedging are configured by the {@code web-client.*} properties.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class LeonBookmakerSource implements BookmakerSource {
+
+    public static final String NAME = "leon";
+
+    private final LeagueDiscoveryService leagueDiscoveryService;
+    private final LeonClient leonClient;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Mono<List<String>> discoverLeagues(String sport) {
+        return leagueDiscoveryService.discoverTopLeagueIds(sport);
+    }
+
+    @Override
+    public Mono<List<Event>> listEvents(String leagueId) {
+        return leonClient.getMatchesByLeagueId(leagueId)
+                .map(betline -> betline.getEvents() == null ? List.<Event>of() : betline.getEvents());
+    }
+
+    @Override
+    public Mono<Match> fetchMatch(String eventId) {
+        return leonClient.getMatchDataById(eventId);
+    }
+}
@@ -0,0 +1,408 @@
+package com.aspira.jspider.service.impl;
+
+import com.aspira.jspider.config.AnalyticsExecutorConfig;
+import com.aspira.jspider.model.MarketAnalysis;
+import com.aspira.jspider.model.MarketAnalysis.Flag;
+import com.aspira.jspider.service.OddsAnalyticsService;
+import com.aspira.jspider.service.impl.sink.AtomicFiles;
+import com.aspira.jspider.store.OddsSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Implementation of the {@link OddsAnalyticsService} that computes bookmaker margins and implied probabilities
+ * of crawled markets.
+ * <p>
+ * The markets are read from an {@link OddsSnapshot} built during the crawl: the runners of a match are a
+ * contiguous range of the snapshot, and consecutive runners with the same market ID and name form a market.
+ * Every market is split into books, one per line: runners whose names end in the same total, such as
+ * {@code Over (2.5)} and {@code Under (2.5)}, form one book. Handicaps are compared from the home side, so the
+ * away runner's handicap is negated: {@code 1 (-1.5)} pairs with {@code 2 (+1.5)} in the book of line
+ * {@code -1.5}, and {@code 1 (+1.5)} with {@code 2 (-1.5)} in the book of line {@code 1.5}. Other lines, such as
+ * the {@code 1 (0:1)}, {@code X (0:1)} and {@code 2 (0:1)} of a three-way handicap, pair by their exact text,
+ * and runners without a line form another book. The scaled prices of a book are copied into a {@code double[]}; its
+ * overround is the sum of their inverses, the number of winning runners follows from the market type - two for
+ * every {@code Double Chance} market, one otherwise - and the margin is the overround per winner minus one. Dividing the
+ * inverse prices by the overround per winner gives the implied probabilities with the margin removed.
+ * </p>
+ * <p>
+ * Books with a negative margin are flagged as arbitrage and books above {@code analytics.max-margin} as high
+ * margin. A margin whose robust z-score among all complete books of the same market name exceeds
+ * {@code analytics.outlier-threshold} is flagged as an outlier. Within a match, {@code Double Chance} and
+ * {@code Draw No Bet} are checked against the probabilities of {@code Winner}, and both sides are flagged as
+ * inconsistent when a probability differs by more than {@code analytics.consistency-tolerance}.
+ * </p>
+ * <p>
+ * Matches are analyzed in parallel by fork-join tasks on the {@code analyticsPool} of the
+ * {@link AnalyticsExecutorConfig}. The results are written as newline-delimited JSON to
+ * {@code analytics.file-path}.
+ * </p>
+ *
+ * @see MarketAnalysis
+ * @see OddsSnapshot
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OddsAnalyticsServiceImpl implements OddsAnalyticsService {
+
+    private static final Pattern LINE = Pattern.compile("^(.*?)\\s*\\(([^()]*)\\)\\s*$");
+    private static final Pattern NUMBER = Pattern.compile("[+-]?\\d+(?:\\.\\d+)?");
+    private static final String NO_LINE = "";
+    private static final String WINNER = "Winner";
+    private static final String DOUBLE_CHANCE = "Double Chance";
+    private static final String DOUBLE_CHANCE_KEY = DOUBLE_CHANCE.toLowerCase(Locale.ROOT);
+    private static final String DRAW_NO_BET = "Draw No Bet";
+    private static final String HOME = "1";
+    private static final String DRAW = "X";
+    private static final String AWAY = "2";
+    private static final int MATCHES_PER_TASK = 64;
+    private static final int MIN_OUTLIER_SAMPLES = 5;
+    private static final double MAD_SCALE = 0.6745;
+
+    private final ObjectMapper objectMapper;
+    private final ForkJoinPool analyticsPool;
+
+    @Value("${analytics.file-path:result.analytics.ndjson}")
+    private String filePath;
+
+    @Value("${analytics.max-margin:0.15}")
+    private double maxMargin;
+
+    @Value("${analytics.outlier-threshold:3.5}")
+    private double outlierThreshold;
+
+    @Value("${analytics.consistency-tolerance:0.03}")
+    private double consistencyTolerance;
+
+    /**
+     * Analyzes every market of the matches of a snapshot.
+     *
+     * @param snapshot the crawled matches
+     * @return one analysis per book, grouped by match
+     */
+    @Override
+    public List<MarketAnalysis> analyze(OddsSnapshot snapshot) {
+        final long start = System.nanoTime();
+        final List<Book> books = analyticsPool.invoke(new AnalysisTask(snapshot, 0, snapshot.matchCount()));
+        flagMarginOutliers(books);
+        final List<MarketAnalysis> analyses = books.stream().map(Book::toAnalysis).toList();
+        log.info("Analyzed {} books of {} matches in {} ms", analyses.size(), snapshot.matchCount(),
+                (System.nanoTime() - start) / 1_000_000);
+        return analyses;
+    }
+
+    /**
+     * Writes the analyses as newline-delimited JSON, replacing the previous file atomically.
+     *
+     * @param analyses the analyses to write
+     */
+    @Override
+    public void writeAnalytics(List<MarketAnalysis> analyses) {
+        final var target = Path.of(filePath);
+        try {
+            AtomicFiles.write(target, file -> {
+                try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+                     var values = objectMapper.writer().withRootValueSeparator("\n").writeValues(writer)) {
+                    values.writeAll(analyses);
+                }
+            });
+            log.debug("Odds analytics written to {}", target.toAbsolutePath());
+        } catch (IOException e) {
+            log.error("Error writing odds analytics file.", e);
+        }
+    }
+
+    private List<Book> analyzeMatch(OddsSnapshot snapshot, int matchIndex) {
+        final List<Book> books = new ArrayList<>();
+        final int end = snapshot.firstRunner(matchIndex + 1);
+        int market = snapshot.firstRunner(matchIndex);
+        while (market < end) {
+            int next = market + 1;
+            while (next < end && snapshot.marketId(next) == snapshot.marketId(market)
+                    && snapshot.marketNameId(next) == snapshot.marketNameId(market)) {
+                next++;
+            }
+            addBooks(snapshot, matchIndex, market, next, books);
+            market = next;
+        }
+        checkConsistency(books);
+        return books;
+    }
+
+    /**
+     * Splits the runners {@code [from, to)} of one market into one book per line, in the order of their first
+     * runner.
+     */
+    private void addBooks(OddsSnapshot snapshot, int matchIndex, int from, int to, List<Book> books) {
+        final String[] lines = new String[to - from];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = line(snapshot.runnerName(from + i));
+        }
+        final boolean[] assigned = new boolean[lines.length];
+        for (int i = 0; i < lines.length; i++) {
+            if (assigned[i]) {
+                continue;
+            }
+            final int[] runners = new int[lines.length - i];
+            int count = 0;
+            for (int j = i; j < lines.length; j++) {
+                if (lines[j].equals(lines[i])) {
+                    assigned[j] = true;
+                    runners[count++] = from + j;
+                }
+            }
+            books.add(new Book(snapshot, matchIndex, lines[i], Arrays.copyOf(runners, count)));
+        }
+    }
+
+    /**
+     * Compares the markets derived from the three-way result with the {@code Winner} market of the same match.
+     */
+    private void checkConsistency(List<Book> books) {
+        final Book winner = find(books, WINNER);
+        if (winner == null) {
+            return;
+        }
+        final Double home = winner.probability(HOME);
+        final Double draw = winner.probability(DRAW);
+        final Double away = winner.probability(AWAY);
+        if (home == null || draw == null || away == null) {
+            return;
+        }
+        check(winner, find(books, DOUBLE_CHANCE),
+                Map.of(HOME + DRAW, home + draw, HOME + AWAY, home + away, DRAW + AWAY, draw + away));
+        check(winner, find(books, DRAW_NO_BET), Map.of(HOME, home / (home + away), AWAY, away / (home + away)));
+    }
+
+    private void check(Book winner, Book derived, Map<String, Double> expected) {
+        if (derived == null) {
+            return;
+        }
+        for (int i = 0; i < derived.runners.length; i++) {
+            final Double probability = expected.get(derived.runners[i]);
+            if (probability != null && Math.abs(derived.probabilities[i] - probability) > consistencyTolerance) {
+                winner.flags.add(Flag.INCONSISTENT);
+                derived.flags.add(Flag.INCONSISTENT);
+                return;
+            }
+        }
+    }
+
+    private static Book find(List<Book> books, String market) {
+        for (Book book : books) {
+            if (market.equalsIgnoreCase(book.market) && book.line == null && book.isComplete()) {
+                return book;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Flags books whose margin has a modified z-score above the threshold among the books of the same market.
+     */
+    private void flagMarginOutliers(List<Book> books) {
+        final Map<String, List<Book>> byMarket = new HashMap<>();
+        for (Book book : books) {
+            if (book.isComplete()) {
+                byMarket.computeIfAbsent(book.market, name -> new ArrayList<>()).add(book);
+            }
+        }
+        for (List<Book> group : byMarket.values()) {
+            if (group.size() < MIN_OUTLIER_SAMPLES) {
+                continue;
+            }
+            final double median = median(group.stream().mapToDouble(book -> book.margin).toArray());
+            final double deviation = median(group.stream().mapToDouble(book -> Math.abs(book.margin - median)).toArray());
+            if (deviation == 0) {
+                continue;
+            }
+            for (Book book : group) {
+                if (Math.abs(MAD_SCALE * (book.margin - median) / deviation) > outlierThreshold) {
+                    book.flags.add(Flag.MARGIN_OUTLIER);
+                }
+            }
+        }
+    }
+
+    private static double median(double[] values) {
+        Arrays.sort(values);
+        final int middle = values.length / 2;
+        return values.length % 2 == 1 ? values[middle] : (values[middle - 1] + values[middle]) / 2;
+    }
+
+    /**
+     * @return the line at the end of a runner name from the home side, e.g. {@code -1.5} for both
+     * {@code 1 (-1.5)} and {@code 2 (+1.5)}, {@code 2.5} for {@code Over (2.5)} or {@code 0:1} for
+     * {@code X (0:1)}
+     */
+    private static String line(String runnerName) {
+        if (runnerName == null) {
+            return NO_LINE;
+        }
+        final Matcher matcher = LINE.matcher(runnerName);
+        if (!matcher.matches()) {
+            return NO_LINE;
+        }
+        final String line = matcher.group(2).trim();
+        if (!NUMBER.matcher(line).matches()) {
+            return line;
+        }
+        final BigDecimal value = new BigDecimal(line);
+        return (AWAY.equals(matcher.group(1)) ? value.negate() : value).stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * @return the number of runners of a book that win: two for {@code Double Chance} markets, which cover two of
+     * the three results with every runner, and one otherwise
+     */
+    private static int winners(String market) {
+        return market != null && market.toLowerCase(Locale.ROOT).contains(DOUBLE_CHANCE_KEY) ? 2 : 1;
+    }
+
+    /**
+     * @return the price of a runner, or {@link Double#NaN} if it has none or one that cannot win anything
+     */
+    private static double price(OddsSnapshot snapshot, int runnerIndex) {
+        final double price = snapshot.price(runnerIndex);
+        return price > 1 ? price : Double.NaN;
+    }
+
+    private static String id(long id) {
+        return id == OddsSnapshot.NO_ID ? null : String.valueOf(id);
+    }
+
+    private static List<Double> boxed(double[] values) {
+        return Arrays.stream(values).mapToObj(value -> Double.isNaN(value) ? null : value).toList();
+    }
+
+    /**
+     * Splits the matches into ranges of at most {@value #MATCHES_PER_TASK} that are analyzed in parallel.
+     */
+    private final class AnalysisTask extends RecursiveTask<List<Book>> {
+
+        private final OddsSnapshot snapshot;
+        private final int from;
+        private final int to;
+
+        private AnalysisTask(OddsSnapshot snapshot, int from, int to) {
+            this.snapshot = snapshot;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<Book> compute() {
+            if (to - from <= MATCHES_PER_TASK) {
+                final List<Book> books = new ArrayList<>();
+                for (int i = from; i < to; i++) {
+                    books.addAll(analyzeMatch(snapshot, i));
+                }
+                return books;
+            }
+            final int middle = (from + to) >>> 1;
+            final var left = new AnalysisTask(snapshot, from, middle);
+            left.fork();
+            final List<Book> right = new AnalysisTask(snapshot, middle, to).compute();
+            final List<Book> books = left.join();
+            books.addAll(right);
+            return books;
+        }
+    }
+
+    /**
+     * The numeric form of one book, flagged in place while the analysis runs.
+     */
+    private final class Book {
+
+        private final OddsSnapshot snapshot;
+        private final int matchIndex;
+        private final int firstRunner;
+        private final String market;
+        private final String line;
+        private final String[] runners;
+        private final double[] prices;
+        private final double[] probabilities;
+        private final EnumSet<Flag> flags = EnumSet.noneOf(Flag.class);
+        private double overround = Double.NaN;
+        private int winners;
+        private double margin = Double.NaN;
+
+        private Book(OddsSnapshot snapshot, int matchIndex, String line, int[] runnerIndices) {
+            this.snapshot = snapshot;
+            this.matchIndex = matchIndex;
+            this.firstRunner = runnerIndices[0];
+            this.market = snapshot.marketName(firstRunner);
+            this.line = NO_LINE.equals(line) ? null : line;
+            this.runners = new String[runnerIndices.length];
+            this.prices = new double[runnerIndices.length];
+            for (int i = 0; i < runnerIndices.length; i++) {
+                runners[i] = snapshot.runnerName(runnerIndices[i]);
+                prices[i] = price(snapshot, runnerIndices[i]);
+            }
+            this.probabilities = new double[prices.length];
+            if (prices.length < 2 || Arrays.stream(prices).anyMatch(Double::isNaN)) {
+                flags.add(Flag.INCOMPLETE);
+                return;
+            }
+            overround = 0;
+            for (double price : prices) {
+                overround += 1 / price;
+            }
+            winners = winners(market);
+            margin = overround / winners - 1;
+            for (int i = 0; i < prices.length; i++) {
+                probabilities[i] = winners / (prices[i] * overround);
+            }
+            if (margin < 0) {
+                flags.add(Flag.ARBITRAGE);
+            } else if (margin > maxMargin) {
+                flags.add(Flag.HIGH_MARGIN);
+            }
+        }
+
+        private boolean isComplete() {
+            return !flags.contains(Flag.INCOMPLETE);
+        }
+
+        private Double probability(String runner) {
+            for (int i = 0; i < runners.length; i++) {
+                if (runner.equals(runners[i])) {
+                    return probabilities[i];
+                }
+            }
+            return null;
+        }
+
+        private MarketAnalysis toAnalysis() {
+            final boolean complete = isComplete();
+            return new MarketAnalysis(snapshot.bookmaker(matchIndex), id(snapshot.matchId(matchIndex)),
+                    snapshot.matchName(matchIndex), id(snapshot.marketId(firstRunner)), market, line,
+                    Arrays.asList(runners), boxed(prices),
+                    complete ? boxed(probabilities) : null, complete ? overround : null, complete ? winners : null,
+                    complete ? margin : null, Set.copyOf(flags));
+        }
+    }
+}
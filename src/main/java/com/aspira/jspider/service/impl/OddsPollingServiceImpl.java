@@ -0,0 +1,167 @@
+package com.aspira.jspider.service.impl;
+
+import com.aspira.jspider.model.OddsChange;
+import com.aspira.jspider.service.LeonBetsParser;
+import com.aspira.jspider.service.OddsChangeListener;
+import com.aspira.jspider.service.OddsPollingService;
+import com.aspira.jspider.store.OddsSnapshot;
+import com.aspira.jspider.store.OddsStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+
+/**
+ * Implementation of the {@link OddsPollingService} that continuously polls odds and publishes only the
+ * prices that moved.
+ * <p>
+ * When {@code polling.enabled} is set, every sport listed in {@code polling.sports} is crawled on its own
+ * fixed-delay schedule, taken from {@code polling.intervals.<sport>} or {@code polling.default-interval}.
+ * Each poll is stored as a compact {@link OddsSnapshot} in the {@link OddsStore} and compared with the
+ * previous snapshot of the same sport; the changed prices are appended as JSON lines to
+ * {@code polling.change-log-path} and handed to every {@link OddsChangeListener} bean. The first sighting
+ * of a runner establishes its baseline and is not reported as a change.
+ * </p>
+ *
+ * @see OddsChange
+ * @see OddsChangeListener
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OddsPollingServiceImpl implements OddsPollingService {
+
+    private static final String INTERVAL_PROPERTY_PREFIX = "polling.intervals.";
+    private static final String LINE_SEPARATOR = "\n";
+
+    private final LeonBetsParser leonBetsParser;
+    private final ObjectProvider<OddsChangeListener> listeners;
+    private final TaskScheduler taskScheduler;
+    private final ObjectMapper objectMapper;
+    private final Environment environment;
+    private final OddsStore oddsStore;
+
+    @Value("${polling.enabled:false}")
+    private boolean enabled;
+
+    @Value("${polling.sports:football,tennis,basketball,esports}")
+    private List<String> sports;
+
+    @Value("${polling.default-interval:5m}")
+    private Duration defaultInterval;
+
+    @Value("${polling.change-log-path:odds-changes.ndjson}")
+    private String changeLogPath;
+
+    /**
+     * Schedules one polling task per configured sport if polling is enabled.
+     */
+    @PostConstruct
+    public void schedulePolling() {
+        if (!enabled) {
+            return;
+        }
+        for (String sport : sports) {
+            final var interval = environment.getProperty(INTERVAL_PROPERTY_PREFIX + sport, Duration.class, defaultInterval);
+            log.info("Polling odds for sport {} every {}", sport, interval);
+            taskScheduler.scheduleWithFixedDelay(() -> pollSafely(sport), interval);
+        }
+    }
+
+    /**
+     * Crawls a sport once and publishes the prices that changed since the previous poll.
+     *
+     * @param sport the sport to poll
+     * @return the detected changes
+     */
+    @Override
+    public List<OddsChange> poll(String sport) {
+        log.debug("Request to poll odds for sport {}", sport);
+        final var timestamp = Instant.now();
+        final var builder = oddsStore.newSnapshot();
+        leonBetsParser.crawlMatches(List.of(sport))
+                .doOnNext(builder::add)
+                .blockLast();
+        final var current = builder.build();
+        final List<OddsChange> changes = oddsStore.publish(sport, current)
+                .map(previous -> detectChanges(previous, current, timestamp))
+                .orElse(List.of());
+        if (changes.isEmpty()) {
+            return changes;
+        }
+        log.info("Detected {} odds changes for sport {}", changes.size(), sport);
+        appendToChangeLog(changes);
+        changes.forEach(this::notifyListeners);
+        return changes;
+    }
+
+    private void pollSafely(String sport) {
+        try {
+            poll(sport);
+        } catch (RuntimeException e) {
+            log.error("Error while polling odds for sport {}", sport, e);
+        }
+    }
+
+    private List<OddsChange> detectChanges(OddsSnapshot previous, OddsSnapshot current, Instant timestamp) {
+        final List<OddsChange> changes = new ArrayList<>();
+        for (int runner = 0; runner < current.runnerCount(); runner++) {
+            final long runnerId = current.runnerId(runner);
+            final int price = current.scaledPrice(runner);
+            if (runnerId == OddsSnapshot.NO_ID || price == OddsSnapshot.NO_PRICE) {
+                continue;
+            }
+            final int previousIndex = previous.indexOfRunner(runnerId);
+            if (previousIndex < 0) {
+                continue;
+            }
+            final int previousPrice = previous.scaledPrice(previousIndex);
+            if (previousPrice != OddsSnapshot.NO_PRICE && previousPrice != price) {
+                final int match = current.matchOf(runner);
+                changes.add(new OddsChange(Long.toString(runnerId), Long.toString(current.matchId(match)),
+                        current.matchName(match), current.marketName(runner), current.runnerName(runner),
+                        OddsSnapshot.formatPrice(previousPrice), OddsSnapshot.formatPrice(price), timestamp));
+            }
+        }
+        return changes;
+    }
+
+    private synchronized void appendToChangeLog(List<OddsChange> changes) {
+        try (BufferedWriter writer = Files.newBufferedWriter(Path.of(changeLogPath), StandardCharsets.UTF_8, CREATE, APPEND)) {
+            for (OddsChange change : changes) {
+                writer.write(objectMapper.writeValueAsString(change));
+                writer.write(LINE_SEPARATOR);
+            }
+        } catch (IOException e) {
+            log.error("Error writing odds change log.", e);
+        }
+    }
+
+    private void notifyListeners(OddsChange change) {
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                listener.onOddsChange(change);
+            } catch (RuntimeException e) {
+                log.error("Odds change listener {} failed", listener, e);
+            }
+        });
+    }
+}
@@ -1,24 +1,45 @@
 package com.aspira.jspider.service.impl;
 
+import com.aspira.jspider.metrics.CrawlMetrics;
 import com.aspira.jspider.model.*;
+import com.aspira.jspider.service.ReportFormat;
 import com.aspira.jspider.service.ReportGenerationService;
-import com.opencsv.CSVWriter;
+import com.aspira.jspider.service.ReportSink;
+import com.aspira.jspider.service.impl.sink.AtomicFiles;
+import com.aspira.jspider.service.impl.sink.CsvReportSink;
+import com.aspira.jspider.service.impl.sink.NdjsonReportSink;
+import com.aspira.jspider.service.impl.sink.XlsxReportSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.List;
 
 /**
  * Implementation of the {@link ReportGenerationService} interface for generating reports of match data.
  * <p>
- * This service writes match data to a CSV file, where each row contains details about sports, leagues,
- * matches, markets, and runners. The file path for the report is configured via a property.
+ * This service streams match data into a {@link ReportSink} for the configured {@code report.format}:
+ * a columnar CSV file with one row per runner, newline-delimited JSON with one match per line, or an
+ * XLSX workbook. Output is buffered, written with the {@code report.charset} encoding and published
+ * atomically at {@code report.file-path} once the crawl has finished.
+ * </p>
+ * <p>
+ * The {@link CrawlSummary} of a crawl, including the pages, leagues and matches that failed, is written as
+ * JSON to {@code report.summary-path} next to the report.
  * </p>
  *
  * @see ReportGenerationService
+ * @see ReportSink
  * @see Match
  * @see League
  * @see Sport
@@ -27,43 +48,119 @@ import java.util.List;
  */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class ReportGenerationServiceImpl implements ReportGenerationService {
 
-    private static final String SEPARATOR = ", ";
+    private final ObjectMapper objectMapper;
+    private final CrawlMetrics crawlMetrics;
 
     @Value("${report.file-path}")
     private String filePath;
 
+    @Value("${report.format:csv}")
+    private ReportFormat format;
+
+    @Value("${report.charset:UTF-8}")
+    private Charset charset;
+
+    @Value("${report.buffer-size:256KB}")
+    private DataSize bufferSize;
+
+    @Value("${report.summary-path:result.summary.json}")
+    private String summaryPath;
+
     /**
-     * Generates a CSV report for the provided list of matches.
-     * <p>
-     * This method writes details for each match to a CSV file specified by the {@code filePath} property.
-     * The report includes information about the sport, league, match, market, and runners.
-     * Each entry is separated by a comma and space as defined by the {@code SEPARATOR} constant.
-     * </p>
+     * Generates a report for the provided list of matches.
      *
      * @param matches the list of {@link Match} objects to be included in the report
      */
     @Override
     public void generateReport(List<Match> matches) {
-        log.debug("Request to generate report for bookmaker leon");
-        try (CSVWriter writer = new CSVWriter(new FileWriter(filePath))) {
-            for (Match match : matches) {
-                League league = match.getLeague();
-                Sport sport = league.getSport();
-                writer.writeNext(new String[]{sport.getName() + SEPARATOR + league.getName()});
-                writer.writeNext(new String[]{match.getName() + SEPARATOR + match.getKickoff().toString() + SEPARATOR + match.getId()});
+        generateReport(Flux.fromIterable(matches)).block();
+    }
+
+    /**
+     * Generates a report from a stream of matches.
+     * <p>
+     * The sink is opened on subscription and each match is written as soon as it is emitted, so the full
+     * crawl never has to be held in memory. Writes happen on a bounded elastic thread to keep blocking
+     * file I/O off the HTTP client threads. The report replaces the previous one only if the stream
+     * completes successfully.
+     * </p>
+     *
+     * @param matches the stream of {@link Match} objects to be included in the report
+     * @return a {@link Mono} that completes when the report file has been written and published
+     */
+    @Override
+    public Mono<Void> generateReport(Flux<Match> matches) {
+        log.debug("Request to generate {} report for bookmaker leon", format);
+        final Mono<Void> write = Mono.using(this::openSink,
+                        sink -> matches.publishOn(Schedulers.boundedElastic())
+                                .doOnNext(match -> write(sink, match))
+                                .then(Mono.fromCallable(() -> {
+                                    sink.commit();
+                                    return true;
+                                })),
+                        this::closeSink)
+                .then();
+        return crawlMetrics.timeReportWrite(format.name(), write)
+                .onErrorResume(IOException.class, e -> {
+                    log.error("Error writing report file.", e);
+                    return Mono.empty();
+                })
+                .onErrorResume(UncheckedIOException.class, e -> {
+                    log.error("Error writing report file.", e.getCause());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Opens a new {@link ReportSink} for the configured format and file path.
+     *
+     * @return a new, uncommitted {@link ReportSink}
+     * @throws IOException if the temporary report file cannot be created
+     */
+    @Override
+    public ReportSink openSink() throws IOException {
+        final var target = Path.of(filePath);
+        final int buffer = (int) bufferSize.toBytes();
+        return switch (format) {
+            case CSV -> new CsvReportSink(target, charset, buffer);
+            case NDJSON -> new NdjsonReportSink(target, charset, buffer, objectMapper);
+            case XLSX -> new XlsxReportSink(target, buffer);
+        };
+    }
+
+    /**
+     * Writes the summary of a crawl as JSON, replacing the previous summary atomically.
+     *
+     * @param summary the outcome of the crawl
+     */
+    @Override
+    public void writeSummary(CrawlSummary summary) {
+        final var target = Path.of(summaryPath);
+        try {
+            AtomicFiles.write(target,
+                    file -> objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), summary));
+            log.debug("Crawl summary written to {}", target.toAbsolutePath());
+        } catch (IOException e) {
+            log.error("Error writing crawl summary file.", e);
+        }
+    }
+
+    private void write(ReportSink sink, Match match) {
+        try {
+            sink.write(match);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-                for (Market market : match.getMarkets()) {
-                    writer.writeNext(new String[]{market.getName()});
-                    for (Runner runner : market.getRunners()) {
-                        writer.writeNext(new String[]{"\t" + runner.getName() + SEPARATOR + runner.getValue() + SEPARATOR + runner.getId()});
-                    }
-                }
-                writer.writeNext(new String[]{""});
-            }
+    private void closeSink(ReportSink sink) {
+        try {
+            sink.close();
         } catch (IOException e) {
-            log.error("Error writing report file.", e);
+            log.error("Error closing report file.", e);
         }
     }
 }
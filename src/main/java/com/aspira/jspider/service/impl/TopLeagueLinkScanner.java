@@ -0,0 +1,290 @@
+package com.aspira.jspider.service.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Push-style scanner that extracts top-league IDs from chunks of a sport page as they arrive.
+ * <p>
+ * The scanner works directly on the raw bytes and never builds a DOM: text is skipped until the next
+ * {@code <}, only the current tag is buffered, and comments as well as {@code script} and {@code style}
+ * contents are skipped without buffering. For every {@code <a>} tag carrying the top-league class the
+ * {@code href} is decoded and matched against the league URL pattern; all other tags are discarded as
+ * soon as they end. Markup is assumed to be ASCII-compatible, which holds for UTF-8 pages.
+ * </p>
+ * <p>
+ * Instances are not thread-safe and read exactly one page.
+ * </p>
+ */
+class TopLeagueLinkScanner {
+
+    private static final Pattern LEAGUE_ID = Pattern.compile("(\\d+)-[a-zA-Z0-9-]+");
+    private static final byte[] SCRIPT_END = "</script".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] STYLE_END = "</style".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CLASS = "class".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HREF = "href".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_TAG_LENGTH = 16 * 1024;
+
+    private final byte[] linkClass;
+    private final Matcher matcher = LEAGUE_ID.matcher("");
+    private final List<String> leagueIds = new ArrayList<>();
+
+    private State state = State.TEXT;
+    private byte[] tag = new byte[256];
+    private int tagLength;
+    private boolean tagTruncated;
+    private byte quote;
+    private int dashes;
+    private byte[] rawTextEnd;
+    private int rawTextMatched;
+
+    TopLeagueLinkScanner(String linkClass) {
+        this.linkClass = linkClass.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Feeds the next chunk of the page and scans every byte in it.
+     *
+     * @param chunk the next chunk of the page
+     */
+    void feed(ByteBuffer chunk) {
+        while (chunk.hasRemaining()) {
+            final byte b = chunk.get();
+            switch (state) {
+                case TEXT -> {
+                    if (b == '<') {
+                        startTag();
+                    }
+                }
+                case TAG -> readTag(b);
+                case COMMENT -> {
+                    if (b == '>' && dashes >= 2) {
+                        state = State.TEXT;
+                    }
+                    dashes = b == '-' ? dashes + 1 : 0;
+                }
+                case RAW_TEXT -> readRawText(b);
+            }
+        }
+    }
+
+    /**
+     * Signals the end of the page.
+     *
+     * @return the league IDs in page order
+     */
+    List<String> finish() {
+        return List.copyOf(leagueIds);
+    }
+
+    private void startTag() {
+        state = State.TAG;
+        tagLength = 0;
+        tagTruncated = false;
+        quote = 0;
+    }
+
+    private void readTag(byte b) {
+        if (quote != 0) {
+            if (b == quote) {
+                quote = 0;
+            }
+            append(b);
+            return;
+        }
+        if (tagLength == 0 && !isLetter(b) && b != '/' && b != '!') {
+            // not markup, e.g. "a < b" in text
+            if (b != '<') {
+                state = State.TEXT;
+            }
+            return;
+        }
+        switch (b) {
+            case '>' -> endTag();
+            case '"', '\'' -> {
+                quote = b;
+                append(b);
+            }
+            default -> {
+                append(b);
+                if (tagLength == 3 && tag[0] == '!' && tag[1] == '-' && tag[2] == '-') {
+                    state = State.COMMENT;
+                    dashes = 0;
+                }
+            }
+        }
+    }
+
+    private void readRawText(byte b) {
+        if (toLower(b) == rawTextEnd[rawTextMatched]) {
+            if (++rawTextMatched == rawTextEnd.length) {
+                // consume the rest of the closing tag as an ordinary tag
+                startTag();
+                append((byte) '/');
+            }
+        } else {
+            rawTextMatched = b == '<' ? 1 : 0;
+        }
+    }
+
+    private void append(byte b) {
+        if (tagLength == tag.length) {
+            if (tag.length >= MAX_TAG_LENGTH) {
+                tagTruncated = true;
+                return;
+            }
+            final byte[] grown = new byte[tag.length * 2];
+            System.arraycopy(tag, 0, grown, 0, tagLength);
+            tag = grown;
+        }
+        tag[tagLength++] = b;
+    }
+
+    private void endTag() {
+        state = State.TEXT;
+        int nameEnd = 0;
+        while (nameEnd < tagLength && isLetter(tag[nameEnd])) {
+            nameEnd++;
+        }
+        if (equalsIgnoreCase(0, nameEnd, SCRIPT_END, 2)) {
+            startRawText(SCRIPT_END);
+        } else if (equalsIgnoreCase(0, nameEnd, STYLE_END, 2)) {
+            startRawText(STYLE_END);
+        } else if (nameEnd == 1 && toLower(tag[0]) == 'a' && !tagTruncated) {
+            readLink(nameEnd);
+        }
+    }
+
+    private void startRawText(byte[] end) {
+        if (tag[tagLength - 1] == '/') {
+            return;
+        }
+        state = State.RAW_TEXT;
+        rawTextEnd = end;
+        rawTextMatched = 0;
+    }
+
+    /**
+     * Parses the attributes of an {@code <a>} tag and records the league ID of a top-league link.
+     */
+    private void readLink(int from) {
+        int classStart = -1;
+        int classEnd = -1;
+        int hrefStart = -1;
+        int hrefEnd = -1;
+        int i = from;
+        while (i < tagLength) {
+            while (i < tagLength && (isWhitespace(tag[i]) || tag[i] == '/')) {
+                i++;
+            }
+            final int nameStart = i;
+            while (i < tagLength && !isWhitespace(tag[i]) && tag[i] != '=' && tag[i] != '/') {
+                i++;
+            }
+            final int nameEnd = i;
+            while (i < tagLength && isWhitespace(tag[i])) {
+                i++;
+            }
+            if (i == nameStart) {
+                i++;
+                continue;
+            }
+            int valueStart = i;
+            int valueEnd = i;
+            if (i < tagLength && tag[i] == '=') {
+                i++;
+                while (i < tagLength && isWhitespace(tag[i])) {
+                    i++;
+                }
+                if (i < tagLength && (tag[i] == '"' || tag[i] == '\'')) {
+                    final byte valueQuote = tag[i++];
+                    valueStart = i;
+                    while (i < tagLength && tag[i] != valueQuote) {
+                        i++;
+                    }
+                    valueEnd = i++;
+                } else {
+                    valueStart = i;
+                    while (i < tagLength && !isWhitespace(tag[i])) {
+                        i++;
+                    }
+                    valueEnd = i;
+                }
+            }
+            if (equalsIgnoreCase(nameStart, nameEnd, CLASS, 0)) {
+                classStart = valueStart;
+                classEnd = valueEnd;
+            } else if (equalsIgnoreCase(nameStart, nameEnd, HREF, 0)) {
+                hrefStart = valueStart;
+                hrefEnd = valueEnd;
+            }
+        }
+        if (hrefStart >= 0 && classStart >= 0 && hasClass(classStart, classEnd)) {
+            final String href = new String(tag, hrefStart, hrefEnd - hrefStart, StandardCharsets.UTF_8);
+            if (matcher.reset(href).find()) {
+                leagueIds.add(matcher.group(1));
+            }
+        }
+    }
+
+    private boolean hasClass(int from, int to) {
+        int i = from;
+        while (i < to) {
+            while (i < to && isWhitespace(tag[i])) {
+                i++;
+            }
+            final int start = i;
+            while (i < to && !isWhitespace(tag[i])) {
+                i++;
+            }
+            if (i - start == linkClass.length && equals(start, linkClass)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean equals(int from, byte[] expected) {
+        for (int i = 0; i < expected.length; i++) {
+            if (tag[from + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares {@code tag[from, to)} with {@code expected} starting at {@code offset}, ignoring ASCII case.
+     */
+    private boolean equalsIgnoreCase(int from, int to, byte[] expected, int offset) {
+        if (to - from != expected.length - offset) {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            if (toLower(tag[i]) != expected[offset + i - from]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLetter(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z');
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r' || b == '\f';
+    }
+
+    private static byte toLower(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+    private enum State {
+        TEXT, TAG, COMMENT, RAW_TEXT
+    }
+}
@@ -0,0 +1,57 @@
+package com.aspira.jspider.service.impl.sink;
+
+import com.aspira.jspider.service.ReportSink;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Base class for {@link ReportSink}s that write a single file.
+ * <p>
+ * Output goes to a temporary file next to the target, which is renamed over the target on
+ * {@link #commit()}. The rename is atomic where the file system supports it (see {@link AtomicFiles}).
+ * </p>
+ */
+@Slf4j
+public abstract class AbstractFileReportSink implements ReportSink {
+
+    private final Path target;
+    protected final Path tempFile;
+    private boolean committed;
+
+    protected AbstractFileReportSink(Path target) throws IOException {
+        this.target = target.toAbsolutePath();
+        this.tempFile = AtomicFiles.createTempFile(this.target);
+    }
+
+    /**
+     * Flushes and closes the underlying output so the temporary file is complete.
+     */
+    protected abstract void finish() throws IOException;
+
+    /**
+     * Releases the underlying output without completing it.
+     */
+    protected abstract void abort() throws IOException;
+
+    @Override
+    public void commit() throws IOException {
+        finish();
+        AtomicFiles.replace(tempFile, target);
+        committed = true;
+        log.debug("Report written to {}", target);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!committed) {
+            try {
+                abort();
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.aspira.jspider.service.impl.sink;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Replaces output files atomically, so readers see either the previous or the complete new content.
+ * <p>
+ * Content is written to a temporary file in the directory of the target and then renamed over the target.
+ * The rename is atomic where the file system supports it; otherwise it falls back to a plain replace.
+ * </p>
+ */
+public final class AtomicFiles {
+
+    private AtomicFiles() {
+    }
+
+    /**
+     * Writes a file through a temporary file and replaces the target with it once it is complete. The
+     * temporary file is deleted if writing fails.
+     *
+     * @param target the file to replace
+     * @param writer writes the complete content to the given temporary file
+     * @throws IOException if the file cannot be written or replaced; the target is then left untouched
+     */
+    public static void write(Path target, ContentWriter writer) throws IOException {
+        final var absoluteTarget = target.toAbsolutePath();
+        final var tempFile = createTempFile(absoluteTarget);
+        try {
+            writer.write(tempFile);
+            replace(tempFile, absoluteTarget);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * @return a new temporary file next to the absolute {@code target}
+     */
+    static Path createTempFile(Path target) throws IOException {
+        return Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+    }
+
+    /**
+     * Renames a complete temporary file over the target.
+     */
+    static void replace(Path tempFile, Path target) throws IOException {
+        try {
+            Files.move(tempFile, target, ATOMIC_MOVE, REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, target, REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Writes the content of a file.
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+
+        void write(Path file) throws IOException;
+    }
+}
@@ -0,0 +1,50 @@
+package com.aspira.jspider.service.impl.sink;
+
+import com.aspira.jspider.model.Match;
+import com.opencsv.CSVWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes a columnar CSV report with a header row and one row per runner.
+ * <p>
+ * {@link CSVWriter} does not throw when the underlying writer fails, it only records the error. The error is
+ * checked before the report is committed, so a report that could not be written completely is never published.
+ * </p>
+ */
+public class CsvReportSink extends AbstractFileReportSink {
+
+    private final CSVWriter writer;
+
+    public CsvReportSink(Path target, Charset charset, int bufferSize) throws IOException {
+        super(target);
+        this.writer = new CSVWriter(new BufferedWriter(
+                new OutputStreamWriter(Files.newOutputStream(tempFile), charset), bufferSize));
+        writer.writeNext(ReportRows.HEADER, false);
+    }
+
+    @Override
+    public void write(Match match) {
+        ReportRows.forEachRow(match, row -> writer.writeNext(row, false));
+    }
+
+    @Override
+    protected void finish() throws IOException {
+        if (writer.checkError()) {
+            final IOException cause = writer.getException();
+            writer.close();
+            throw new IOException("Error writing CSV report " + tempFile, cause);
+        }
+        writer.close();
+    }
+
+    @Override
+    protected void abort() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,54 @@
+package com.aspira.jspider.service.impl.sink;
+
+import com.aspira.jspider.model.Match;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes one JSON document per match and line (newline-delimited JSON). Every line, including the last one,
+ * ends with a newline; a report without matches is an empty file.
+ */
+public class NdjsonReportSink extends AbstractFileReportSink {
+
+    private static final String LINE_SEPARATOR = "\n";
+
+    private final Writer writer;
+    private final SequenceWriter sequenceWriter;
+    private boolean empty = true;
+
+    public NdjsonReportSink(Path target, Charset charset, int bufferSize, ObjectMapper objectMapper) throws IOException {
+        super(target);
+        this.writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(tempFile), charset), bufferSize);
+        this.sequenceWriter = objectMapper.writer()
+                .withRootValueSeparator(LINE_SEPARATOR)
+                .writeValues(writer);
+    }
+
+    @Override
+    public void write(Match match) throws IOException {
+        sequenceWriter.write(match);
+        empty = false;
+    }
+
+    @Override
+    protected void finish() throws IOException {
+        if (!empty) {
+            sequenceWriter.flush();
+            writer.write(LINE_SEPARATOR);
+        }
+        sequenceWriter.close();
+    }
+
+    @Override
+    protected void abort() throws IOException {
+        sequenceWriter.close();
+    }
+}
@@ -0,0 +1,50 @@
+package com.aspira.jspider.service.impl.sink;
+
+import com.aspira.jspider.model.League;
+import com.aspira.jspider.model.Market;
+import com.aspira.jspider.model.Match;
+import com.aspira.jspider.model.Runner;
+import com.aspira.jspider.model.Sport;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Flattens a {@link Match} into the tabular layout shared by the CSV and XLSX reports: one row per
+ * runner, with the sport, league, match and market it belongs to and the bookmaker offering it repeated on
+ * every row.
+ */
+final class ReportRows {
+
+    static final String[] HEADER = {
+            "sport", "league", "match_id", "match", "kickoff", "market_id", "market", "runner_id", "runner", "price",
+            "bookmaker"
+    };
+
+    private ReportRows() {
+    }
+
+    static void forEachRow(Match match, Consumer<String[]> consumer) {
+        final League league = match.getLeague();
+        final Sport sport = league == null ? null : league.getSport();
+        final String sportName = sport == null ? "" : Objects.toString(sport.getName(), "");
+        final String leagueName = league == null ? "" : Objects.toString(league.getName(), "");
+        final String kickoff = Objects.toString(match.getKickoff(), "");
+        final String bookmaker = Objects.toString(match.getBookmaker(), "");
+        if (match.getMarkets() == null) {
+            return;
+        }
+        for (Market market : match.getMarkets()) {
+            if (market.getRunners() == null) {
+                continue;
+            }
+            for (Runner runner : market.getRunners()) {
+                consumer.accept(new String[]{
+                        sportName, leagueName, match.getId(), match.getName(), kickoff,
+                        market.getId(), market.getName(), runner.getId(), runner.getName(), runner.getValue(),
+                        bookmaker
+                });
+            }
+        }
+    }
+}
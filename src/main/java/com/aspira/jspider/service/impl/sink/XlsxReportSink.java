@@ -0,0 +1,83 @@
+package com.aspira.jspider.service.impl.sink;
+
+import com.aspira.jspider.model.Match;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes an Excel workbook with one row per runner.
+ * <p>
+ * The workbook is an {@link SXSSFWorkbook}, which keeps only a small window of rows in memory and
+ * flushes older rows to a temporary file, so memory use does not grow with the size of the crawl.
+ * </p>
+ * <p>
+ * A sheet holds at most 1,048,576 rows. When a sheet is full, the report continues on a new sheet
+ * ({@code Report 2}, {@code Report 3}, ...) that starts with the header row again.
+ * </p>
+ */
+public class XlsxReportSink extends AbstractFileReportSink {
+
+    private static final int ROW_ACCESS_WINDOW = 100;
+    private static final String SHEET_NAME = "Report";
+
+    private final SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+    private final int bufferSize;
+    private final int maxRows;
+    private Sheet sheet;
+    private int rowIndex;
+
+    public XlsxReportSink(Path target, int bufferSize) throws IOException {
+        this(target, bufferSize, SpreadsheetVersion.EXCEL2007.getMaxRows());
+    }
+
+    XlsxReportSink(Path target, int bufferSize, int maxRows) throws IOException {
+        super(target);
+        this.bufferSize = bufferSize;
+        this.maxRows = maxRows;
+        newSheet();
+    }
+
+    @Override
+    public void write(Match match) {
+        ReportRows.forEachRow(match, this::writeRow);
+    }
+
+    private void newSheet() {
+        final int sheets = workbook.getNumberOfSheets();
+        sheet = workbook.createSheet(sheets == 0 ? SHEET_NAME : SHEET_NAME + " " + (sheets + 1));
+        rowIndex = 0;
+        writeRow(ReportRows.HEADER);
+    }
+
+    private void writeRow(String[] values) {
+        if (rowIndex == maxRows) {
+            newSheet();
+        }
+        final Row row = sheet.createRow(rowIndex++);
+        for (int i = 0; i < values.length; i++) {
+            row.createCell(i).setCellValue(values[i]);
+        }
+    }
+
+    @Override
+    protected void finish() throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempFile), bufferSize)) {
+            workbook.write(out);
+        } finally {
+            abort();
+        }
+    }
+
+    @Override
+    protected void abort() throws IOException {
+        workbook.close();
+    }
+}
@@ -0,0 +1,21 @@
+package com.aspira.jspider.store;
+
+import com.aspira.jspider.model.Market;
+
+import java.time.LocalDateTime;
+
+/**
+ * A market found in the {@link OddsIndex}, with the match it belongs to.
+ *
+ * @param bookmaker the bookmaker offering the market
+ * @param sport     the name of the sport
+ * @param leagueId  the ID of the league
+ * @param league    the name of the league
+ * @param matchId   the ID of the match
+ * @param match     the name of the match
+ * @param kickoff   the kickoff of the match
+ * @param market    the market with its runners and current prices
+ */
+public record MarketQuote(String bookmaker, String sport, String leagueId, String league, String matchId,
+                          String match, LocalDateTime kickoff, Market market) {
+}
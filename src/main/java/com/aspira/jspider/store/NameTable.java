@@ -0,0 +1,67 @@
+package com.aspira.jspider.store;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe intern table that maps names to dense {@code int} IDs.
+ * <p>
+ * Market and runner names come from a small, stable vocabulary that repeats across thousands of matches;
+ * storing them once and referring to them by ID keeps odds snapshots small. IDs are never reused, so only
+ * names from such a bounded vocabulary may be interned: match names change with every fixture and would
+ * grow the table for the life of the process. Lookups by ID are lock-free.
+ * </p>
+ */
+public final class NameTable {
+
+    public static final int NO_NAME = -1;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[256];
+    private int size;
+
+    /**
+     * Returns the ID of a name, assigning a new one on first use.
+     *
+     * @param name the name to intern, may be {@code null}
+     * @return the ID of the name, or {@link #NO_NAME} for {@code null}
+     */
+    public int intern(String name) {
+        if (name == null) {
+            return NO_NAME;
+        }
+        final Integer id = ids.get(name);
+        return id != null ? id : add(name);
+    }
+
+    /**
+     * Returns the name with the given ID.
+     *
+     * @param id an ID returned by {@link #intern(String)}
+     * @return the name, or {@code null} for {@link #NO_NAME}
+     */
+    public String name(int id) {
+        return id == NO_NAME ? null : names[id];
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private synchronized int add(String name) {
+        final Integer existing = ids.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        String[] current = names;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[size] = name;
+        // Publish the array before the ID so readers that obtained the ID always see the name.
+        names = current;
+        ids.put(name, size);
+        return size++;
+    }
+}
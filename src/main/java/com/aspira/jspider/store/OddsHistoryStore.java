@@ -0,0 +1,459 @@
+package com.aspira.jspider.store;
+
+import com.aspira.jspider.model.Market;
+import com.aspira.jspider.model.Match;
+import com.aspira.jspider.model.Runner;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Embedded, append-only store of every runner price observed by the crawler.
+ * <p>
+ * Each observation is a fixed-size binary record of {@value #RECORD_SIZE} bytes: runner ID, market ID,
+ * match ID, timestamp in epoch milliseconds and the price scaled by {@link OddsSnapshot#PRICE_SCALE}.
+ * Records are appended to segment files in {@code odds-history.directory}; a new segment is started once the
+ * current one would grow beyond {@code odds-history.segment-size}. Segments are read through memory-mapped
+ * {@link FileChannel}s.
+ * </p>
+ * <p>
+ * The runners of one match are always appended together, so every segment keeps a sparse in-memory index
+ * from match ID to the record ranges written for it, plus the time range it covers. A query therefore only
+ * touches the records of the requested match in the segments overlapping the requested period. Every segment
+ * also maps the runners it contains to their match in a primitive open-addressing table, so a runner query
+ * resolves its match from the overlapping segments only and no lookup spans the whole history.
+ * </p>
+ * <p>
+ * The indexes are rebuilt from the segment files when the store is opened at startup, and a partially written
+ * record at the end of the last segment is discarded. Observations appended while the store is closed are
+ * dropped.
+ * </p>
+ *
+ * @see OddsObservation
+ */
+@Slf4j
+@Component
+public class OddsHistoryStore {
+
+    static final int MAGIC = 0x4F444853;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    static final int RECORD_SIZE = 36;
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String SEGMENT_NAME = "%020d" + SEGMENT_SUFFIX;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long segmentSize;
+
+    private final List<Segment> segments = new ArrayList<>();
+    private ByteBuffer writeBuffer = ByteBuffer.allocate(64 * RECORD_SIZE);
+    private FileChannel writer;
+    private boolean opened;
+
+    public OddsHistoryStore(@Value("${odds-history.enabled:true}") boolean enabled,
+                            @Value("${odds-history.directory:odds-history}") String directory,
+                            @Value("${odds-history.segment-size:64MB}") DataSize segmentSize) {
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.segmentSize = Math.min(segmentSize.toBytes(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Appends the prices of all runners of a match. Runners without a numeric ID or a valid price are skipped.
+     * Write failures are logged and the observation is dropped, as are observations made while the store is
+     * closed.
+     *
+     * @param match     the crawled match
+     * @param timestamp when the prices were observed
+     */
+    public void append(Match match, Instant timestamp) {
+        final long matchId = OddsSnapshotBuilder.parseId(match.getId());
+        if (!enabled || matchId == OddsSnapshot.NO_ID || match.getMarkets() == null) {
+            return;
+        }
+        synchronized (this) {
+            if (!opened) {
+                return;
+            }
+            try {
+                final int records = encode(match, matchId, timestamp.toEpochMilli());
+                if (records > 0) {
+                    write(matchId, records, timestamp.toEpochMilli());
+                }
+            } catch (IOException e) {
+                log.error("Error appending odds history of match {}", match.getId(), e);
+            }
+        }
+    }
+
+    /**
+     * Returns the observed prices of all runners of a match, oldest first.
+     *
+     * @param matchId the ID of the match
+     * @param from    the earliest observation time, inclusive, or {@code null}
+     * @param to      the latest observation time, inclusive, or {@code null}
+     * @return the observations in the period
+     * @throws UncheckedIOException if the segment files cannot be read
+     * @throws IllegalStateException if the store is closed
+     */
+    public List<OddsObservation> matchHistory(long matchId, Instant from, Instant to) {
+        return read(matchId, OddsSnapshot.NO_ID, from, to);
+    }
+
+    /**
+     * Returns the observed prices of a runner, oldest first.
+     *
+     * @param runnerId the ID of the runner
+     * @param from     the earliest observation time, inclusive, or {@code null}
+     * @param to       the latest observation time, inclusive, or {@code null}
+     * @return the observations in the period
+     * @throws UncheckedIOException if the segment files cannot be read
+     * @throws IllegalStateException if the store is closed
+     */
+    public List<OddsObservation> runnerHistory(long runnerId, Instant from, Instant to) {
+        final long fromMillis = from == null ? Long.MIN_VALUE : from.toEpochMilli();
+        final long toMillis = to == null ? Long.MAX_VALUE : to.toEpochMilli();
+        long matchId = OddsSnapshot.NO_ID;
+        synchronized (this) {
+            checkOpen();
+            for (int i = segments.size() - 1; i >= 0 && matchId == OddsSnapshot.NO_ID; i--) {
+                final Segment segment = segments.get(i);
+                if (segment.overlaps(fromMillis, toMillis)) {
+                    matchId = segment.runners.matchOf(runnerId);
+                }
+            }
+        }
+        return matchId == OddsSnapshot.NO_ID ? List.of() : read(matchId, runnerId, from, to);
+    }
+
+    /**
+     * Opens the segment files and rebuilds their indexes, so that the first append of a crawl does not pay
+     * for scanning the history.
+     *
+     * @throws IOException if the directory or a segment file cannot be read
+     */
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        if (opened) {
+            return;
+        }
+        Files.createDirectories(directory);
+        final List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+        }
+        for (int i = 0; i < files.size(); i++) {
+            segments.add(load(files.get(i), i == files.size() - 1));
+        }
+        opened = true;
+        log.info("Opened odds history with {} segments in {}", segments.size(), directory);
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+        for (Segment segment : segments) {
+            segment.channel.close();
+        }
+        segments.clear();
+        opened = false;
+    }
+
+    private List<OddsObservation> read(long matchId, long runnerId, Instant from, Instant to) {
+        final long fromMillis = from == null ? Long.MIN_VALUE : from.toEpochMilli();
+        final long toMillis = to == null ? Long.MAX_VALUE : to.toEpochMilli();
+        final List<ByteBuffer> views = new ArrayList<>();
+        final List<List<Run>> runs = new ArrayList<>();
+        synchronized (this) {
+            checkOpen();
+            for (Segment segment : segments) {
+                final List<Run> matchRuns = segment.runs.get(matchId);
+                if (matchRuns == null || !segment.overlaps(fromMillis, toMillis)) {
+                    continue;
+                }
+                try {
+                    views.add(segment.view());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                runs.add(List.copyOf(matchRuns));
+            }
+        }
+        final List<OddsObservation> observations = new ArrayList<>();
+        for (int i = 0; i < views.size(); i++) {
+            final ByteBuffer view = views.get(i);
+            for (Run run : runs.get(i)) {
+                for (int record = run.first(); record < run.first() + run.count(); record++) {
+                    final int position = HEADER_SIZE + record * RECORD_SIZE;
+                    final long timestamp = view.getLong(position + 24);
+                    final long recordRunnerId = view.getLong(position);
+                    if (timestamp < fromMillis || timestamp > toMillis
+                            || (runnerId != OddsSnapshot.NO_ID && recordRunnerId != runnerId)) {
+                        continue;
+                    }
+                    observations.add(new OddsObservation(recordRunnerId, view.getLong(position + 8), matchId,
+                            Instant.ofEpochMilli(timestamp), (double) view.getInt(position + 32) / OddsSnapshot.PRICE_SCALE));
+                }
+            }
+        }
+        return observations;
+    }
+
+    private int encode(Match match, long matchId, long timestamp) {
+        writeBuffer.clear();
+        int records = 0;
+        for (Market market : match.getMarkets()) {
+            if (market.getRunners() == null) {
+                continue;
+            }
+            final long marketId = OddsSnapshotBuilder.parseId(market.getId());
+            for (Runner runner : market.getRunners()) {
+                final long runnerId = OddsSnapshotBuilder.parseId(runner.getId());
+                final int price = OddsSnapshotBuilder.parsePrice(runner.getValue());
+                if (runnerId == OddsSnapshot.NO_ID || price == OddsSnapshot.NO_PRICE) {
+                    continue;
+                }
+                if (writeBuffer.remaining() < RECORD_SIZE) {
+                    writeBuffer = ByteBuffer.allocate(writeBuffer.capacity() * 2).put(writeBuffer.flip());
+                }
+                writeBuffer.putLong(runnerId).putLong(marketId).putLong(matchId).putLong(timestamp).putInt(price);
+                records++;
+            }
+        }
+        writeBuffer.flip();
+        return records;
+    }
+
+    private void write(long matchId, int records, long timestamp) throws IOException {
+        Segment active = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (active == null || (active.records > 0 && active.length() + (long) records * RECORD_SIZE > segmentSize)) {
+            active = createSegment(active == null ? 0 : active.sequence + 1);
+        }
+        if (writer == null) {
+            writer = FileChannel.open(active.path, WRITE);
+        }
+        for (int position = 0; position < writeBuffer.limit(); position += RECORD_SIZE) {
+            active.runners.put(writeBuffer.getLong(position), matchId);
+        }
+        long position = active.length();
+        while (writeBuffer.hasRemaining()) {
+            position += writer.write(writeBuffer, position);
+        }
+        active.index(matchId, active.records, records, timestamp, timestamp);
+        active.records += records;
+    }
+
+    private Segment createSegment(long sequence) throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+        final Path path = directory.resolve(SEGMENT_NAME.formatted(sequence));
+        try (FileChannel channel = FileChannel.open(path, CREATE_NEW, WRITE)) {
+            channel.write(ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip());
+        }
+        final var segment = new Segment(path, sequence, FileChannel.open(path, READ));
+        segments.add(segment);
+        log.info("Started odds history segment {}", path);
+        return segment;
+    }
+
+    private void checkOpen() {
+        if (!opened) {
+            throw new IllegalStateException("The odds history store is closed");
+        }
+    }
+
+    /**
+     * Validates a segment file and rebuilds its indexes by scanning all of its records.
+     */
+    private Segment load(Path path, boolean last) throws IOException {
+        final String name = path.getFileName().toString();
+        final long sequence = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+        final var channel = FileChannel.open(path, READ);
+        final long size = channel.size();
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(header, 0);
+        if (size < HEADER_SIZE || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            channel.close();
+            throw new IOException("Not an odds history segment: " + path);
+        }
+        final var segment = new Segment(path, sequence, channel);
+        segment.records = (int) ((size - HEADER_SIZE) / RECORD_SIZE);
+        if (last && segment.length() < size) {
+            log.warn("Discarding a partially written record at the end of {}", path);
+            try (FileChannel truncate = FileChannel.open(path, WRITE)) {
+                truncate.truncate(segment.length());
+            }
+        }
+        final ByteBuffer view = segment.view();
+        int runStart = 0;
+        for (int record = 0; record <= segment.records; record++) {
+            final boolean runEnds = record == segment.records
+                    || (record > runStart && matchIdAt(view, record) != matchIdAt(view, runStart));
+            if (runEnds && record > runStart) {
+                long minTimestamp = Long.MAX_VALUE;
+                long maxTimestamp = Long.MIN_VALUE;
+                final long matchId = matchIdAt(view, runStart);
+                for (int i = runStart; i < record; i++) {
+                    final int position = HEADER_SIZE + i * RECORD_SIZE;
+                    final long timestamp = view.getLong(position + 24);
+                    minTimestamp = Math.min(minTimestamp, timestamp);
+                    maxTimestamp = Math.max(maxTimestamp, timestamp);
+                    segment.runners.put(view.getLong(position), matchId);
+                }
+                segment.index(matchId, runStart, record - runStart, minTimestamp, maxTimestamp);
+                runStart = record;
+            }
+        }
+        return segment;
+    }
+
+    private static long matchIdAt(ByteBuffer view, int record) {
+        return view.getLong(HEADER_SIZE + record * RECORD_SIZE + 16);
+    }
+
+    /**
+     * A contiguous range of records of one match within a segment.
+     */
+    private record Run(int first, int count) {
+    }
+
+    /**
+     * Maps runner IDs to match IDs with linear probing over two primitive arrays, using {@link OddsSnapshot#NO_ID}
+     * for empty slots.
+     */
+    private static final class RunnerIndex {
+
+        private long[] runnerIds = emptyTable(16);
+        private long[] matchIds = new long[16];
+        private int size;
+
+        private long matchOf(long runnerId) {
+            final int slot = slot(runnerIds, runnerId);
+            return runnerIds[slot] == runnerId ? matchIds[slot] : OddsSnapshot.NO_ID;
+        }
+
+        private void put(long runnerId, long matchId) {
+            int slot = slot(runnerIds, runnerId);
+            if (runnerIds[slot] != runnerId) {
+                if (++size * 4 > runnerIds.length * 3) {
+                    resize();
+                    slot = slot(runnerIds, runnerId);
+                }
+                runnerIds[slot] = runnerId;
+            }
+            matchIds[slot] = matchId;
+        }
+
+        private void resize() {
+            final long[] oldRunnerIds = runnerIds;
+            final long[] oldMatchIds = matchIds;
+            runnerIds = emptyTable(oldRunnerIds.length * 2);
+            matchIds = new long[runnerIds.length];
+            for (int i = 0; i < oldRunnerIds.length; i++) {
+                if (oldRunnerIds[i] != OddsSnapshot.NO_ID) {
+                    final int slot = slot(runnerIds, oldRunnerIds[i]);
+                    runnerIds[slot] = oldRunnerIds[i];
+                    matchIds[slot] = oldMatchIds[i];
+                }
+            }
+        }
+
+        /**
+         * @return the slot holding the runner, or the empty slot where it belongs
+         */
+        private static int slot(long[] table, long runnerId) {
+            final int mask = table.length - 1;
+            int slot = Long.hashCode(runnerId * 0x9E3779B97F4A7C15L) & mask;
+            while (table[slot] != OddsSnapshot.NO_ID && table[slot] != runnerId) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private static long[] emptyTable(int capacity) {
+            final long[] table = new long[capacity];
+            Arrays.fill(table, OddsSnapshot.NO_ID);
+            return table;
+        }
+    }
+
+    private static final class Segment {
+
+        private final Path path;
+        private final long sequence;
+        private final FileChannel channel;
+        private final Map<Long, List<Run>> runs = new HashMap<>();
+        private final RunnerIndex runners = new RunnerIndex();
+        private int records;
+        private long minTimestamp = Long.MAX_VALUE;
+        private long maxTimestamp = Long.MIN_VALUE;
+        private MappedByteBuffer mapped;
+        private int mappedRecords = -1;
+
+        private Segment(Path path, long sequence, FileChannel channel) {
+            this.path = path;
+            this.sequence = sequence;
+            this.channel = channel;
+        }
+
+        private long length() {
+            return HEADER_SIZE + (long) records * RECORD_SIZE;
+        }
+
+        private boolean overlaps(long fromMillis, long toMillis) {
+            return minTimestamp <= toMillis && maxTimestamp >= fromMillis;
+        }
+
+        private void index(long matchId, int first, int count, long fromTimestamp, long toTimestamp) {
+            final List<Run> matchRuns = runs.computeIfAbsent(matchId, id -> new ArrayList<>(1));
+            final Run last = matchRuns.isEmpty() ? null : matchRuns.get(matchRuns.size() - 1);
+            if (last != null && last.first() + last.count() == first) {
+                matchRuns.set(matchRuns.size() - 1, new Run(last.first(), last.count() + count));
+            } else {
+                matchRuns.add(new Run(first, count));
+            }
+            minTimestamp = Math.min(minTimestamp, fromTimestamp);
+            maxTimestamp = Math.max(maxTimestamp, toTimestamp);
+        }
+
+        /**
+         * Maps every record written so far. The mapping is only replaced when records were appended since.
+         */
+        private ByteBuffer view() throws IOException {
+            if (mappedRecords != records) {
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, length());
+                mappedRecords = records;
+            }
+            return mapped;
+        }
+    }
+}
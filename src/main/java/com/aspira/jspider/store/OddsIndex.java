@@ -0,0 +1,307 @@
+package com.aspira.jspider.store;
+
+import com.aspira.jspider.model.League;
+import com.aspira.jspider.model.Market;
+import com.aspira.jspider.model.Match;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * In-memory index of the matches of the latest crawls, answering odds queries without touching the report.
+ * <p>
+ * The index is an immutable generation behind a volatile reference. A crawl fills an {@link Update} and
+ * publishes it when it completes: the next generation keeps the matches of all sports the crawl did not
+ * cover, replaces those of the sports it did, and is swapped in at once. Readers never take a lock and
+ * always see one complete generation.
+ * </p>
+ * <p>
+ * A sport whose crawl was incomplete - a page, league or match failed, or the crawl hit its deadline - is
+ * not replaced but merged: its fetched matches replace their previous versions and every previous match that
+ * was not fetched again is carried forward, so a failed crawl never wipes odds it could not refresh.
+ * </p>
+ * <p>
+ * A generation indexes matches by ID, by sport name, by league ID and, for markets, by market name. Every
+ * indexed list is sorted by kickoff, so kickoff ranges are found by binary search. Names are matched
+ * case-insensitively; matches without a kickoff are only returned when no range is given.
+ * </p>
+ */
+@Slf4j
+@Component
+public class OddsIndex {
+
+    private static final Comparator<LocalDateTime> KICKOFF_ORDER = Comparator.nullsLast(Comparator.naturalOrder());
+
+    private volatile Generation current = Generation.EMPTY;
+
+    /**
+     * Starts collecting the matches of a crawl.
+     *
+     * @param sports the crawled sports; their matches are replaced when the update is published
+     * @return a new, unpublished update
+     */
+    public Update newUpdate(Collection<String> sports) {
+        return new Update(sports);
+    }
+
+    public Instant getUpdatedAt() {
+        return current.updatedAt;
+    }
+
+    public int size() {
+        return current.byId.size();
+    }
+
+    /**
+     * @return the match with the given ID from every bookmaker offering it
+     */
+    public List<Match> findMatch(String id) {
+        return current.byId.getOrDefault(id, List.of());
+    }
+
+    /**
+     * Finds matches by sport or league and kickoff.
+     *
+     * @param sport    the sport name, or {@code null} for all sports
+     * @param leagueId the league ID, or {@code null} for all leagues
+     * @param from     the earliest kickoff, inclusive, or {@code null}
+     * @param to       the latest kickoff, inclusive, or {@code null}
+     * @return the matching matches ordered by kickoff
+     */
+    public List<Match> findMatches(String sport, String leagueId, LocalDateTime from, LocalDateTime to) {
+        final var generation = current;
+        final List<Match> candidates;
+        if (leagueId != null) {
+            candidates = generation.byLeague.getOrDefault(leagueId, List.of());
+        } else if (sport != null) {
+            candidates = generation.bySport.getOrDefault(key(sport), List.of());
+        } else {
+            candidates = generation.byKickoff;
+        }
+        final var inRange = range(candidates, Match::getKickoff, from, to);
+        if (leagueId == null || sport == null) {
+            return inRange;
+        }
+        return inRange.stream().filter(match -> key(sport).equals(key(sportName(match)))).toList();
+    }
+
+    /**
+     * Finds markets by name, e.g. all {@code Winner} markets of football matches starting today.
+     *
+     * @param name  the market name
+     * @param sport the sport name, or {@code null} for all sports
+     * @param from  the earliest kickoff, inclusive, or {@code null}
+     * @param to    the latest kickoff, inclusive, or {@code null}
+     * @return the matching markets ordered by kickoff
+     */
+    public List<MarketQuote> findMarkets(String name, String sport, LocalDateTime from, LocalDateTime to) {
+        final var inRange = range(current.byMarket.getOrDefault(key(name), List.of()), MarketQuote::kickoff, from, to);
+        if (sport == null) {
+            return inRange;
+        }
+        return inRange.stream().filter(quote -> key(sport).equals(key(quote.sport()))).toList();
+    }
+
+    private synchronized void publish(Update update) {
+        final Map<String, List<Match>> byCrawledSport = new HashMap<>(current.byCrawledSport);
+        final List<String> incomplete = new ArrayList<>();
+        for (String sport : update.sports) {
+            if (update.isIncomplete(sport) && byCrawledSport.containsKey(sport)) {
+                incomplete.add(sport);
+            } else {
+                byCrawledSport.remove(sport);
+            }
+        }
+        update.matches.forEach((sport, matches) ->
+                byCrawledSport.merge(sport, List.copyOf(matches), OddsIndex::carryForward));
+        current = new Generation(byCrawledSport, Instant.now());
+        log.info("Published odds index with {} matches of sports {}, carrying forward incomplete sports {}",
+                current.byId.size(), byCrawledSport.keySet(), incomplete);
+    }
+
+    /**
+     * @return the fetched matches followed by the previous matches of bookmakers and IDs that were not fetched
+     */
+    private static List<Match> carryForward(List<Match> previous, List<Match> fetched) {
+        final Set<String> keys = new HashSet<>();
+        fetched.forEach(match -> keys.add(match.getBookmaker() + ':' + match.getId()));
+        final List<Match> merged = new ArrayList<>(fetched);
+        previous.stream().filter(match -> !keys.contains(match.getBookmaker() + ':' + match.getId()))
+                .forEach(merged::add);
+        return merged;
+    }
+
+    /**
+     * Returns the part of a kickoff-ordered list within the range, using binary search.
+     */
+    private static <T> List<T> range(List<T> sorted, Function<T, LocalDateTime> kickoff, LocalDateTime from,
+                                     LocalDateTime to) {
+        if (from == null && to == null) {
+            return sorted;
+        }
+        final int start = from == null ? 0 : firstIndex(sorted, item -> kickoff.apply(item) == null
+                || !kickoff.apply(item).isBefore(from));
+        final int end = firstIndex(sorted, item -> kickoff.apply(item) == null
+                || (to != null && kickoff.apply(item).isAfter(to)));
+        return start < end ? sorted.subList(start, end) : List.of();
+    }
+
+    /**
+     * @return the first index whose item matches a predicate that is {@code false} for a prefix of the list
+     * and {@code true} for the rest
+     */
+    private static <T> int firstIndex(List<T> sorted, Predicate<T> predicate) {
+        int low = 0;
+        int high = sorted.size();
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (predicate.test(sorted.get(middle))) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    private static String sportName(Match match) {
+        final League league = match.getLeague();
+        return league == null || league.getSport() == null ? null : league.getSport().getName();
+    }
+
+    private static String key(String name) {
+        return name == null ? "" : name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The matches of one crawl, collected concurrently and published at once when the crawl has completed.
+     */
+    public final class Update {
+
+        private final Set<String> sports;
+        private final Map<String, Queue<Match>> matches = new ConcurrentHashMap<>();
+        private final Set<String> incompleteSports = ConcurrentHashMap.newKeySet();
+        private volatile boolean incomplete;
+
+        private Update(Collection<String> sports) {
+            this.sports = Set.copyOf(sports);
+        }
+
+        /**
+         * @param sport the crawled sport the match was found for
+         * @param match the fetched match
+         */
+        public void add(String sport, Match match) {
+            matches.computeIfAbsent(sport, key -> new ConcurrentLinkedQueue<>()).add(match);
+        }
+
+        /**
+         * Marks a sport as incomplete, so that its previous matches that were not fetched again are kept when
+         * the update is published.
+         *
+         * @param sport the crawled sport with a failed stage, or {@code null} when the whole crawl was cut short
+         */
+        public void markIncomplete(String sport) {
+            if (sport == null) {
+                incomplete = true;
+            } else {
+                incompleteSports.add(sport);
+            }
+        }
+
+        public void publish() {
+            OddsIndex.this.publish(this);
+        }
+
+        private boolean isIncomplete(String sport) {
+            return incomplete || incompleteSports.contains(sport);
+        }
+    }
+
+    /**
+     * One immutable state of the index.
+     */
+    private static final class Generation {
+
+        private static final Generation EMPTY = new Generation(Map.of(), null);
+
+        private final Map<String, List<Match>> byCrawledSport;
+        private final Instant updatedAt;
+        private final Map<String, List<Match>> byId;
+        private final Map<String, List<Match>> bySport;
+        private final Map<String, List<Match>> byLeague;
+        private final Map<String, List<MarketQuote>> byMarket;
+        private final List<Match> byKickoff;
+
+        private Generation(Map<String, List<Match>> byCrawledSport, Instant updatedAt) {
+            this.byCrawledSport = Map.copyOf(byCrawledSport);
+            this.updatedAt = updatedAt;
+            final Map<String, List<Match>> byId = new HashMap<>();
+            final Map<String, List<Match>> bySport = new HashMap<>();
+            final Map<String, List<Match>> byLeague = new HashMap<>();
+            final Map<String, List<MarketQuote>> byMarket = new HashMap<>();
+            final List<Match> byKickoff = new ArrayList<>();
+            for (List<Match> matches : byCrawledSport.values()) {
+                for (Match match : matches) {
+                    if (match.getId() == null) {
+                        continue;
+                    }
+                    byKickoff.add(match);
+                    byId.computeIfAbsent(match.getId(), id -> new ArrayList<>()).add(match);
+                    bySport.computeIfAbsent(key(sportName(match)), sport -> new ArrayList<>()).add(match);
+                    if (match.getLeague() != null && match.getLeague().getId() != null) {
+                        byLeague.computeIfAbsent(match.getLeague().getId(), league -> new ArrayList<>()).add(match);
+                    }
+                    if (match.getMarkets() == null) {
+                        continue;
+                    }
+                    for (Market market : match.getMarkets()) {
+                        byMarket.computeIfAbsent(key(market.getName()), name -> new ArrayList<>())
+                                .add(quote(match, market));
+                    }
+                }
+            }
+            this.byId = freeze(byId, Match::getKickoff);
+            this.bySport = freeze(bySport, Match::getKickoff);
+            this.byLeague = freeze(byLeague, Match::getKickoff);
+            this.byMarket = freeze(byMarket, MarketQuote::kickoff);
+            this.byKickoff = sorted(byKickoff, Match::getKickoff);
+        }
+
+        private static MarketQuote quote(Match match, Market market) {
+            final League league = match.getLeague();
+            return new MarketQuote(match.getBookmaker(), sportName(match), league == null ? null : league.getId(),
+                    league == null ? null : league.getName(), match.getId(), match.getName(), match.getKickoff(),
+                    market);
+        }
+
+        private static <T> Map<String, List<T>> freeze(Map<String, List<T>> index,
+                                                       Function<? super T, LocalDateTime> kickoff) {
+            final Map<String, List<T>> frozen = new HashMap<>();
+            index.forEach((key, values) -> frozen.put(key, sorted(values, kickoff)));
+            return Map.copyOf(frozen);
+        }
+
+        private static <T> List<T> sorted(List<T> values, Function<? super T, LocalDateTime> kickoff) {
+            final List<T> sorted = new ArrayList<>(values);
+            sorted.sort(Comparator.comparing(kickoff, KICKOFF_ORDER));
+            return List.copyOf(sorted);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.aspira.jspider.store;
+
+import java.time.Instant;
+
+/**
+ * A price of a runner observed during a crawl, as read back from the {@link OddsHistoryStore}.
+ *
+ * @param runnerId  the ID of the runner
+ * @param marketId  the ID of the market, or {@link OddsSnapshot#NO_ID} if it was not numeric
+ * @param matchId   the ID of the match
+ * @param timestamp when the price was observed
+ * @param price     the observed price
+ */
+public record OddsObservation(long runnerId, long marketId, long matchId, Instant timestamp, double price) {
+}
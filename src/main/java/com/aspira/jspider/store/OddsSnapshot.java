@@ -0,0 +1,247 @@
+package com.aspira.jspider.store;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Immutable, column-oriented snapshot of the odds of many matches.
+ * <p>
+ * Matches and runners are addressed by their position ({@code matchIndex}, {@code runnerIndex}). Every
+ * attribute lives in a primitive array: IDs are {@code long}s, prices are {@code int}s scaled by
+ * {@link #PRICE_SCALE}, and market and runner names are {@link NameTable} IDs. The runners of a match occupy
+ * the contiguous range {@code [firstRunner(matchIndex), firstRunner(matchIndex + 1))}. A snapshot holds no
+ * {@code String} or model object per runner, so several snapshots of all leagues fit in memory side by side.
+ * Bookmaker, match, league and sport names are held per match by the snapshot and go away with it.
+ * </p>
+ * <p>
+ * Snapshots are created with an {@link OddsSnapshotBuilder} and are safe to share between threads.
+ * </p>
+ */
+public final class OddsSnapshot {
+
+    public static final int PRICE_SCALE = 1000;
+    public static final int NO_PRICE = Integer.MIN_VALUE;
+    public static final long NO_ID = Long.MIN_VALUE;
+    public static final long NO_KICKOFF = Long.MIN_VALUE;
+
+    private final NameTable names;
+    private final Instant createdAt;
+
+    private final long[] matchIds;
+    private final String[] bookmakers;
+    private final String[] matchNames;
+    private final String[] leagueNames;
+    private final String[] sportNames;
+    private final long[] kickoffs;
+    private final int[] firstRunners;
+
+    private final long[] marketIds;
+    private final int[] marketNames;
+    private final long[] runnerIds;
+    private final int[] runnerNames;
+    private final int[] prices;
+    private final int[] runnersById;
+
+    OddsSnapshot(NameTable names, Instant createdAt, int matchCount, long[] matchIds, String[] bookmakers,
+                 String[] matchNames, String[] leagueNames, String[] sportNames, long[] kickoffs, int[] firstRunners,
+                 int runnerCount, long[] marketIds, int[] marketNames, long[] runnerIds, int[] runnerNames,
+                 int[] prices) {
+        this.names = names;
+        this.createdAt = createdAt;
+        this.matchIds = Arrays.copyOf(matchIds, matchCount);
+        this.bookmakers = Arrays.copyOf(bookmakers, matchCount);
+        this.matchNames = Arrays.copyOf(matchNames, matchCount);
+        this.leagueNames = Arrays.copyOf(leagueNames, matchCount);
+        this.sportNames = Arrays.copyOf(sportNames, matchCount);
+        this.kickoffs = Arrays.copyOf(kickoffs, matchCount);
+        this.firstRunners = Arrays.copyOf(firstRunners, matchCount + 1);
+        this.marketIds = Arrays.copyOf(marketIds, runnerCount);
+        this.marketNames = Arrays.copyOf(marketNames, runnerCount);
+        this.runnerIds = Arrays.copyOf(runnerIds, runnerCount);
+        this.runnerNames = Arrays.copyOf(runnerNames, runnerCount);
+        this.prices = Arrays.copyOf(prices, runnerCount);
+        this.runnersById = sortedByRunnerId();
+    }
+
+    public Instant createdAt() {
+        return createdAt;
+    }
+
+    public int matchCount() {
+        return matchIds.length;
+    }
+
+    public int runnerCount() {
+        return runnerIds.length;
+    }
+
+    public long matchId(int matchIndex) {
+        return matchIds[matchIndex];
+    }
+
+    public String bookmaker(int matchIndex) {
+        return bookmakers[matchIndex];
+    }
+
+    public String matchName(int matchIndex) {
+        return matchNames[matchIndex];
+    }
+
+    public String leagueName(int matchIndex) {
+        return leagueNames[matchIndex];
+    }
+
+    public String sportName(int matchIndex) {
+        return sportNames[matchIndex];
+    }
+
+    /**
+     * @return the kickoff in milliseconds since the epoch, or {@link #NO_KICKOFF}
+     */
+    public long kickoffEpochMilli(int matchIndex) {
+        return kickoffs[matchIndex];
+    }
+
+    public LocalDateTime kickoff(int matchIndex) {
+        final long kickoff = kickoffs[matchIndex];
+        return kickoff == NO_KICKOFF ? null : LocalDateTime.ofEpochSecond(Math.floorDiv(kickoff, 1000),
+                (int) Math.floorMod(kickoff, 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * @return the index of the first runner of the match; the runners of the match end right before
+     * {@code firstRunner(matchIndex + 1)}, which is valid up to {@code matchIndex == matchCount()}
+     */
+    public int firstRunner(int matchIndex) {
+        return firstRunners[matchIndex];
+    }
+
+    /**
+     * @return the index of the match the runner belongs to
+     */
+    public int matchOf(int runnerIndex) {
+        int low = 0;
+        int high = matchIds.length - 1;
+        while (low < high) {
+            final int mid = (low + high + 1) >>> 1;
+            if (firstRunners[mid] <= runnerIndex) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    public long marketId(int runnerIndex) {
+        return marketIds[runnerIndex];
+    }
+
+    public String marketName(int runnerIndex) {
+        return names.name(marketNames[runnerIndex]);
+    }
+
+    public int marketNameId(int runnerIndex) {
+        return marketNames[runnerIndex];
+    }
+
+    public long runnerId(int runnerIndex) {
+        return runnerIds[runnerIndex];
+    }
+
+    public String runnerName(int runnerIndex) {
+        return names.name(runnerNames[runnerIndex]);
+    }
+
+    /**
+     * @return the price multiplied by {@link #PRICE_SCALE}, or {@link #NO_PRICE}
+     */
+    public int scaledPrice(int runnerIndex) {
+        return prices[runnerIndex];
+    }
+
+    /**
+     * @return the price, or {@link Double#NaN} if the runner had no valid price
+     */
+    public double price(int runnerIndex) {
+        final int price = prices[runnerIndex];
+        return price == NO_PRICE ? Double.NaN : (double) price / PRICE_SCALE;
+    }
+
+    /**
+     * Finds a runner by ID in {@code O(log n)}.
+     *
+     * @param runnerId the ID of the runner
+     * @return the index of the runner, or {@code -1} if the snapshot does not contain it
+     */
+    public int indexOfRunner(long runnerId) {
+        int low = 0;
+        int high = runnersById.length - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final long id = runnerIds[runnersById[mid]];
+            if (id < runnerId) {
+                low = mid + 1;
+            } else if (id > runnerId) {
+                high = mid - 1;
+            } else {
+                return runnersById[mid];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Formats a scaled price with at least two decimals, e.g. {@code 4300} as {@code "4.30"}.
+     */
+    public static String formatPrice(int scaledPrice) {
+        if (scaledPrice == NO_PRICE) {
+            return null;
+        }
+        final BigDecimal price = BigDecimal.valueOf(scaledPrice, 3).stripTrailingZeros();
+        return price.scale() < 2 ? price.setScale(2).toPlainString() : price.toPlainString();
+    }
+
+    /**
+     * Sorts runner indices by runner ID with an in-place heap sort, avoiding boxed comparators.
+     */
+    private int[] sortedByRunnerId() {
+        final int[] order = new int[runnerIds.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        for (int i = order.length / 2 - 1; i >= 0; i--) {
+            siftDown(order, i, order.length);
+        }
+        for (int end = order.length - 1; end > 0; end--) {
+            final int top = order[0];
+            order[0] = order[end];
+            order[end] = top;
+            siftDown(order, 0, end);
+        }
+        return order;
+    }
+
+    private void siftDown(int[] order, int node, int size) {
+        while (true) {
+            final int left = 2 * node + 1;
+            if (left >= size) {
+                return;
+            }
+            int largest = left;
+            if (left + 1 < size && runnerIds[order[left + 1]] > runnerIds[order[left]]) {
+                largest = left + 1;
+            }
+            if (runnerIds[order[largest]] <= runnerIds[order[node]]) {
+                return;
+            }
+            final int swap = order[node];
+            order[node] = order[largest];
+            order[largest] = swap;
+            node = largest;
+        }
+    }
+}
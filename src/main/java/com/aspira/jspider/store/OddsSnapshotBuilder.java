@@ -0,0 +1,152 @@
+package com.aspira.jspider.store;
+
+import com.aspira.jspider.model.League;
+import com.aspira.jspider.model.Market;
+import com.aspira.jspider.model.Match;
+import com.aspira.jspider.model.Runner;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Collects {@link Match} objects into the primitive columns of an {@link OddsSnapshot}.
+ * <p>
+ * String IDs are parsed to {@code long}s and prices to scaled {@code int}s once, when a match is added;
+ * the match itself is not retained. Market and runner names are interned into the shared {@link NameTable}.
+ * Bookmaker, match, league and sport names are kept by the snapshot itself, deduplicated within it, so they are
+ * released together with the snapshot instead of accumulating in the shared table. Builders are not
+ * thread-safe.
+ * </p>
+ */
+public final class OddsSnapshotBuilder {
+
+    private static final int INITIAL_MATCHES = 64;
+    private static final int INITIAL_RUNNERS = 1024;
+
+    private final NameTable names;
+    private final Map<String, String> matchLevelNames = new HashMap<>();
+
+    private int matchCount;
+    private long[] matchIds = new long[INITIAL_MATCHES];
+    private String[] bookmakers = new String[INITIAL_MATCHES];
+    private String[] matchNames = new String[INITIAL_MATCHES];
+    private String[] leagueNames = new String[INITIAL_MATCHES];
+    private String[] sportNames = new String[INITIAL_MATCHES];
+    private long[] kickoffs = new long[INITIAL_MATCHES];
+    private int[] firstRunners = new int[INITIAL_MATCHES + 1];
+
+    private int runnerCount;
+    private long[] marketIds = new long[INITIAL_RUNNERS];
+    private int[] marketNames = new int[INITIAL_RUNNERS];
+    private long[] runnerIds = new long[INITIAL_RUNNERS];
+    private int[] runnerNames = new int[INITIAL_RUNNERS];
+    private int[] prices = new int[INITIAL_RUNNERS];
+
+    public OddsSnapshotBuilder(NameTable names) {
+        this.names = names;
+    }
+
+    public OddsSnapshotBuilder add(Match match) {
+        ensureMatchCapacity();
+        final League league = match.getLeague();
+        matchIds[matchCount] = parseId(match.getId());
+        bookmakers[matchCount] = deduplicate(match.getBookmaker());
+        matchNames[matchCount] = match.getName();
+        leagueNames[matchCount] = deduplicate(league == null ? null : league.getName());
+        sportNames[matchCount] = deduplicate(league == null || league.getSport() == null ? null
+                : league.getSport().getName());
+        kickoffs[matchCount] = match.getKickoff() == null
+                ? OddsSnapshot.NO_KICKOFF
+                : match.getKickoff().toInstant(ZoneOffset.UTC).toEpochMilli();
+        firstRunners[matchCount] = runnerCount;
+        if (match.getMarkets() != null) {
+            for (Market market : match.getMarkets()) {
+                if (market.getRunners() == null) {
+                    continue;
+                }
+                final long marketId = parseId(market.getId());
+                final int marketName = names.intern(market.getName());
+                for (Runner runner : market.getRunners()) {
+                    ensureRunnerCapacity();
+                    marketIds[runnerCount] = marketId;
+                    marketNames[runnerCount] = marketName;
+                    runnerIds[runnerCount] = parseId(runner.getId());
+                    runnerNames[runnerCount] = names.intern(runner.getName());
+                    prices[runnerCount] = parsePrice(runner.getValue());
+                    runnerCount++;
+                }
+            }
+        }
+        matchCount++;
+        firstRunners[matchCount] = runnerCount;
+        return this;
+    }
+
+    public OddsSnapshot build() {
+        return new OddsSnapshot(names, Instant.now(), matchCount, matchIds, bookmakers, matchNames, leagueNames,
+                sportNames, kickoffs, firstRunners, runnerCount, marketIds, marketNames, runnerIds, runnerNames,
+                prices);
+    }
+
+    /**
+     * Parses a decimal price such as {@code "4.30"} into an {@code int} scaled by
+     * {@link OddsSnapshot#PRICE_SCALE}.
+     *
+     * @return the scaled price, or {@link OddsSnapshot#NO_PRICE} if the value is missing or not a number
+     */
+    public static int parsePrice(String value) {
+        if (value == null || value.isBlank()) {
+            return OddsSnapshot.NO_PRICE;
+        }
+        try {
+            final double price = Double.parseDouble(value.trim());
+            return Double.isFinite(price) ? (int) Math.round(price * OddsSnapshot.PRICE_SCALE) : OddsSnapshot.NO_PRICE;
+        } catch (NumberFormatException e) {
+            return OddsSnapshot.NO_PRICE;
+        }
+    }
+
+    static long parseId(String id) {
+        if (id == null) {
+            return OddsSnapshot.NO_ID;
+        }
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            return OddsSnapshot.NO_ID;
+        }
+    }
+
+    private String deduplicate(String name) {
+        return name == null ? null : matchLevelNames.computeIfAbsent(name, key -> key);
+    }
+
+    private void ensureMatchCapacity() {
+        if (matchCount + 1 < matchIds.length) {
+            return;
+        }
+        final int capacity = matchIds.length * 2;
+        matchIds = Arrays.copyOf(matchIds, capacity);
+        bookmakers = Arrays.copyOf(bookmakers, capacity);
+        matchNames = Arrays.copyOf(matchNames, capacity);
+        leagueNames = Arrays.copyOf(leagueNames, capacity);
+        sportNames = Arrays.copyOf(sportNames, capacity);
+        kickoffs = Arrays.copyOf(kickoffs, capacity);
+        firstRunners = Arrays.copyOf(firstRunners, capacity + 1);
+    }
+
+    private void ensureRunnerCapacity() {
+        if (runnerCount < runnerIds.length) {
+            return;
+        }
+        final int capacity = runnerIds.length * 2;
+        marketIds = Arrays.copyOf(marketIds, capacity);
+        marketNames = Arrays.copyOf(marketNames, capacity);
+        runnerIds = Arrays.copyOf(runnerIds, capacity);
+        runnerNames = Arrays.copyOf(runnerNames, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+    }
+}
@@ -0,0 +1,75 @@
+package com.aspira.jspider.store;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory store of compact {@link OddsSnapshot}s.
+ * <p>
+ * Snapshots are published under a key (for example a sport) and the store keeps the last
+ * {@code odds-store.history-size} snapshots per key for comparison. All snapshots share one
+ * {@link NameTable}, so a market or runner name is stored once no matter how many snapshots refer to it.
+ * </p>
+ */
+@Component
+public class OddsStore {
+
+    private final NameTable names = new NameTable();
+    private final Map<String, Deque<OddsSnapshot>> snapshots = new ConcurrentHashMap<>();
+
+    @Value("${odds-store.history-size:2}")
+    private int historySize;
+
+    public OddsSnapshotBuilder newSnapshot() {
+        return new OddsSnapshotBuilder(names);
+    }
+
+    /**
+     * Publishes a snapshot as the latest one for a key and evicts snapshots beyond the history size.
+     *
+     * @param key      the key to publish under
+     * @param snapshot the snapshot to publish
+     * @return the previously latest snapshot for the key, if any
+     */
+    public Optional<OddsSnapshot> publish(String key, OddsSnapshot snapshot) {
+        final var history = snapshots.computeIfAbsent(key, k -> new ArrayDeque<>());
+        synchronized (history) {
+            final var previous = history.peekFirst();
+            history.addFirst(snapshot);
+            while (history.size() > historySize) {
+                history.removeLast();
+            }
+            return Optional.ofNullable(previous);
+        }
+    }
+
+    public Optional<OddsSnapshot> latest(String key) {
+        final var history = snapshots.get(key);
+        if (history == null) {
+            return Optional.empty();
+        }
+        synchronized (history) {
+            return Optional.ofNullable(history.peekFirst());
+        }
+    }
+
+    /**
+     * @return the snapshots for a key, newest first
+     */
+    public List<OddsSnapshot> history(String key) {
+        final var history = snapshots.get(key);
+        if (history == null) {
+            return List.of();
+        }
+        synchronized (history) {
+            return List.copyOf(history);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.aspira.jspider.webclient;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+
+/**
+ * {@link ExchangeFilterFunction} that meters outgoing requests before they are sent.
+ * <p>
+ * Every request has to obtain a permit, which requires both a token from a token bucket and a free slot
+ * under an AIMD (additive increase, multiplicative decrease) concurrency limit. A {@code 429 Too Many
+ * Requests} response or a response slower than the configured latency threshold halves the concurrency
+ * limit and the token rate; every healthy response grows them back. A {@code Retry-After} header pauses
+ * all permits until the upstream is willing to accept requests again.
+ * </p>
+ * <p>
+ * A request holds its permit until the response body has been read, released or cancelled, and its latency is
+ * measured up to that point, so a large or slowly streamed body counts against the concurrency limit for as
+ * long as the connection is busy with it. Like every {@link ClientResponse}, the body must be consumed or
+ * released, otherwise the permit is never returned.
+ * </p>
+ * <p>
+ * Requests that cannot get a permit wait in a FIFO queue. When the queue is full the request fails
+ * immediately with a {@link RateLimitExceededException}.
+ * </p>
+ */
+@Slf4j
+public class AdaptiveRateLimiter implements ExchangeFilterFunction {
+
+    private static final double DECREASE_RATIO = 0.5;
+
+    private final double minPermitsPerSecond;
+    private final double maxPermitsPerSecond;
+    private final double burst;
+    private final int minConcurrency;
+    private final int maxConcurrency;
+    private final int maxQueueDepth;
+    private final long latencyThresholdNanos;
+    private final Scheduler timer = Schedulers.parallel();
+
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    private double permitsPerSecond;
+    private double concurrencyLimit;
+    private double tokens;
+    private int inFlight;
+    private long lastRefillNanos = System.nanoTime();
+    private long lastDecreaseNanos;
+    private long pausedUntilNanos;
+    private boolean drainScheduled;
+
+    public AdaptiveRateLimiter(double permitsPerSecond, int burst, int initialConcurrency,
+                               int minConcurrency, int maxConcurrency, int maxQueueDepth,
+                               Duration latencyThreshold) {
+        this.maxPermitsPerSecond = permitsPerSecond;
+        this.minPermitsPerSecond = Math.min(1, permitsPerSecond);
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.tokens = burst;
+        this.minConcurrency = minConcurrency;
+        this.maxConcurrency = maxConcurrency;
+        this.concurrencyLimit = initialConcurrency;
+        this.maxQueueDepth = maxQueueDepth;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.lastDecreaseNanos = lastRefillNanos - TimeUnit.DAYS.toNanos(1);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return acquire().flatMap(permit -> {
+            final long start = System.nanoTime();
+            final var responded = new AtomicBoolean();
+            return next.exchange(request)
+                    .map(response -> {
+                        responded.set(true);
+                        return releaseOnBodyEnd(response, permit, start);
+                    })
+                    .doFinally(signal -> {
+                        if (!responded.get()) {
+                            permit.release();
+                        }
+                    });
+        });
+    }
+
+    public synchronized double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    public synchronized int getConcurrencyLimit() {
+        return (int) concurrencyLimit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getQueueDepth() {
+        return waiters.size();
+    }
+
+    private Mono<Permit> acquire() {
+        return Mono.create(sink -> {
+            final var waiter = new Waiter(sink);
+            synchronized (this) {
+                if (waiters.size() >= maxQueueDepth) {
+                    sink.error(new RateLimitExceededException("Rate limiter queue is full (" + maxQueueDepth + ")"));
+                    return;
+                }
+                waiters.addLast(waiter);
+            }
+            sink.onCancel(() -> cancel(waiter));
+            drain();
+        });
+    }
+
+    private void cancel(Waiter waiter) {
+        synchronized (this) {
+            waiters.remove(waiter);
+        }
+        waiter.permit.release();
+    }
+
+    private void drain() {
+        final List<Waiter> granted = new ArrayList<>();
+        synchronized (this) {
+            final long now = System.nanoTime();
+            refill(now);
+            long delayNanos = 0;
+            while (!waiters.isEmpty()) {
+                if (now < pausedUntilNanos) {
+                    delayNanos = pausedUntilNanos - now;
+                    break;
+                }
+                if (inFlight >= (int) concurrencyLimit) {
+                    break;
+                }
+                if (tokens < 1) {
+                    delayNanos = (long) ((1 - tokens) / permitsPerSecond * TimeUnit.SECONDS.toNanos(1));
+                    break;
+                }
+                tokens -= 1;
+                inFlight++;
+                final var waiter = waiters.pollFirst();
+                waiter.permit.acquired = true;
+                granted.add(waiter);
+            }
+            if (delayNanos > 0 && !drainScheduled) {
+                drainScheduled = true;
+                timer.schedule(() -> {
+                    synchronized (this) {
+                        drainScheduled = false;
+                    }
+                    drain();
+                }, delayNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        granted.forEach(waiter -> waiter.sink.success(waiter.permit));
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(burst, tokens + (now - lastRefillNanos) * permitsPerSecond / TimeUnit.SECONDS.toNanos(1));
+        lastRefillNanos = now;
+    }
+
+    /**
+     * Returns the response with a body that records the latency and releases the permit once it has been read,
+     * released or cancelled.
+     */
+    private ClientResponse releaseOnBodyEnd(ClientResponse response, Permit permit, long start) {
+        final var ended = new AtomicBoolean();
+        final Runnable onEnd = () -> {
+            if (ended.compareAndSet(false, true)) {
+                onResponse(response, System.nanoTime() - start);
+                permit.release();
+            }
+        };
+        return response.mutate()
+                .body(body -> body.doOnTerminate(onEnd).doOnCancel(onEnd))
+                .build();
+    }
+
+    private void onResponse(ClientResponse response, long latencyNanos) {
+        final boolean throttled = response.statusCode() == TOO_MANY_REQUESTS;
+        synchronized (this) {
+            final long now = System.nanoTime();
+            if (throttled || latencyNanos > latencyThresholdNanos) {
+                // Responses that were already in flight when the upstream degraded must not shrink the
+                // limits once per response, so decrease at most once per observed round trip.
+                if (now - lastDecreaseNanos > latencyNanos) {
+                    lastDecreaseNanos = now;
+                    concurrencyLimit = Math.max(minConcurrency, concurrencyLimit * DECREASE_RATIO);
+                    permitsPerSecond = Math.max(minPermitsPerSecond, permitsPerSecond * DECREASE_RATIO);
+                    log.warn("Upstream {}, reducing limits to {} concurrent requests and {} permits/sec",
+                            throttled ? "throttled request" : "slowed down", (int) concurrencyLimit,
+                            String.format("%.2f", permitsPerSecond));
+                }
+                if (throttled) {
+                    retryAfterNanos(response.headers().asHttpHeaders())
+                            .ifPresent(delay -> pausedUntilNanos = Math.max(pausedUntilNanos, now + delay));
+                }
+            } else {
+                concurrencyLimit = Math.min(maxConcurrency, concurrencyLimit + 1 / concurrencyLimit);
+                permitsPerSecond = Math.min(maxPermitsPerSecond, permitsPerSecond + 1 / permitsPerSecond);
+            }
+        }
+    }
+
+    private static Optional<Long> retryAfterNanos(HttpHeaders headers) {
+        final String retryAfter = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(TimeUnit.SECONDS.toNanos(Long.parseLong(retryAfter.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                final var until = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Optional.of(Math.max(0, Duration.between(ZonedDateTime.now(), until).toNanos()));
+            } catch (DateTimeParseException ex) {
+                log.warn("Ignoring malformed Retry-After header: {}", retryAfter);
+                return Optional.empty();
+            }
+        }
+    }
+
+    private final class Permit {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile boolean acquired;
+
+        private void release() {
+            if (acquired && released.compareAndSet(false, true)) {
+                synchronized (AdaptiveRateLimiter.this) {
+                    inFlight--;
+                }
+                drain();
+            }
+        }
+    }
+
+    private final class Waiter {
+
+        private final MonoSink<Permit> sink;
+        private final Permit permit = new Permit();
+
+        private Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+    }
+
+    /**
+     * Signals that a request was rejected because the rate limiter queue is full.
+     */
+    public static class RateLimitExceededException extends RuntimeException {
+
+        public RateLimitExceededException(String message) {
+            super(message);
+        }
+    }
+}
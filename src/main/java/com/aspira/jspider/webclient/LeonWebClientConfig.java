@@ -1,77 +1,283 @@
 package com.aspira.jspider.webclient;
 
+import com.aspira.jspider.metrics.CrawlMetrics;
+import io.netty.channel.ChannelOption;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 import reactor.util.retry.Retry;
 import reactor.util.retry.RetryBackoffSpec;
 
 import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
 
 import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
 
+/**
+ * Configuration of the {@link WebClient} used for all requests to the Leon site and API.
+ * <p>
+ * Requests go through a Reactor Netty connector backed by a named, bounded {@link ConnectionProvider}.
+ * Connections are evicted when idle or too old, callers waiting for a connection fail after
+ * {@code web-client.connection.pending-acquire-timeout} instead of queueing indefinitely, and every request
+ * has its own connect and response timeout. Responses are requested gzip-compressed, and HTTP/2 with an
+ * HTTP/1.1 fallback can be enabled with {@code web-client.connection.http2}. With
+ * {@code web-client.connection.metrics} the pool and client publish Reactor Netty's Micrometer metrics.
+ * </p>
+ * <p>
+ * On top of the connector the client applies, from the outside in: retries of transient failures, a
+ * {@link PathCircuitBreaker}, the {@link AdaptiveRateLimiter} and received-bytes metrics. Slow requests are
+ * additionally hedged by the {@link RequestHedger}, which the Leon client applies to decoded responses.
+ * </p>
+ */
 @Slf4j
 @Configuration
 @RequiredArgsConstructor
 public class LeonWebClientConfig {
 
+    private static final String QUERY_START = "?";
+    private static final Set<HttpMethod> IDEMPOTENT_METHODS =
+            Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS, HttpMethod.PUT, HttpMethod.DELETE);
+
+    private final CrawlMetrics crawlMetrics;
+
     @Value("${web-client.base-url}")
     private String baseUrl;
 
+    @Value("${web-client.max-response-size:16MB}")
+    private DataSize maxResponseSize;
+
+    @Value("${web-client.rate-limit.permits-per-second:20}")
+    private double permitsPerSecond;
+
+    @Value("${web-client.rate-limit.burst:20}")
+    private int burst;
+
+    @Value("${web-client.rate-limit.initial-concurrency:8}")
+    private int initialConcurrency;
+
+    @Value("${web-client.rate-limit.min-concurrency:1}")
+    private int minConcurrency;
+
+    @Value("${web-client.rate-limit.max-concurrency:64}")
+    private int maxConcurrency;
+
+    @Value("${web-client.rate-limit.max-queue-depth:10000}")
+    private int maxQueueDepth;
+
+    @Value("${web-client.rate-limit.latency-threshold:2s}")
+    private Duration latencyThreshold;
+
+    @Value("${web-client.connection.pool-name:leon}")
+    private String poolName;
+
+    @Value("${web-client.connection.max-connections:64}")
+    private int maxConnections;
+
+    @Value("${web-client.connection.pending-acquire-max-count:1000}")
+    private int pendingAcquireMaxCount;
+
+    @Value("${web-client.connection.pending-acquire-timeout:10s}")
+    private Duration pendingAcquireTimeout;
+
+    @Value("${web-client.connection.max-idle-time:30s}")
+    private Duration maxIdleTime;
+
+    @Value("${web-client.connection.max-life-time:5m}")
+    private Duration maxLifeTime;
+
+    @Value("${web-client.connection.evict-interval:30s}")
+    private Duration evictInterval;
+
+    @Value("${web-client.connection.connect-timeout:5s}")
+    private Duration connectTimeout;
+
+    @Value("${web-client.connection.response-timeout:10s}")
+    private Duration responseTimeout;
+
+    @Value("${web-client.connection.compression:true}")
+    private boolean compression;
+
+    @Value("${web-client.connection.http2:false}")
+    private boolean http2;
+
+    @Value("${web-client.connection.metrics:true}")
+    private boolean metrics;
+
+    @Value("${web-client.retry.max-attempts:3}")
+    private long maxRetryAttempts;
+
+    @Value("${web-client.retry.backoff:1s}")
+    private Duration retryBackoff;
+
+    @Value("${web-client.circuit-breaker.window-size:50}")
+    private int circuitWindowSize;
+
+    @Value("${web-client.circuit-breaker.minimum-calls:20}")
+    private int circuitMinimumCalls;
+
+    @Value("${web-client.circuit-breaker.failure-rate-threshold:0.5}")
+    private double circuitFailureRateThreshold;
+
+    @Value("${web-client.circuit-breaker.open-duration:30s}")
+    private Duration circuitOpenDuration;
+
+    @Value("${web-client.circuit-breaker.half-open-calls:3}")
+    private int circuitHalfOpenCalls;
+
+    @Value("${web-client.hedging.enabled:true}")
+    private boolean hedgingEnabled;
+
+    @Value("${web-client.hedging.percentile:0.95}")
+    private double hedgingPercentile;
+
+    @Value("${web-client.hedging.min-delay:50ms}")
+    private Duration hedgingMinDelay;
+
+    @Value("${web-client.hedging.window-size:1000}")
+    private int hedgingWindowSize;
+
+    @Value("${web-client.hedging.min-samples:50}")
+    private int hedgingMinSamples;
+
+    @Value("${web-client.hedging.max-ratio:0.1}")
+    private double hedgingMaxRatio;
+
+    @Bean
+    public AdaptiveRateLimiter leonRateLimiter() {
+        final var rateLimiter = new AdaptiveRateLimiter(permitsPerSecond, burst, initialConcurrency,
+                minConcurrency, maxConcurrency, maxQueueDepth, latencyThreshold);
+        crawlMetrics.bindRateLimiter(rateLimiter);
+        return rateLimiter;
+    }
+
+    @Bean
+    public PathCircuitBreaker leonCircuitBreaker() {
+        final var circuitBreaker = new PathCircuitBreaker(circuitWindowSize, circuitMinimumCalls,
+                circuitFailureRateThreshold, circuitOpenDuration, circuitHalfOpenCalls);
+        crawlMetrics.bindCircuitBreaker(circuitBreaker);
+        return circuitBreaker;
+    }
+
+    @Bean
+    public RequestHedger leonRequestHedger() {
+        final var hedger = new RequestHedger(hedgingEnabled, hedgingPercentile, hedgingMinDelay, hedgingWindowSize,
+                hedgingMinSamples, hedgingMaxRatio);
+        crawlMetrics.bindRequestHedger(hedger);
+        return hedger;
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider leonConnectionProvider() {
+        return ConnectionProvider.builder(poolName)
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(evictInterval)
+                .metrics(metrics)
+                .build();
+    }
+
+    @Bean
+    public ReactorClientHttpConnector leonHttpConnector() {
+        var httpClient = HttpClient.create(leonConnectionProvider())
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout)
+                .compress(compression)
+                .metrics(metrics, LeonWebClientConfig::withoutQuery);
+        if (http2) {
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11).secure();
+        }
+        return new ReactorClientHttpConnector(httpClient);
+    }
+
     @Bean
     public WebClient leonWebClient() {
         final var exchangeStrategies = ExchangeStrategies.builder()
-                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(-1))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) maxResponseSize.toBytes()))
                 .build();
 
         return WebClient.builder()
+                .clientConnector(leonHttpConnector())
                 .exchangeStrategies(exchangeStrategies)
                 .baseUrl(baseUrl)
                 .filter(withRetryableRequests())
+                .filter(leonCircuitBreaker())
+                .filter(leonRateLimiter())
+                .filter(withReceivedBytesMetrics())
                 .build();
     }
 
+    /**
+     * Retries idempotent requests that failed transiently: connection errors, timeouts, {@code 5xx} and
+     * {@code 429} responses. Other client errors such as {@code 404} are returned right away.
+     */
     protected ExchangeFilterFunction withRetryableRequests() {
-        return (request, next) -> next.exchange(request)
-                .flatMap(response -> {
-                    if (response.statusCode() == TOO_MANY_REQUESTS) {
-                        return Mono.error(new WebClientResponseException("Too Many Requests",
-                                response.statusCode().value(), response.statusCode().toString(),
-                                response.headers().asHttpHeaders(), null, null));
-                    }
-                    return Mono.just(response);
-                })
-                .retryWhen(retryBackoffSpec());
+        return (request, next) -> {
+            if (!IDEMPOTENT_METHODS.contains(request.method())) {
+                return next.exchange(request);
+            }
+            return next.exchange(request)
+                    .flatMap(response -> {
+                        if (response.statusCode() == TOO_MANY_REQUESTS) {
+                            crawlMetrics.recordThrottled();
+                        }
+                        if (response.statusCode() == TOO_MANY_REQUESTS || response.statusCode().is5xxServerError()) {
+                            return response.createError();
+                        }
+                        return Mono.just(response);
+                    })
+                    .retryWhen(retryBackoffSpec());
+        };
     }
 
-    private RetryBackoffSpec retryBackoffSpec() {
-        return Retry.backoff(getMaxAttempts(), Duration.ofSeconds(1))
-                .filter(this::isRetryableError)
-                .doBeforeRetry(retrySignal ->
-                        log.warn("Retrying request after exception: {}", retrySignal.failure().getLocalizedMessage()))
-                .onRetryExhaustedThrow((retryBackoffSpec, retrySignal) -> new RuntimeException("Retry attempts exhausted"));
+    protected ExchangeFilterFunction withReceivedBytesMetrics() {
+        return (request, next) -> next.exchange(request)
+                .map(response -> response.mutate()
+                        .body(body -> body.doOnNext(buffer -> crawlMetrics.recordBytesReceived(buffer.readableByteCount())))
+                        .build());
     }
 
-    private long getMaxAttempts() {
-        return 3;
+    /**
+     * Strips the query from a request URI so that event and league IDs do not become metric tags.
+     */
+    private static String withoutQuery(String uri) {
+        final int queryStart = uri.indexOf(QUERY_START);
+        return queryStart < 0 ? uri : uri.substring(0, queryStart);
     }
 
-    private boolean isRetryableError(Throwable throwable) {
-        return throwable instanceof WebClientResponseException &&
-                (is4xxClientError(throwable) || ((WebClientResponseException) throwable).getStatusCode() == TOO_MANY_REQUESTS);
+    private RetryBackoffSpec retryBackoffSpec() {
+        return Retry.backoff(maxRetryAttempts, retryBackoff)
+                .filter(LeonWebClientConfig::isRetryableError)
+                .doBeforeRetry(retrySignal -> {
+                    crawlMetrics.recordRetry();
+                    log.warn("Retrying request after exception: {}", retrySignal.failure().getLocalizedMessage());
+                })
+                .onRetryExhaustedThrow((retryBackoffSpec, retrySignal) ->
+                        new RetryExhaustedException(retrySignal.totalRetries(), retrySignal.failure()));
     }
 
-    private boolean is4xxClientError(Throwable throwable) {
-        return throwable instanceof WebClientResponseException &&
-                ((WebClientResponseException) throwable).getStatusCode().is4xxClientError() &&
-                ((WebClientResponseException) throwable).getStatusCode() != TOO_MANY_REQUESTS;
+    private static boolean isRetryableError(Throwable throwable) {
+        if (throwable instanceof WebClientResponseException e) {
+            return e.getStatusCode().is5xxServerError() || e.getStatusCode() == TOO_MANY_REQUESTS;
+        }
+        return throwable instanceof WebClientRequestException || throwable instanceof TimeoutException;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,183 @@
+package com.aspira.jspider.webclient;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link ExchangeFilterFunction} that keeps one circuit breaker per request path.
+ * <p>
+ * A closed circuit records the outcome of the last {@code windowSize} requests. Once at least
+ * {@code minimumCalls} outcomes are known and the share of failures - connection errors, timeouts and
+ * {@code 5xx} responses - reaches {@code failureRateThreshold}, the circuit opens and every request to the
+ * path fails immediately with a {@link CircuitOpenException}. After {@code openDuration} the circuit lets
+ * {@code halfOpenCalls} trial requests through: if all of them succeed it closes again, and the first
+ * failure opens it for another {@code openDuration}.
+ * </p>
+ * <p>
+ * Client errors such as {@code 404} and {@code 429} are the caller's or the rate limiter's concern and
+ * count as successes. Cancelled requests, e.g. the losing side of a hedged request, are not counted.
+ * </p>
+ */
+@Slf4j
+public class PathCircuitBreaker implements ExchangeFilterFunction {
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenCalls;
+    private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    public PathCircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+                              Duration openDuration, int halfOpenCalls) {
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        final String path = request.url().getPath();
+        final var circuit = circuits.computeIfAbsent(path, Circuit::new);
+        return Mono.defer(() -> {
+            if (!circuit.tryAcquire()) {
+                return Mono.error(new CircuitOpenException(path));
+            }
+            final var completed = new AtomicBoolean();
+            return next.exchange(request)
+                    .doOnNext(response -> {
+                        if (completed.compareAndSet(false, true)) {
+                            circuit.onResult(response.statusCode().is5xxServerError());
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (completed.compareAndSet(false, true)) {
+                            circuit.onResult(true);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (completed.compareAndSet(false, true)) {
+                            circuit.onCancel();
+                        }
+                    });
+        });
+    }
+
+    /**
+     * @return the number of paths whose circuit is currently open or half-open
+     */
+    public int getOpenCircuits() {
+        return (int) circuits.values().stream().filter(Circuit::isOpen).count();
+    }
+
+    private enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final class Circuit {
+
+        private final String path;
+        private final boolean[] outcomes = new boolean[windowSize];
+        private State state = State.CLOSED;
+        private int next;
+        private int calls;
+        private int failures;
+        private long openedAtNanos;
+        private int trialPermits;
+        private int trialSuccesses;
+
+        private Circuit(String path) {
+            this.path = path;
+        }
+
+        private synchronized boolean tryAcquire() {
+            if (state == State.OPEN && System.nanoTime() - openedAtNanos >= openDurationNanos) {
+                log.info("Circuit for {} is half-open", path);
+                state = State.HALF_OPEN;
+                trialPermits = halfOpenCalls;
+                trialSuccesses = 0;
+            }
+            if (state == State.HALF_OPEN && trialPermits > 0) {
+                trialPermits--;
+                return true;
+            }
+            return state == State.CLOSED;
+        }
+
+        private synchronized void onResult(boolean failure) {
+            switch (state) {
+                case CLOSED -> {
+                    if (calls == windowSize && outcomes[next]) {
+                        failures--;
+                    }
+                    outcomes[next] = failure;
+                    next = (next + 1) % windowSize;
+                    calls = Math.min(calls + 1, windowSize);
+                    if (failure) {
+                        failures++;
+                    }
+                    if (calls >= minimumCalls && (double) failures / calls >= failureRateThreshold) {
+                        open();
+                    }
+                }
+                case HALF_OPEN -> {
+                    if (failure) {
+                        open();
+                    } else if (++trialSuccesses >= halfOpenCalls) {
+                        log.info("Circuit for {} is closed", path);
+                        state = State.CLOSED;
+                        reset();
+                    }
+                }
+                case OPEN -> {
+                }
+            }
+        }
+
+        private synchronized void onCancel() {
+            if (state == State.HALF_OPEN) {
+                trialPermits++;
+            }
+        }
+
+        private synchronized boolean isOpen() {
+            return state != State.CLOSED;
+        }
+
+        private void open() {
+            log.warn("Circuit for {} is open for {} ms", path, openDurationNanos / 1_000_000);
+            state = State.OPEN;
+            openedAtNanos = System.nanoTime();
+            reset();
+        }
+
+        private void reset() {
+            next = 0;
+            calls = 0;
+            failures = 0;
+            Arrays.fill(outcomes, false);
+        }
+    }
+
+    /**
+     * Signals that a request was rejected because the circuit of its path is open.
+     */
+    public static class CircuitOpenException extends RuntimeException {
+
+        public CircuitOpenException(String path) {
+            super("Circuit for " + path + " is open");
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.aspira.jspider.webclient;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Signal;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends a duplicate of a slow idempotent request and uses whichever response arrives first.
+ * <p>
+ * Latencies of successful requests are tracked per endpoint in a sliding window of {@code windowSize}
+ * samples. Once {@code minSamples} are known, a request that has not completed after the configured
+ * {@code percentile} of that window (but at least {@code minDelay}) is sent a second time. The first value
+ * wins and the other request is cancelled. At most {@code maxRatio} of all requests may be hedged, so a
+ * uniformly slow upstream does not see its load doubled.
+ * </p>
+ * <p>
+ * Hedging is applied to decoded results, so the losing request never leaves an unread response body
+ * behind. An error or an empty completion of the original request is returned as-is and cancels a pending
+ * duplicate; an error of the duplicate is ignored.
+ * </p>
+ */
+@Slf4j
+public class RequestHedger {
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final int windowSize;
+    private final int minSamples;
+    private final double maxRatio;
+    private final Map<String, LatencyWindow> windows = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+
+    public RequestHedger(boolean enabled, double percentile, Duration minDelay, int windowSize, int minSamples,
+                         double maxRatio) {
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.windowSize = windowSize;
+        this.minSamples = Math.min(minSamples, windowSize);
+        this.maxRatio = maxRatio;
+    }
+
+    /**
+     * Runs a request, hedging it when it is slower than usual for its endpoint.
+     *
+     * @param endpoint the key latencies are tracked under, e.g. the request path
+     * @param request  a cold publisher; every subscription sends the request again
+     * @return a {@link Mono} emitting the first result
+     */
+    public <T> Mono<T> hedge(String endpoint, Mono<T> request) {
+        if (!enabled) {
+            return request;
+        }
+        final var window = windows.computeIfAbsent(endpoint, key -> new LatencyWindow());
+        return Mono.defer(() -> {
+            requests.incrementAndGet();
+            final long start = System.nanoTime();
+            final Mono<T> timed = request.doOnNext(value -> window.record(System.nanoTime() - start));
+            final long delay = window.delayNanos();
+            if (delay < 0) {
+                return timed;
+            }
+            final Mono<T> duplicate = Mono.delay(Duration.ofNanos(delay))
+                    .filter(tick -> tryHedge())
+                    .flatMap(tick -> {
+                        log.debug("Hedging request to {} after {} ms", endpoint, delay / 1_000_000);
+                        return request;
+                    })
+                    .onErrorResume(e -> Mono.empty());
+            // every termination of the original wins the race, so an empty completion does not await the duplicate
+            return Flux.merge(timed.materialize(), duplicate.materialize().filter(Signal::isOnNext))
+                    .next()
+                    .<T>dematerialize();
+        });
+    }
+
+    public long getHedgedRequests() {
+        return hedges.get();
+    }
+
+    private boolean tryHedge() {
+        while (true) {
+            final long sent = hedges.get();
+            if (sent + 1 > maxRatio * requests.get()) {
+                return false;
+            }
+            if (hedges.compareAndSet(sent, sent + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private final class LatencyWindow {
+
+        private final long[] samples = new long[windowSize];
+        private int next;
+        private int count;
+        private int sinceUpdate;
+        private volatile long delayNanos = -1;
+
+        private synchronized void record(long latencyNanos) {
+            samples[next] = latencyNanos;
+            next = (next + 1) % windowSize;
+            count = Math.min(count + 1, windowSize);
+            if (count >= minSamples && (++sinceUpdate >= Math.max(1, windowSize / 10) || delayNanos < 0)) {
+                sinceUpdate = 0;
+                final long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                final int index = Math.min(count - 1, (int) Math.ceil(percentile * count) - 1);
+                delayNanos = Math.max(minDelayNanos, sorted[Math.max(0, index)]);
+            }
+        }
+
+        /**
+         * @return the hedging delay, or {@code -1} while too few samples are known
+         */
+        private long delayNanos() {
+            return delayNanos;
+        }
+    }
+}
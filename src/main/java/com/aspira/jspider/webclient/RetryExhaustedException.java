@@ -0,0 +1,18 @@
+package com.aspira.jspider.webclient;
+
+import lombok.Getter;
+
+/**
+ * Signals that a request still failed after all retries allowed by {@code web-client.retry.max-attempts}.
+ * The cause is the failure of the last attempt.
+ */
+@Getter
+public class RetryExhaustedException extends RuntimeException {
+
+    private final long retries;
+
+    public RetryExhaustedException(long retries, Throwable cause) {
+        super("Retry attempts exhausted", cause);
+        this.retries = retries;
+    }
+}
@@ -0,0 +1,246 @@
+package com.aspira.jspider.webclient.codec;
+
+import com.aspira.jspider.config.LocalDateTimeDeserializer;
+import com.aspira.jspider.model.League;
+import com.aspira.jspider.model.Market;
+import com.aspira.jspider.model.Match;
+import com.aspira.jspider.model.Runner;
+import com.aspira.jspider.model.Sport;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import org.springframework.core.codec.DecodingException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+
+/**
+ * Push-style reader that builds a {@link Match} from chunks of an event payload as they arrive.
+ * <p>
+ * The reader drives Jackson's non-blocking token parser and only binds the fields used by the report:
+ * match id, name, kickoff, league and sport names, and the id, name and price of every market runner.
+ * Every other subtree is skipped token by token without being materialized.
+ * </p>
+ * <p>
+ * Instances are not thread-safe and read exactly one payload.
+ * </p>
+ */
+class MatchTokenReader {
+
+    private final JsonParser parser;
+    private final ByteBufferFeeder feeder;
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    private final long maxSize;
+    private long size;
+    private int skipDepth;
+    private Match match;
+
+    MatchTokenReader(JsonFactory jsonFactory, long maxSize) {
+        try {
+            this.parser = jsonFactory.createNonBlockingByteBufferParser();
+        } catch (IOException e) {
+            throw new DecodingException("Cannot create JSON parser", e);
+        }
+        this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Feeds the next chunk of the payload and consumes every complete token in it.
+     *
+     * @param chunk the next chunk of the payload
+     * @throws DecodingException if the payload is malformed or larger than the configured maximum size
+     */
+    void feed(ByteBuffer chunk) {
+        size += chunk.remaining();
+        if (maxSize >= 0 && size > maxSize) {
+            throw new DecodingException("Event payload exceeds the limit of " + maxSize + " bytes");
+        }
+        try {
+            feeder.feedInput(chunk);
+            consumeTokens();
+        } catch (IOException e) {
+            throw new DecodingException("Malformed event payload", e);
+        }
+    }
+
+    /**
+     * Signals the end of the payload.
+     *
+     * @return the decoded {@link Match}
+     * @throws DecodingException if the payload ended before a complete match object was read
+     */
+    Match finish() {
+        try {
+            feeder.endOfInput();
+            consumeTokens();
+            parser.close();
+        } catch (IOException e) {
+            throw new DecodingException("Malformed event payload", e);
+        }
+        if (match == null || !frames.isEmpty()) {
+            throw new DecodingException("Incomplete event payload");
+        }
+        return match;
+    }
+
+    private void consumeTokens() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            if (skipDepth > 0) {
+                if (token.isStructStart()) {
+                    skipDepth++;
+                } else if (token.isStructEnd()) {
+                    skipDepth--;
+                }
+                continue;
+            }
+            switch (token) {
+                case FIELD_NAME -> frames.peek().field = parser.currentName();
+                case START_OBJECT -> startObject();
+                case START_ARRAY -> startArray();
+                case END_OBJECT, END_ARRAY -> endStructure();
+                case VALUE_NULL -> {
+                }
+                default -> {
+                    if (!frames.isEmpty()) {
+                        readScalar(frames.peek());
+                    }
+                }
+            }
+        }
+    }
+
+    private void startObject() {
+        final var parent = frames.peek();
+        if (parent == null) {
+            final var root = new Match();
+            root.setMarkets(new ArrayList<>());
+            frames.push(new Frame(Kind.MATCH, root));
+            return;
+        }
+        final Frame child = switch (parent.kind) {
+            case MATCH -> "league".equals(parent.field) ? new Frame(Kind.LEAGUE, new League()) : null;
+            case LEAGUE -> "sport".equals(parent.field) ? new Frame(Kind.SPORT, new Sport()) : null;
+            case MARKETS -> new Frame(Kind.MARKET, newMarket());
+            case RUNNERS -> new Frame(Kind.RUNNER, new Runner());
+            default -> null;
+        };
+        push(child);
+    }
+
+    private void startArray() {
+        final var parent = frames.peek();
+        final Frame child = parent == null ? null : switch (parent.kind) {
+            case MATCH -> "markets".equals(parent.field) ? new Frame(Kind.MARKETS, new ArrayList<Market>()) : null;
+            case MARKET -> "runners".equals(parent.field) ? new Frame(Kind.RUNNERS, new ArrayList<Runner>()) : null;
+            default -> null;
+        };
+        push(child);
+    }
+
+    private void push(Frame frame) {
+        if (frame == null) {
+            skipDepth = 1;
+        } else {
+            frames.push(frame);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void endStructure() {
+        final var frame = frames.pop();
+        final var parent = frames.peek();
+        if (parent == null) {
+            match = (Match) frame.value;
+            return;
+        }
+        switch (frame.kind) {
+            case LEAGUE -> ((Match) parent.value).setLeague((League) frame.value);
+            case SPORT -> ((League) parent.value).setSport((Sport) frame.value);
+            case MARKETS -> ((Match) parent.value).setMarkets((ArrayList<Market>) frame.value);
+            case RUNNERS -> ((Market) parent.value).setRunners((ArrayList<Runner>) frame.value);
+            case MARKET -> ((ArrayList<Market>) parent.value).add((Market) frame.value);
+            case RUNNER -> ((ArrayList<Runner>) parent.value).add((Runner) frame.value);
+            default -> {
+            }
+        }
+    }
+
+    private void readScalar(Frame frame) throws IOException {
+        final String field = frame.field;
+        switch (frame.kind) {
+            case MATCH -> {
+                final var target = (Match) frame.value;
+                switch (field) {
+                    case "id" -> target.setId(parser.getText());
+                    case "name" -> target.setName(parser.getText());
+                    case "kickoff" -> target.setKickoff(LocalDateTimeDeserializer.fromEpochMilli(parser.getLongValue()));
+                    default -> {
+                    }
+                }
+            }
+            case LEAGUE -> {
+                final var target = (League) frame.value;
+                switch (field) {
+                    case "id" -> target.setId(parser.getText());
+                    case "name" -> target.setName(parser.getText());
+                    default -> {
+                    }
+                }
+            }
+            case SPORT -> {
+                if ("name".equals(field)) {
+                    ((Sport) frame.value).setName(parser.getText());
+                }
+            }
+            case MARKET -> {
+                final var target = (Market) frame.value;
+                switch (field) {
+                    case "id" -> target.setId(parser.getText());
+                    case "name" -> target.setName(parser.getText());
+                    default -> {
+                    }
+                }
+            }
+            case RUNNER -> {
+                final var target = (Runner) frame.value;
+                switch (field) {
+                    case "id" -> target.setId(parser.getText());
+                    case "name" -> target.setName(parser.getText());
+                    case "value", "priceStr" -> target.setValue(parser.getText());
+                    default -> {
+                    }
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private static Market newMarket() {
+        final var market = new Market();
+        market.setRunners(new ArrayList<>());
+        return market;
+    }
+
+    private enum Kind {
+        MATCH, LEAGUE, SPORT, MARKETS, MARKET, RUNNERS, RUNNER
+    }
+
+    private static final class Frame {
+
+        private final Kind kind;
+        private final Object value;
+        private String field;
+
+        private Frame(Kind kind, Object value) {
+            this.kind = kind;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.aspira.jspider.webclient.codec;
+
+import com.aspira.jspider.model.Match;
+import com.fasterxml.jackson.core.JsonFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decodes Leon event payloads into {@link Match} objects while the response body is still streaming in.
+ * <p>
+ * Unlike {@code bodyToMono(Match.class)}, which aggregates the whole response before binding it, this
+ * decoder hands every received {@link DataBuffer} to a {@link MatchTokenReader} and releases it right
+ * away, so only the projected model and the current chunk are kept in memory. Payloads larger than
+ * {@code web-client.max-response-size} are rejected as soon as the limit is crossed.
+ * </p>
+ *
+ * @see MatchTokenReader
+ */
+@Component
+public class StreamingMatchDecoder {
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @Value("${web-client.max-response-size:16MB}")
+    private DataSize maxResponseSize;
+
+    /**
+     * Decodes a response body into a {@link Match}.
+     *
+     * @param body the response body chunks
+     * @return a {@link Mono} emitting the decoded {@link Match}
+     */
+    public Mono<Match> decode(Flux<DataBuffer> body) {
+        return Mono.defer(() -> {
+            final var reader = new MatchTokenReader(jsonFactory, maxResponseSize.toBytes());
+            return body.doOnNext(buffer -> feed(reader, buffer))
+                    .then(Mono.fromCallable(reader::finish));
+        });
+    }
+
+    private void feed(MatchTokenReader reader, DataBuffer buffer) {
+        try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+            while (iterator.hasNext()) {
+                final ByteBuffer chunk = iterator.next();
+                reader.feed(chunk);
+            }
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.aspira.jspider.webclient.rest;
+
+/**
+ * Response body together with the validators needed to revalidate it with a conditional request.
+ *
+ * @param body         the response body
+ * @param etag         the {@code ETag} header of the response, or {@code null} if absent
+ * @param lastModified the {@code Last-Modified} header of the response, or {@code null} if absent
+ * @param notModified  {@code true} if the upstream answered {@code 304 Not Modified} and {@code body}
+ *                     is the previously cached one
+ * @param <T>          the type of the response body
+ */
+public record ConditionalResponse<T>(T body, String etag, String lastModified, boolean notModified) {
+
+    public boolean hasValidators() {
+        return etag != null || lastModified != null;
+    }
+}
@@ -2,10 +2,15 @@ package com.aspira.jspider.webclient.rest;
 
 import com.aspira.jspider.model.Betline;
 import com.aspira.jspider.model.Match;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 public interface LeonClient {
 
-    Betline getMatchesByLeagueId(String id);
+    Mono<Betline> getMatchesByLeagueId(String id);
 
-    Match getMatchDataById(String id);
-}
\ No newline at end of file
+    Mono<Match> getMatchDataById(String id);
+
+    Flux<DataBuffer> getSportPage(String slug);
+}
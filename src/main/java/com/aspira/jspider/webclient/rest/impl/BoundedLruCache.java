@@ -0,0 +1,36 @@
+package com.aspira.jspider.webclient.rest.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Thread-safe map that evicts the least recently used entry once it holds more than {@code maxSize}
+ * entries.
+ *
+ * @param <V> the type of the cached values
+ */
+class BoundedLruCache<V> {
+
+    private final Map<String, V> entries;
+
+    BoundedLruCache(int maxSize) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    synchronized V get(String key) {
+        return entries.get(key);
+    }
+
+    synchronized void put(String key, V value) {
+        entries.put(key, value);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,192 @@
+package com.aspira.jspider.webclient.rest.impl;
+
+import com.aspira.jspider.model.Betline;
+import com.aspira.jspider.model.Event;
+import com.aspira.jspider.model.League;
+import com.aspira.jspider.model.Market;
+import com.aspira.jspider.model.Match;
+import com.aspira.jspider.model.Runner;
+import com.aspira.jspider.model.Sport;
+import com.aspira.jspider.webclient.rest.ConditionalResponse;
+import com.aspira.jspider.webclient.rest.LeonClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+
+/**
+ * Caching {@link LeonClient} placed in front of {@link LeonClientImpl}.
+ * <p>
+ * League lists are cached by league ID and match details by event ID. Entries younger than
+ * {@code web-client.cache.ttl} are served without touching the network; older entries are revalidated
+ * with a conditional request when the upstream sent an {@code ETag} or {@code Last-Modified} header, and
+ * refetched otherwise. Each cache holds at most {@code web-client.cache.max-size} entries and evicts the
+ * least recently used one first. Sport pages are never cached.
+ * </p>
+ * <p>
+ * With {@code web-client.cache.changed-only=true} the client remembers the {@code lastUpdated} stamp of
+ * every event seen in a league list. A match is then only re-downloaded when its league-list entry has
+ * changed since the match was cached, regardless of the TTL.
+ * </p>
+ * <p>
+ * Every call returns its own copy of a cached match, because the crawl tags the matches it receives with
+ * their bookmaker and keeps them in the odds index; a shared instance would let one crawl change the matches
+ * of another and of the cache. League lists are only read by the crawl and are handed out as cached.
+ * </p>
+ *
+ * @see LeonClientImpl
+ * @see ConditionalResponse
+ */
+@Slf4j
+@Primary
+@Service
+public class CachingLeonClientImpl implements LeonClient {
+
+    private final LeonClientImpl leonClientImpl;
+    private final boolean enabled;
+    private final boolean changedOnly;
+    private final Duration ttl;
+    private final BoundedLruCache<CacheEntry<Betline>> leagues;
+    private final BoundedLruCache<CacheEntry<Match>> matches;
+    private final BoundedLruCache<Long> eventVersions;
+
+    public CachingLeonClientImpl(LeonClientImpl leonClientImpl,
+                                 @Value("${web-client.cache.enabled:true}") boolean enabled,
+                                 @Value("${web-client.cache.changed-only:false}") boolean changedOnly,
+                                 @Value("${web-client.cache.ttl:1m}") Duration ttl,
+                                 @Value("${web-client.cache.max-size:10000}") int maxSize) {
+        this.leonClientImpl = leonClientImpl;
+        this.enabled = enabled;
+        this.changedOnly = changedOnly;
+        this.ttl = ttl;
+        this.leagues = new BoundedLruCache<>(maxSize);
+        this.matches = new BoundedLruCache<>(maxSize);
+        this.eventVersions = new BoundedLruCache<>(maxSize);
+    }
+
+    @Override
+    public Mono<Betline> getMatchesByLeagueId(String id) {
+        if (!enabled) {
+            return leonClientImpl.getMatchesByLeagueId(id);
+        }
+        final var cached = leagues.get(id);
+        if (cached != null && cached.isFresh(ttl)) {
+            log.debug("Serving league {} from cache", id);
+            return Mono.just(cached.response().body());
+        }
+        return leonClientImpl.getMatchesByLeagueId(id, cached == null ? null : cached.response())
+                .doOnNext(response -> leagues.put(id, new CacheEntry<>(response, System.nanoTime(), null)))
+                .map(ConditionalResponse::body)
+                .doOnNext(this::rememberEventVersions);
+    }
+
+    @Override
+    public Mono<Match> getMatchDataById(String id) {
+        if (!enabled) {
+            return leonClientImpl.getMatchDataById(id);
+        }
+        final var version = eventVersions.get(id);
+        final var cached = matches.get(id);
+        if (cached != null && (cached.isFresh(ttl) || isUnchanged(cached, version))) {
+            log.debug("Serving match {} from cache", id);
+            return Mono.just(copy(cached.response().body()));
+        }
+        return leonClientImpl.getMatchDataById(id, cached == null ? null : cached.response())
+                .doOnNext(response -> matches.put(id, new CacheEntry<>(response, System.nanoTime(), version)))
+                .map(response -> copy(response.body()));
+    }
+
+    @Override
+    public Flux<DataBuffer> getSportPage(String slug) {
+        return leonClientImpl.getSportPage(slug);
+    }
+
+    private boolean isUnchanged(CacheEntry<Match> cached, Long version) {
+        return changedOnly && version != null && Objects.equals(version, cached.version());
+    }
+
+    private void rememberEventVersions(Betline betline) {
+        if (betline.getEvents() == null) {
+            return;
+        }
+        for (Event event : betline.getEvents()) {
+            if (event.getLastUpdated() != null) {
+                eventVersions.put(event.getId(), event.getLastUpdated());
+            }
+        }
+    }
+
+    private static Match copy(Match match) {
+        final var copy = new Match();
+        copy.setBookmaker(match.getBookmaker());
+        copy.setId(match.getId());
+        copy.setName(match.getName());
+        copy.setKickoff(match.getKickoff());
+        copy.setLeague(copy(match.getLeague()));
+        copy.setMarkets(copy(match.getMarkets(), CachingLeonClientImpl::copy));
+        return copy;
+    }
+
+    private static League copy(League league) {
+        if (league == null) {
+            return null;
+        }
+        final var copy = new League();
+        copy.setId(league.getId());
+        copy.setName(league.getName());
+        if (league.getSport() != null) {
+            final var sport = new Sport();
+            sport.setName(league.getSport().getName());
+            copy.setSport(sport);
+        }
+        return copy;
+    }
+
+    private static Market copy(Market market) {
+        final var copy = new Market();
+        copy.setId(market.getId());
+        copy.setName(market.getName());
+        copy.setRunners(copy(market.getRunners(), runner -> {
+            final var runnerCopy = new Runner();
+            runnerCopy.setId(runner.getId());
+            runnerCopy.setName(runner.getName());
+            runnerCopy.setValue(runner.getValue());
+            return runnerCopy;
+        }));
+        return copy;
+    }
+
+    private static <T> List<T> copy(List<T> values, UnaryOperator<T> copy) {
+        if (values == null) {
+            return null;
+        }
+        final List<T> copies = new ArrayList<>(values.size());
+        for (T value : values) {
+            copies.add(value == null ? null : copy.apply(value));
+        }
+        return copies;
+    }
+
+    /**
+     * Cached response with the time it was fetched or last revalidated.
+     *
+     * @param response     the cached response and its validators
+     * @param fetchedNanos {@link System#nanoTime()} when the response was received
+     * @param version      the league-list {@code lastUpdated} stamp of the event when it was fetched
+     */
+    private record CacheEntry<T>(ConditionalResponse<T> response, long fetchedNanos, Long version) {
+
+        boolean isFresh(Duration ttl) {
+            return System.nanoTime() - fetchedNanos < ttl.toNanos();
+        }
+    }
+}
@@ -2,18 +2,39 @@ package com.aspira.jspider.webclient.rest.impl;
 
 import com.aspira.jspider.model.Betline;
 import com.aspira.jspider.model.Match;
+import com.aspira.jspider.webclient.RequestHedger;
+import com.aspira.jspider.webclient.codec.StreamingMatchDecoder;
+import com.aspira.jspider.webclient.rest.ConditionalResponse;
 import com.aspira.jspider.webclient.rest.LeonClient;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
 
 /**
  * Implementation of the {@link LeonClient} interface for interacting with the Leon API.
  * <p>
  * This service uses a {@link WebClient} to make HTTP requests to the Leon API to retrieve data about matches
- * and events. It supports fetching matches by league ID and detailed match data by event ID.
+ * and events. It supports fetching matches by league ID, detailed match data by event ID and the raw HTML of
+ * sport pages. All calls are non-blocking and return Reactor publishers.
+ * </p>
+ * <p>
+ * Besides the {@link LeonClient} contract, this class offers conditional variants of both requests that
+ * send {@code If-None-Match}/{@code If-Modified-Since} validators from a previous response and resolve a
+ * {@code 304 Not Modified} answer to the previously received body.
+ * </p>
+ * <p>
+ * League-list and match-detail requests are hedged by the {@link RequestHedger}: when a response takes
+ * longer than the usual tail latency of its endpoint, a duplicate request is sent and the first result wins.
  * </p>
  *
  * @see LeonClient
@@ -40,54 +61,138 @@ public class LeonClientImpl implements LeonClient {
     @Value("${web-client.all-events-path}")
     private String allEventsPath;
 
+    @Value("${web-client.sport-page-path:/bets/{slug}}")
+    private String sportPagePath;
+
     private final WebClient leonWebClient;
+    private final StreamingMatchDecoder streamingMatchDecoder;
+    private final RequestHedger leonRequestHedger;
 
     /**
      * Retrieves a {@link Betline} object containing matches for a specified league ID.
      * <p>
      * This method constructs a URL using the provided league ID and several query parameters to request
-     * data from the Leon API. It then retrieves and returns the response as a {@link Betline} object.
+     * data from the Leon API. The request is not sent until the returned {@link Mono} is subscribed to,
+     * so callers can compose many requests without blocking a thread per call.
      * </p>
      *
      * @param id the ID of the league to fetch matches for
-     * @return a {@link Betline} object containing the matches for the specified league
+     * @return a {@link Mono} emitting the {@link Betline} with the matches for the specified league
      */
     @Override
-    public Betline getMatchesByLeagueId(String id) {
-        return leonWebClient.get()
-                .uri(UriComponentsBuilder.fromUriString(allEventsPath)
-                        .queryParam(C_TAG, EN_US)
-                        .queryParam(LEAGUE_ID, id)
-                        .queryParam(HIDE_CLOSED, true)
-                        .queryParam(FLAGS, ALL_EVENTS_FLAGS)
-                        .build()
-                        .toUriString())
+    public Mono<Betline> getMatchesByLeagueId(String id) {
+        return leonRequestHedger.hedge(allEventsPath, leonWebClient.get()
+                .uri(leagueUri(id))
                 .retrieve()
-                .bodyToMono(Betline.class)
-                .block();
+                .bodyToMono(Betline.class));
     }
 
     /**
      * Retrieves a {@link Match} object containing details for a specified event ID.
      * <p>
      * This method constructs a URL using the provided event ID and several query parameters to request
-     * data from the Leon API. It then retrieves and returns the response as a {@link Match} object.
+     * data from the Leon API. The request is not sent until the returned {@link Mono} is subscribed to.
+     * The payload is decoded incrementally by the {@link StreamingMatchDecoder} while it is received.
      * </p>
      *
      * @param id the ID of the event to fetch match data for
-     * @return a {@link Match} object containing details for the specified event
+     * @return a {@link Mono} emitting the {@link Match} with details for the specified event
      */
     @Override
-    public Match getMatchDataById(String id) {
+    public Mono<Match> getMatchDataById(String id) {
+        return leonRequestHedger.hedge(eventPath, leonWebClient.get()
+                .uri(eventUri(id))
+                .retrieve()
+                .bodyToFlux(DataBuffer.class)
+                .as(streamingMatchDecoder::decode));
+    }
+
+    /**
+     * Retrieves the HTML of a sport page as it is received.
+     * <p>
+     * The body is not aggregated; callers consume and release every {@link DataBuffer}.
+     * </p>
+     *
+     * @param slug the path segment of the sport page, e.g. {@code soccer}
+     * @return a {@link Flux} of the response body chunks
+     */
+    @Override
+    public Flux<DataBuffer> getSportPage(String slug) {
         return leonWebClient.get()
-                .uri(UriComponentsBuilder.fromUriString(eventPath)
-                        .queryParam(C_TAG, EN_US)
-                        .queryParam(EVENT_ID, id)
-                        .queryParam(FLAGS, EVENT_FLAGS)
-                        .build()
-                        .toUriString())
+                .uri(sportPagePath, slug)
                 .retrieve()
-                .bodyToMono(Match.class)
-                .block();
+                .bodyToFlux(DataBuffer.class);
+    }
+
+    /**
+     * Conditionally retrieves the {@link Betline} for a specified league ID.
+     *
+     * @param id       the ID of the league to fetch matches for
+     * @param previous the previously received response whose validators are sent, or {@code null}
+     * @return a {@link Mono} emitting the fresh or, on {@code 304 Not Modified}, the previous response
+     */
+    public Mono<ConditionalResponse<Betline>> getMatchesByLeagueId(String id, ConditionalResponse<Betline> previous) {
+        return leonRequestHedger.hedge(allEventsPath,
+                exchangeConditionally(leagueUri(id), response -> response.bodyToMono(Betline.class), previous));
+    }
+
+    /**
+     * Conditionally retrieves the {@link Match} for a specified event ID.
+     *
+     * @param id       the ID of the event to fetch match data for
+     * @param previous the previously received response whose validators are sent, or {@code null}
+     * @return a {@link Mono} emitting the fresh or, on {@code 304 Not Modified}, the previous response
+     */
+    public Mono<ConditionalResponse<Match>> getMatchDataById(String id, ConditionalResponse<Match> previous) {
+        return leonRequestHedger.hedge(eventPath, exchangeConditionally(eventUri(id),
+                response -> streamingMatchDecoder.decode(response.bodyToFlux(DataBuffer.class)), previous));
+    }
+
+    private <T> Mono<ConditionalResponse<T>> exchangeConditionally(String uri,
+                                                                   Function<ClientResponse, Mono<T>> bodyReader,
+                                                                   ConditionalResponse<T> previous) {
+        return leonWebClient.get()
+                .uri(uri)
+                .headers(headers -> {
+                    if (previous != null && previous.etag() != null) {
+                        headers.setIfNoneMatch(previous.etag());
+                    }
+                    if (previous != null && previous.lastModified() != null) {
+                        headers.set(HttpHeaders.IF_MODIFIED_SINCE, previous.lastModified());
+                    }
+                })
+                .exchangeToMono(response -> {
+                    if (response.statusCode() == HttpStatus.NOT_MODIFIED && previous != null) {
+                        return response.releaseBody()
+                                .thenReturn(new ConditionalResponse<>(previous.body(), previous.etag(),
+                                        previous.lastModified(), true));
+                    }
+                    if (response.statusCode().is2xxSuccessful()) {
+                        final var headers = response.headers().asHttpHeaders();
+                        return bodyReader.apply(response)
+                                .map(body -> new ConditionalResponse<>(body, headers.getETag(),
+                                        headers.getFirst(HttpHeaders.LAST_MODIFIED), false));
+                    }
+                    return response.createError();
+                });
+    }
+
+    private String leagueUri(String id) {
+        return UriComponentsBuilder.fromUriString(allEventsPath)
+                .queryParam(C_TAG, EN_US)
+                .queryParam(LEAGUE_ID, id)
+                .queryParam(HIDE_CLOSED, true)
+                .queryParam(FLAGS, ALL_EVENTS_FLAGS)
+                .build()
+                .toUriString();
+    }
+
+    private String eventUri(String id) {
+        return UriComponentsBuilder.fromUriString(eventPath)
+                .queryParam(C_TAG, EN_US)
+                .queryParam(EVENT_ID, id)
+                .queryParam(FLAGS, EVENT_FLAGS)
+                .build()
+                .toUriString();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,80 @@
+package com.aspira.jspider;
+
+import com.aspira.jspider.model.League;
+import com.aspira.jspider.model.Market;
+import com.aspira.jspider.model.Match;
+import com.aspira.jspider.model.Runner;
+import com.aspira.jspider.model.Sport;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Factories for the {@link Match}, {@link Market} and {@link Runner} graphs used by the tests.
+ */
+public final class MatchFixtures {
+
+    public static final String BOOKMAKER = "leon";
+
+    private MatchFixtures() {
+    }
+
+    /**
+     * @return a {@code leon} match named {@code match <id>} without league or kickoff
+     */
+    public static Match match(String id, Market... markets) {
+        final var match = new Match();
+        match.setBookmaker(BOOKMAKER);
+        match.setId(id);
+        match.setName("match " + id);
+        match.setMarkets(new ArrayList<>(Arrays.asList(markets)));
+        return match;
+    }
+
+    /**
+     * @return a {@code leon} match named {@code match <id>} of a league of the given sport
+     */
+    public static Match match(String id, String sportName, String leagueId, LocalDateTime kickoff,
+                              Market... markets) {
+        final var sport = new Sport();
+        sport.setName(sportName);
+        final var league = new League();
+        league.setId(leagueId);
+        league.setName("league " + leagueId);
+        league.setSport(sport);
+        final var match = match(id, markets);
+        match.setKickoff(kickoff);
+        match.setLeague(league);
+        return match;
+    }
+
+    public static Market market(String id, String name, Runner... runners) {
+        final var market = new Market();
+        market.setId(id);
+        market.setName(name);
+        market.setRunners(new ArrayList<>(Arrays.asList(runners)));
+        return market;
+    }
+
+    /**
+     * @param runnersAndPrices alternating runner names and prices, e.g. {@code "1", "2.0", "2", "1.8"}
+     * @return a market without IDs
+     */
+    public static Market market(String name, String... runnersAndPrices) {
+        final List<Runner> runners = new ArrayList<>();
+        for (int i = 0; i < runnersAndPrices.length; i += 2) {
+            runners.add(runner(null, runnersAndPrices[i], runnersAndPrices[i + 1]));
+        }
+        return market(null, name, runners.toArray(Runner[]::new));
+    }
+
+    public static Runner runner(String id, String name, String value) {
+        final var runner = new Runner();
+        runner.setId(id);
+        runner.setName(name);
+        runner.setValue(value);
+        return runner;
+    }
+}
@@ -0,0 +1,232 @@
+package com.aspira.jspider.service.impl;
+
+import com.aspira.jspider.metrics.CrawlMetrics;
+import com.aspira.jspider.model.CrawlFailure;
+import com.aspira.jspider.model.CrawlFailure.Stage;
+import com.aspira.jspider.model.Event;
+import com.aspira.jspider.model.Market;
+import com.aspira.jspider.model.Match;
+import com.aspira.jspider.service.BookmakerSource;
+import com.aspira.jspider.service.CrawlProgress;
+import com.aspira.jspider.store.OddsHistoryStore;
+import com.aspira.jspider.store.OddsIndex;
+import com.aspira.jspider.webclient.RetryExhaustedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.aspira.jspider.MatchFixtures.market;
+import static com.aspira.jspider.MatchFixtures.match;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class CrawlEngineImplTest {
+
+    private static final LocalDateTime KICKOFF = LocalDateTime.parse("2024-07-30T18:00:00");
+    private static final Duration LONG = Duration.ofSeconds(30);
+
+    private final StubSource source = new StubSource();
+    private final OddsIndex index = new OddsIndex();
+    private final List<CrawlFailure> failures = new CopyOnWriteArrayList<>();
+    private final CrawlProgress progress = new CrawlProgress() {
+        @Override
+        public void onFailure(CrawlFailure failure) {
+            failures.add(failure);
+        }
+    };
+
+    @Test
+    void skipsFailedStagesAndReportsThemWithTheirRetries() {
+        source.leagues.put("football", Mono.just(List.of("10", "11", "12")));
+        source.leagues.put("tennis", Mono.error(new RetryExhaustedException(2, new IOException("page down"))));
+        source.events.put("10", Mono.just(List.of(event("1"), event("2"))));
+        source.events.put("11", Mono.error(new IllegalStateException("bad list")));
+        source.events.put("12", Mono.just(List.of(event("3"))));
+        source.matches.put("2", Mono.error(new RetryExhaustedException(3, new IOException("match down"))));
+
+        final List<Match> matches = crawl(engine(LONG, LONG), "football", "tennis");
+
+        assertThat(matches).extracting(Match::getId).containsExactlyInAnyOrder("1", "3");
+        assertThat(matches).extracting(Match::getBookmaker).containsOnly(StubSource.NAME);
+        assertThat(failures)
+                .extracting(CrawlFailure::stage, CrawlFailure::source, CrawlFailure::sport, CrawlFailure::id,
+                        CrawlFailure::error, CrawlFailure::message, CrawlFailure::retries)
+                .containsExactlyInAnyOrder(
+                        tuple(Stage.PAGE, StubSource.NAME, "tennis", null, "IOException", "page down", 2L),
+                        tuple(Stage.LEAGUE, StubSource.NAME, "football", "11", "IllegalStateException", "bad list", 0L),
+                        tuple(Stage.MATCH, StubSource.NAME, "football", "2", "IOException", "match down", 3L));
+        assertThat(index.findMatches(null, null, null, null)).extracting(Match::getId)
+                .containsExactlyInAnyOrder("1", "3");
+    }
+
+    @Test
+    void skipsStagesThatExceedTheirTimeout() {
+        source.leagues.put("football", Mono.just(List.of("10", "11")));
+        source.leagues.put("tennis", Mono.never());
+        source.events.put("10", Mono.just(List.of(event("1"), event("2"))));
+        source.events.put("11", Mono.never());
+        source.matches.put("2", Mono.never());
+
+        final List<Match> matches = crawl(engine(Duration.ofMillis(200), LONG), "football", "tennis");
+
+        assertThat(matches).extracting(Match::getId).containsExactly("1");
+        assertThat(failures).extracting(CrawlFailure::stage, CrawlFailure::sport, CrawlFailure::id, CrawlFailure::error)
+                .containsExactlyInAnyOrder(
+                        tuple(Stage.PAGE, "tennis", null, "TimeoutException"),
+                        tuple(Stage.LEAGUE, "football", "11", "TimeoutException"),
+                        tuple(Stage.MATCH, "football", "2", "TimeoutException"));
+    }
+
+    @Test
+    void completesWithTheMatchesFetchedSoFarAtTheDeadline() {
+        final var previous = index.newUpdate(List.of("football", "tennis"));
+        previous.add("football", match("8", "football", "10", KICKOFF));
+        previous.add("tennis", match("9", "tennis", "20", KICKOFF));
+        previous.publish();
+        source.leagues.put("football", Mono.just(List.of("10")));
+        source.leagues.put("tennis", Mono.just(List.of("20")));
+        source.events.put("10", Mono.just(List.of(event("1"), event("2"))));
+        source.events.put("20", Mono.just(List.of(event("3"))));
+        source.matches.put("2", Mono.never());
+
+        final List<Match> matches = crawl(engine(LONG, Duration.ofMillis(300)), "football", "tennis");
+
+        assertThat(matches).extracting(Match::getId).containsExactlyInAnyOrder("1", "3");
+        assertThat(failures).singleElement().satisfies(failure -> {
+            assertThat(failure.stage()).isEqualTo(Stage.DEADLINE);
+            assertThat(failure.sport()).isNull();
+            assertThat(failure.error()).isEqualTo("TimeoutException");
+        });
+        assertThat(index.findMatches(null, null, null, null)).extracting(Match::getId)
+                .containsExactlyInAnyOrder("1", "3", "8", "9");
+    }
+
+    @Test
+    void buildsMatchesFromListEntriesCarryingAllTheirMarkets() {
+        source.leagues.put("football", Mono.just(List.of("10")));
+        source.events.put("10", Mono.just(List.of(
+                event("1", 2, "Winner", "Total"),
+                event("2", 3, "Winner"),
+                event("3", null, "Winner"),
+                event("4"))));
+
+        final List<Match> matches = crawl(engine(LONG, LONG), "football");
+
+        assertThat(source.fetched).containsExactlyInAnyOrder("2", "3", "4");
+        assertThat(matches).extracting(Match::getId).containsExactlyInAnyOrder("1", "2", "3", "4");
+        assertThat(matches).filteredOn(match -> match.getId().equals("1")).singleElement().satisfies(match -> {
+            assertThat(match.getName()).isEqualTo("match 1");
+            assertThat(match.getBookmaker()).isEqualTo(StubSource.NAME);
+            assertThat(match.getMarkets()).extracting(Market::getName).containsExactly("Winner", "Total");
+        });
+    }
+
+    @Test
+    void buildsMatchesFromListEntriesCarryingTheRequiredMarkets() {
+        source.leagues.put("football", Mono.just(List.of("10")));
+        source.events.put("10", Mono.just(List.of(
+                event("1", 2, "Winner", "Total"),
+                event("2", 3, "Winner"),
+                event("3", 1, "Total"))));
+        final var engine = engine(LONG, LONG);
+        ReflectionTestUtils.setField(engine, "requiredMarkets", Set.of("Winner"));
+
+        assertThat(crawl(engine, "football")).hasSize(3);
+        assertThat(source.fetched).containsExactly("3");
+    }
+
+    @Test
+    void fetchesEveryMatchWhenListPayloadsAreDisabled() {
+        source.leagues.put("football", Mono.just(List.of("10")));
+        source.events.put("10", Mono.just(List.of(event("1", 1, "Winner"))));
+        final var engine = engine(LONG, LONG);
+        ReflectionTestUtils.setField(engine, "listPayloadEnabled", false);
+
+        assertThat(crawl(engine, "football")).hasSize(1);
+        assertThat(source.fetched).containsExactly("1");
+    }
+
+    private List<Match> crawl(CrawlEngineImpl engine, String... sports) {
+        return engine.crawlMatches(List.of(sports), progress).collectList().block(Duration.ofSeconds(10));
+    }
+
+    private CrawlEngineImpl engine(Duration timeout, Duration deadline) {
+        final var engine = new CrawlEngineImpl(List.of(source), candidates -> candidates, Schedulers.boundedElastic(),
+                new CrawlMetrics(new SimpleMeterRegistry(), ObservationRegistry.NOOP, false),
+                new OddsHistoryStore(false, "odds-history", DataSize.ofMegabytes(1)), index, new MockEnvironment(),
+                List.of());
+        ReflectionTestUtils.setField(engine, "concurrency", 4);
+        ReflectionTestUtils.setField(engine, "pageTimeout", timeout);
+        ReflectionTestUtils.setField(engine, "leagueTimeout", timeout);
+        ReflectionTestUtils.setField(engine, "matchTimeout", timeout);
+        ReflectionTestUtils.setField(engine, "deadline", deadline);
+        ReflectionTestUtils.setField(engine, "listPayloadEnabled", true);
+        ReflectionTestUtils.setField(engine, "requiredMarkets", Set.of());
+        return engine;
+    }
+
+    private static Event event(String id) {
+        final var event = new Event();
+        event.setId(id);
+        event.setName("match " + id);
+        event.setKickoff(KICKOFF);
+        return event;
+    }
+
+    private static Event event(String id, Integer marketsCount, String... markets) {
+        final var event = event(id);
+        event.setMarketsCount(marketsCount);
+        event.setMarkets(Arrays.stream(markets).map(name -> market(name, "1", "1.5")).toList());
+        return event;
+    }
+
+    /**
+     * Answers every stage from the configured responses; leagues without a configured response list no events
+     * and matches without one are fetched successfully.
+     */
+    private static final class StubSource implements BookmakerSource {
+
+        private static final String NAME = "stub";
+
+        private final Map<String, Mono<List<String>>> leagues = new HashMap<>();
+        private final Map<String, Mono<List<Event>>> events = new HashMap<>();
+        private final Map<String, Mono<Match>> matches = new HashMap<>();
+        private final List<String> fetched = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+
+        @Override
+        public Mono<List<String>> discoverLeagues(String sport) {
+            return leagues.getOrDefault(sport, Mono.just(List.of()));
+        }
+
+        @Override
+        public Mono<List<Event>> listEvents(String leagueId) {
+            return events.getOrDefault(leagueId, Mono.just(List.of()));
+        }
+
+        @Override
+        public Mono<Match> fetchMatch(String eventId) {
+            fetched.add(eventId);
+            return matches.getOrDefault(eventId, Mono.fromSupplier(() -> match(eventId, "football", "10", KICKOFF)));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.aspira.jspider.service.impl;
+
+import com.aspira.jspider.model.CrawlJobStatus;
+import com.aspira.jspider.model.CrawlJobStatus.State;
+import com.aspira.jspider.model.CrawlSummary;
+import com.aspira.jspider.model.Match;
+import com.aspira.jspider.service.CrawlProgress;
+import com.aspira.jspider.service.LeonBetsParser;
+import com.aspira.jspider.service.ReportGenerationService;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static com.aspira.jspider.MatchFixtures.match;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class CrawlJobServiceImplTest {
+
+    private final StubParser parser = new StubParser();
+    private final CrawlJobServiceImpl service =
+            new CrawlJobServiceImpl(parser, mock(ReportGenerationService.class), 1, 2, 10);
+
+    @Test
+    void queuesJobsBeyondTheConcurrencyLimitAndStartsThemInOrder() {
+        final var first = service.submit(List.of("football"), false);
+        final var second = service.submit(List.of("tennis"), false);
+
+        assertThat(state(first)).isEqualTo(State.RUNNING);
+        assertThat(state(second)).isEqualTo(State.QUEUED);
+        assertThat(parser.crawls).hasSize(1);
+
+        parser.crawls.get(0).emitNext(match("1"), Sinks.EmitFailureHandler.FAIL_FAST);
+        parser.crawls.get(0).emitComplete(Sinks.EmitFailureHandler.FAIL_FAST);
+
+        assertThat(service.getStatus(first.id())).get().satisfies(status -> {
+            assertThat(status.state()).isEqualTo(State.COMPLETED);
+            assertThat(status.matchesDone()).isEqualTo(1);
+            assertThat(status.finishedAt()).isNotNull();
+        });
+        assertThat(state(second)).isEqualTo(State.RUNNING);
+        assertThat(parser.sports).containsExactly(List.of("football"), List.of("tennis"));
+    }
+
+    @Test
+    void completesStreamsWhenARunningJobIsCancelledWhileEmitting() throws Exception {
+        final var job = service.submit(List.of("football"), false);
+        final var crawl = parser.crawls.get(0);
+        crawl.emitNext(match("1"), Sinks.EmitFailureHandler.FAIL_FAST);
+        final CompletableFuture<List<Match>> streamed = service.streamMatches(job.id()).orElseThrow()
+                .collectList().toFuture();
+
+        final var emitter = new Thread(() -> {
+            for (int i = 2; i < 10_000 && crawl.currentSubscriberCount() > 0; i++) {
+                crawl.tryEmitNext(match(String.valueOf(i)));
+            }
+        });
+        emitter.start();
+        assertThat(service.cancel(job.id())).get().extracting(CrawlJobStatus::state).isEqualTo(State.CANCELLED);
+        emitter.join();
+
+        assertThat(streamed.get(5, TimeUnit.SECONDS)).isNotEmpty().first().extracting(Match::getId).isEqualTo("1");
+        assertThat(crawl.currentSubscriberCount()).isZero();
+        assertThat(service.streamMatches(job.id()).orElseThrow().collectList().block()).isEmpty();
+    }
+
+    @Test
+    void cancelsQueuedJobsWithoutStartingThem() {
+        final var first = service.submit(List.of("football"), false);
+        final var second = service.submit(List.of("tennis"), false);
+
+        assertThat(service.cancel(second.id())).get().extracting(CrawlJobStatus::state).isEqualTo(State.CANCELLED);
+        parser.crawls.get(0).emitComplete(Sinks.EmitFailureHandler.FAIL_FAST);
+
+        assertThat(state(first)).isEqualTo(State.COMPLETED);
+        assertThat(parser.crawls).hasSize(1);
+        assertThat(service.cancel("unknown")).isEmpty();
+    }
+
+    @Test
+    void reportsFailedJobsToStatusQueriesAndStreams() {
+        final var job = service.submit(List.of("football"), false);
+        parser.crawls.get(0).emitError(new IllegalStateException("boom"), Sinks.EmitFailureHandler.FAIL_FAST);
+
+        assertThat(service.getStatus(job.id())).get().satisfies(status -> {
+            assertThat(status.state()).isEqualTo(State.FAILED);
+            assertThat(status.error()).isEqualTo("boom");
+        });
+        assertThatThrownBy(() -> service.streamMatches(job.id()).orElseThrow().blockLast())
+                .hasMessageContaining("boom");
+    }
+
+    @Test
+    void evictsTheOldestFinishedJobsBeyondTheRetainedCount() {
+        final var first = service.submit(List.of("football"), false);
+        parser.crawls.get(0).emitComplete(Sinks.EmitFailureHandler.FAIL_FAST);
+        final var second = service.submit(List.of("tennis"), false);
+        parser.crawls.get(1).emitComplete(Sinks.EmitFailureHandler.FAIL_FAST);
+        final var third = service.submit(List.of("esports"), false);
+
+        assertThat(service.getStatus(first.id())).isEmpty();
+        assertThat(service.getJobs()).extracting(CrawlJobStatus::id).containsExactly(second.id(), third.id());
+        assertThat(service.streamMatches(first.id())).isEmpty();
+    }
+
+    private State state(CrawlJobStatus job) {
+        return service.getStatus(job.id()).orElseThrow().state();
+    }
+
+    /**
+     * Starts a crawl per call that emits whatever the test pushes into its sink.
+     */
+    private static final class StubParser implements LeonBetsParser {
+
+        private final List<Sinks.Many<Match>> crawls = new CopyOnWriteArrayList<>();
+        private final List<List<String>> sports = new CopyOnWriteArrayList<>();
+
+        @Override
+        public CrawlSummary parseBetsData() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Flux<Match> crawlMatches() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Flux<Match> crawlMatches(List<String> sports) {
+            return crawlMatches(sports, CrawlProgress.NONE);
+        }
+
+        @Override
+        public Flux<Match> crawlMatches(List<String> sports, CrawlProgress progress) {
+            final Sinks.Many<Match> crawl = Sinks.many().unicast().onBackpressureBuffer();
+            crawls.add(crawl);
+            this.sports.add(sports);
+            return crawl.asFlux().doOnNext(progress::onMatchFetched);
+        }
+    }
+}
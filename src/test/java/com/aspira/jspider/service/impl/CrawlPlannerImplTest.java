@@ -0,0 +1,135 @@
+package com.aspira.jspider.service.impl;
+
+import com.aspira.jspider.model.CrawlCandidate;
+import com.aspira.jspider.model.Event;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class CrawlPlannerImplTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now(ZoneOffset.UTC);
+
+    private final MockEnvironment environment = new MockEnvironment();
+    private final CrawlPlannerImpl planner = new CrawlPlannerImpl(environment);
+
+    CrawlPlannerImplTest() {
+        ReflectionTestUtils.setField(planner, "maxMatchesPerLeague", -1);
+        ReflectionTestUtils.setField(planner, "maxMatchesPerSport", -1);
+        ReflectionTestUtils.setField(planner, "maxMatchRequests", -1);
+        ReflectionTestUtils.setField(planner, "kickoffWindow", Duration.ofDays(7));
+        ReflectionTestUtils.setField(planner, "imminentWindow", Duration.ofHours(2));
+    }
+
+    @Test
+    void plansLiveThenImminentThenLargerLeaguesThenEarlierKickoffs() {
+        final var plan = planner.plan(List.of(
+                candidate("football", "10", "late", NOW.plusDays(2), 5),
+                candidate("football", "11", "large", NOW.plusDays(3), 50),
+                candidate("football", "10", "early", NOW.plusDays(1), 5),
+                candidate("football", "10", "imminent", NOW.plusHours(1), 5),
+                candidate("football", "10", "started", NOW.minusMinutes(10), 5),
+                live(candidate("football", "10", "inplay", NOW.plusHours(1), 1)),
+                candidate("football", "10", "unscheduled", null, 5)));
+
+        assertThat(ids(plan)).containsExactly("started", "inplay", "imminent", "large", "early", "late",
+                "unscheduled");
+    }
+
+    @Test
+    void limitsTheMatchesOfEachLeagueUnlessOverridden() {
+        ReflectionTestUtils.setField(planner, "maxMatchesPerLeague", 1);
+        environment.setProperty("crawl.plan.leagues.11.max-matches", "2");
+
+        final var plan = planner.plan(List.of(
+                candidate("football", "10", "1", NOW.plusHours(5), 10),
+                candidate("football", "10", "2", NOW.plusHours(6), 10),
+                candidate("football", "11", "3", NOW.plusHours(7), 5),
+                candidate("football", "11", "4", NOW.plusHours(8), 5),
+                candidate("football", "11", "5", NOW.plusHours(9), 5)));
+
+        assertThat(ids(plan)).containsExactly("1", "3", "4");
+    }
+
+    @Test
+    void limitsTheMatchesOfEachSportUnlessOverridden() {
+        ReflectionTestUtils.setField(planner, "maxMatchesPerSport", 1);
+        environment.setProperty("crawl.plan.sports.tennis.max-matches", "-1");
+
+        final var plan = planner.plan(List.of(
+                candidate("football", "10", "1", NOW.plusHours(5), 10),
+                candidate("football", "11", "2", NOW.plusHours(6), 10),
+                candidate("tennis", "20", "3", NOW.plusHours(7), 5),
+                candidate("tennis", "21", "4", NOW.plusHours(8), 5)));
+
+        assertThat(ids(plan)).containsExactly("1", "3", "4");
+    }
+
+    @Test
+    void stopsAtTheRequestBudgetUnlessItIsNegative() {
+        final var candidates = List.of(
+                candidate("football", "10", "1", NOW.plusHours(5), 10),
+                candidate("football", "10", "2", NOW.plusHours(6), 10),
+                candidate("tennis", "20", "3", NOW.plusHours(7), 5));
+
+        assertThat(ids(planner.plan(candidates))).containsExactly("1", "2", "3");
+        ReflectionTestUtils.setField(planner, "maxMatchRequests", 2);
+        assertThat(ids(planner.plan(candidates))).containsExactly("1", "2");
+        ReflectionTestUtils.setField(planner, "maxMatchRequests", 0);
+        assertThat(planner.plan(candidates)).isEmpty();
+    }
+
+    @Test
+    void dropsEventsStartingAfterTheKickoffWindow() {
+        ReflectionTestUtils.setField(planner, "kickoffWindow", Duration.ofDays(1));
+
+        final var plan = planner.plan(List.of(
+                candidate("football", "10", "today", NOW.plusHours(20), 10),
+                candidate("football", "10", "next-week", NOW.plusDays(7), 10),
+                live(candidate("football", "10", "inplay", NOW.plusDays(2), 10)),
+                candidate("football", "10", "unscheduled", null, 10)));
+
+        assertThat(ids(plan)).containsExactly("inplay", "today", "unscheduled");
+    }
+
+    @Test
+    void plansAnEventListedSeveralTimesOnceWithoutCountingItsOtherListings() {
+        ReflectionTestUtils.setField(planner, "maxMatchesPerLeague", 1);
+        ReflectionTestUtils.setField(planner, "maxMatchesPerSport", 2);
+
+        final var plan = planner.plan(List.of(
+                candidate("football", "11", "1", NOW.plusHours(5), 5),
+                candidate("football", "11", "2", NOW.plusHours(6), 5),
+                candidate("football", "10", "1", NOW.plusHours(5), 50),
+                candidate("esports", "30", "1", NOW.plusHours(5), 1),
+                candidate("esports", "30", "3", NOW.plusHours(7), 1)));
+
+        assertThat(plan).extracting(candidate -> candidate.event().getId(), CrawlCandidate::leagueId)
+                .containsExactly(tuple("1", "10"), tuple("2", "11"), tuple("3", "30"));
+    }
+
+    private static CrawlCandidate candidate(String sport, String leagueId, String id, LocalDateTime kickoff,
+                                            long leagueMarkets) {
+        final var event = new Event();
+        event.setId(id);
+        event.setKickoff(kickoff);
+        return new CrawlCandidate(sport, leagueId, event, leagueMarkets);
+    }
+
+    private static CrawlCandidate live(CrawlCandidate candidate) {
+        candidate.event().setBetline("inplay");
+        return candidate;
+    }
+
+    private static List<String> ids(List<CrawlCandidate> plan) {
+        return plan.stream().map(candidate -> candidate.event().getId()).toList();
+    }
+}
@@ -0,0 +1,127 @@
+package com.aspira.jspider.service.impl;
+
+import com.aspira.jspider.model.MarketAnalysis;
+import com.aspira.jspider.model.MarketAnalysis.Flag;
+import com.aspira.jspider.model.Match;
+import com.aspira.jspider.store.OddsSnapshot;
+import com.aspira.jspider.store.OddsStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static com.aspira.jspider.MatchFixtures.market;
+import static com.aspira.jspider.MatchFixtures.match;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.assertj.core.api.Assertions.within;
+
+class OddsAnalyticsServiceImplTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+    private final OddsAnalyticsServiceImpl service = new OddsAnalyticsServiceImpl(new ObjectMapper(), pool);
+
+    @BeforeEach
+    void configure() {
+        ReflectionTestUtils.setField(service, "maxMargin", 0.15);
+        ReflectionTestUtils.setField(service, "outlierThreshold", 3.5);
+        ReflectionTestUtils.setField(service, "consistencyTolerance", 0.03);
+    }
+
+    @AfterEach
+    void shutDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void splitsMarketsIntoBooksAndFlagsThem() {
+        final var match = match("1",
+                market("Winner", "1", "2.0", "X", "3.5", "2", "4.0"),
+                market("Double Chance", "1X", "1.1", "12", "1.2", "X2", "2.0"),
+                market("Total", "Over (2.5)", "1.8", "Under (2.5)", "1.8", "Over (3)", "2.6", "Under (3.0)", "-"),
+                market("Handicap", "1 (-1.5)", "2.1", "2 (+1.5)", "2.1"));
+
+        final List<MarketAnalysis> analyses = service.analyze(snapshot(List.of(match)));
+
+        assertThat(analyses).extracting(MarketAnalysis::market, MarketAnalysis::line).containsExactly(
+                tuple("Winner", null), tuple("Double Chance", null), tuple("Total", "2.5"), tuple("Total", "3"),
+                tuple("Handicap", "-1.5"));
+        final var winner = analyses.get(0);
+        assertThat(winner).extracting(MarketAnalysis::bookmaker, MarketAnalysis::matchId, MarketAnalysis::match)
+                .containsExactly("leon", "1", "match 1");
+        assertThat(winner.winners()).isEqualTo(1);
+        assertThat(winner.margin()).isCloseTo(0.0357, within(0.0001));
+        assertThat(winner.probabilities().stream().mapToDouble(Double::doubleValue).sum()).isCloseTo(1, within(1e-9));
+        assertThat(winner.flags()).containsExactly(Flag.INCONSISTENT);
+        assertThat(analyses.get(1).winners()).isEqualTo(2);
+        assertThat(analyses.get(1).flags()).containsExactly(Flag.INCONSISTENT);
+        assertThat(analyses.get(2).margin()).isCloseTo(0.1111, within(0.0001));
+        assertThat(analyses.get(2).flags()).isEmpty();
+        assertThat(analyses.get(3).flags()).containsExactly(Flag.INCOMPLETE);
+        assertThat(analyses.get(3).prices()).containsExactly(2.6, null);
+        assertThat(analyses.get(4).flags()).containsExactly(Flag.ARBITRAGE);
+    }
+
+    @Test
+    void pairsHandicapRunnersByTheLineOfTheHomeSide() {
+        final var match = match("1",
+                market("Handicap", "1 (-1.5)", "2.5", "2 (+1.5)", "1.55", "1 (+1.5)", "1.25", "2 (-1.5)", "3.8"),
+                market("Set 2: Game Handicap", "1 (-2.5)", "1.75", "2 (+2.5)", "1.95", "2 (-2.5)", "11.00"),
+                market("Handicap (3-Way)", "1 (0:1)", "4.95", "X (0:1)", "2.80", "2 (0:1)", "1.80"));
+
+        final List<MarketAnalysis> analyses = service.analyze(snapshot(List.of(match)));
+
+        assertThat(analyses).extracting(MarketAnalysis::market, MarketAnalysis::line, MarketAnalysis::runners)
+                .containsExactly(
+                        tuple("Handicap", "-1.5", List.of("1 (-1.5)", "2 (+1.5)")),
+                        tuple("Handicap", "1.5", List.of("1 (+1.5)", "2 (-1.5)")),
+                        tuple("Set 2: Game Handicap", "-2.5", List.of("1 (-2.5)", "2 (+2.5)")),
+                        tuple("Set 2: Game Handicap", "2.5", List.of("2 (-2.5)")),
+                        tuple("Handicap (3-Way)", "0:1", List.of("1 (0:1)", "X (0:1)", "2 (0:1)")));
+        assertThat(analyses).extracting(MarketAnalysis::winners).containsExactly(1, 1, 1, null, 1);
+        assertThat(analyses.get(0).margin()).isCloseTo(0.0452, within(0.0001));
+        assertThat(analyses.get(1).margin()).isCloseTo(0.0632, within(0.0001));
+        assertThat(analyses.get(2).flags()).isEmpty();
+        assertThat(analyses.get(3).flags()).containsExactly(Flag.INCOMPLETE);
+    }
+
+    @Test
+    void takesTheNumberOfWinnersFromTheMarketType() {
+        final var match = match("1",
+                market("Winner", "1", "1.2", "2", "1.2"),
+                market("Corners Double Chance", "1X", "1.1", "12", "1.2", "X2", "2.0"));
+
+        final List<MarketAnalysis> analyses = service.analyze(snapshot(List.of(match)));
+
+        assertThat(analyses.get(0).winners()).isEqualTo(1);
+        assertThat(analyses.get(0).margin()).isCloseTo(0.6667, within(0.0001));
+        assertThat(analyses.get(0).flags()).containsExactly(Flag.HIGH_MARGIN);
+        assertThat(analyses.get(1).winners()).isEqualTo(2);
+    }
+
+    @Test
+    void flagsMarginOutliersAmongMarketsWithTheSameName() {
+        final List<Match> matches = new ArrayList<>();
+        IntStream.range(0, 200).forEach(i -> matches.add(match(String.valueOf(i),
+                market("Winner", "1", i % 2 == 0 ? "1.90" : "1.92", "2", "1.90"))));
+        matches.add(match("1000", market("Winner", "1", "1.70", "2", "1.70")));
+
+        final List<MarketAnalysis> analyses = service.analyze(snapshot(matches));
+
+        assertThat(analyses).hasSize(201);
+        assertThat(analyses).filteredOn(analysis -> analysis.flags().contains(Flag.MARGIN_OUTLIER))
+                .extracting(MarketAnalysis::matchId).containsExactly("1000");
+    }
+
+    private static OddsSnapshot snapshot(List<Match> matches) {
+        final var builder = new OddsStore().newSnapshot();
+        matches.forEach(builder::add);
+        return builder.build();
+    }
+}
@@ -0,0 +1,122 @@
+package com.aspira.jspider.service.impl;
+
+import com.aspira.jspider.model.Match;
+import com.aspira.jspider.model.OddsChange;
+import com.aspira.jspider.service.LeonBetsParser;
+import com.aspira.jspider.service.OddsChangeListener;
+import com.aspira.jspider.store.OddsStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static com.aspira.jspider.MatchFixtures.market;
+import static com.aspira.jspider.MatchFixtures.match;
+import static com.aspira.jspider.MatchFixtures.runner;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OddsPollingServiceImplTest {
+
+    private static final List<String> FOOTBALL = List.of("football");
+
+    private final LeonBetsParser parser = mock(LeonBetsParser.class);
+    private final List<OddsChange> notified = new CopyOnWriteArrayList<>();
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void establishesTheBaselineOnTheFirstPoll() {
+        when(parser.crawlMatches(FOOTBALL)).thenReturn(Flux.just(winner("2.0", "1.8", "3.5")));
+
+        assertThat(service().poll("football")).isEmpty();
+
+        assertThat(notified).isEmpty();
+        assertThat(changeLog()).doesNotExist();
+    }
+
+    @Test
+    void reportsOnlyPricesThatMovedSinceThePreviousPoll() throws IOException {
+        when(parser.crawlMatches(FOOTBALL)).thenReturn(
+                Flux.just(winner("2.0", "1.8", "3.5")),
+                Flux.just(winner("2.0", "1.9", null)),
+                Flux.just(winner("2.0", "1.9", "3.2")));
+        final var service = service();
+
+        service.poll("football");
+        final List<OddsChange> moved = service.poll("football");
+        final List<OddsChange> reappeared = service.poll("football");
+
+        assertThat(moved).singleElement().satisfies(change -> {
+            assertThat(change.runnerId()).isEqualTo("12");
+            assertThat(change.matchId()).isEqualTo("1");
+            assertThat(change.matchName()).isEqualTo("match 1");
+            assertThat(change.marketName()).isEqualTo("Winner");
+            assertThat(change.runnerName()).isEqualTo("X");
+            assertThat(change.oldValue()).isEqualTo("1.80");
+            assertThat(change.newValue()).isEqualTo("1.90");
+        });
+        assertThat(reappeared).isEmpty();
+        assertThat(notified).containsExactlyElementsOf(moved);
+        final String log = Files.readString(changeLog());
+        assertThat(log).endsWith("}\n").doesNotContain("\r");
+        assertThat(log.lines().map(line -> read(line).runnerId())).containsExactly("12");
+    }
+
+    @Test
+    void ignoresRunnersWithoutAnIdOrNotSeenBefore() {
+        when(parser.crawlMatches(FOOTBALL)).thenReturn(
+                Flux.just(match("1", market("1", "Winner", runner(null, "1", "2.0")))),
+                Flux.just(match("1", market("1", "Winner", runner(null, "1", "2.5"), runner("13", "2", "3.0")))));
+        final var service = service();
+
+        service.poll("football");
+
+        assertThat(service.poll("football")).isEmpty();
+        assertThat(changeLog()).doesNotExist();
+    }
+
+    private OddsPollingServiceImpl service() {
+        @SuppressWarnings("unchecked")
+        final ObjectProvider<OddsChangeListener> listeners = mock(ObjectProvider.class);
+        when(listeners.orderedStream()).thenAnswer(invocation -> Stream.<OddsChangeListener>of(notified::add));
+        final var oddsStore = new OddsStore();
+        ReflectionTestUtils.setField(oddsStore, "historySize", 2);
+        final var service = new OddsPollingServiceImpl(parser, listeners, mock(TaskScheduler.class), objectMapper,
+                new MockEnvironment(), oddsStore);
+        ReflectionTestUtils.setField(service, "changeLogPath", changeLog().toString());
+        return service;
+    }
+
+    private Path changeLog() {
+        return directory.resolve("odds-changes.ndjson");
+    }
+
+    private OddsChange read(String line) {
+        try {
+            return objectMapper.readValue(line, OddsChange.class);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Match winner(String home, String draw, String away) {
+        return match("1", market("1", "Winner",
+                runner("11", "1", home), runner("12", "X", draw), runner("13", "2", away)));
+    }
+}
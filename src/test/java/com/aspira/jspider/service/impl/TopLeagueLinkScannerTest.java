@@ -0,0 +1,65 @@
+package com.aspira.jspider.service.impl;
+
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TopLeagueLinkScannerTest {
+
+    private static final String TOP_LEAGUE_CLASS = "sports-sidebar-top-leagues__league_Rd8VZ";
+
+    @ParameterizedTest
+    @ValueSource(strings = {"football", "tennis", "basketball", "esports"})
+    void findsTheSameLeaguesAsADomParser(String sport) throws Exception {
+        final byte[] page = Files.readAllBytes(Path.of("sport-pages", sport + ".html"));
+
+        assertThat(scan(page, 4096)).isNotEmpty().isEqualTo(parseWithJsoup(new String(page, StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void skipsLinksInCommentsScriptsAndOtherClasses() {
+        final String html = """
+                <html><head><script>var a = '<a class="%1$s" href="/bets/x/1-script">';</script>
+                <style>a > b { }</style></head><body>
+                <!-- <a class="%1$s" href="/bets/x/2-comment"> -->
+                <p>1 < 2</p>
+                <a href="/bets/x/3-other" class="other">x</a>
+                <A data-x='a>b' CLASS="foo %1$s" HREF=/bets/x/4-first>x</A>
+                <a class="%1$s" href="/bets/x/5-second"/>
+                </body></html>
+                """.formatted(TOP_LEAGUE_CLASS);
+
+        assertThat(scan(html.getBytes(StandardCharsets.UTF_8), 3)).containsExactly("4", "5");
+    }
+
+    private static List<String> scan(byte[] page, int chunkSize) {
+        final var scanner = new TopLeagueLinkScanner(TOP_LEAGUE_CLASS);
+        for (int offset = 0; offset < page.length; offset += chunkSize) {
+            scanner.feed(ByteBuffer.wrap(page, offset, Math.min(chunkSize, page.length - offset)));
+        }
+        return scanner.finish();
+    }
+
+    private static List<String> parseWithJsoup(String html) {
+        final Pattern pattern = Pattern.compile("(\\d+)-[a-zA-Z0-9-]+");
+        return Jsoup.parse(html).select("a." + TOP_LEAGUE_CLASS).stream()
+                .map(link -> {
+                    final Matcher matcher = pattern.matcher(link.attr("href"));
+                    return matcher.find() ? matcher.group(1) : null;
+                })
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
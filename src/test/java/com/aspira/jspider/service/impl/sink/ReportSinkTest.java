@@ -0,0 +1,217 @@
+package com.aspira.jspider.service.impl.sink;
+
+import com.aspira.jspider.model.Match;
+import com.aspira.jspider.service.ReportSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.aspira.jspider.MatchFixtures.market;
+import static com.aspira.jspider.MatchFixtures.match;
+import static com.aspira.jspider.MatchFixtures.runner;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReportSinkTest {
+
+    private static final int BUFFER_SIZE = 1024;
+    private static final String HEADER =
+            "sport,league,match_id,match,kickoff,market_id,market,runner_id,runner,price,bookmaker";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writesCsvWithAHeaderAndQuotesOnlyWhereNeeded() throws IOException {
+        final var target = directory.resolve("report.csv");
+
+        write(new CsvReportSink(target, StandardCharsets.UTF_8, BUFFER_SIZE), sampleMatch());
+
+        assertThat(Files.readAllLines(target)).containsExactly(
+                HEADER,
+                "football,\"league 1, \"\"A\"\"\",10,match 10,2024-07-30T18:00,100,Winner,1000,1,1.5,leon",
+                "football,\"league 1, \"\"A\"\"\",10,match 10,2024-07-30T18:00,100,Winner,1001,2,2.5,leon");
+    }
+
+    @Test
+    void writesOnlyTheHeaderOfAnEmptyCsvReport() throws IOException {
+        final var target = directory.resolve("report.csv");
+
+        write(new CsvReportSink(target, StandardCharsets.UTF_8, BUFFER_SIZE));
+
+        assertThat(Files.readAllLines(target)).containsExactly(HEADER);
+    }
+
+    @Test
+    void writesOneNewlineTerminatedJsonDocumentPerMatch() throws IOException {
+        final var target = directory.resolve("report.ndjson");
+        final var second = sampleMatch();
+        second.setId("11");
+
+        write(new NdjsonReportSink(target, StandardCharsets.UTF_8, BUFFER_SIZE, objectMapper), sampleMatch(), second);
+
+        final String content = Files.readString(target);
+        assertThat(content).endsWith("}\n").doesNotContain("\r");
+        final List<String> lines = content.lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines.get(0))).isEqualTo(objectMapper.valueToTree(sampleMatch()));
+        assertThat(objectMapper.readTree(lines.get(1)).get("id").asText()).isEqualTo("11");
+    }
+
+    @Test
+    void writesAnEmptyFileForAnEmptyNdjsonReport() throws IOException {
+        final var target = directory.resolve("report.ndjson");
+
+        write(new NdjsonReportSink(target, StandardCharsets.UTF_8, BUFFER_SIZE, objectMapper));
+
+        assertThat(target).isEmptyFile();
+    }
+
+    @Test
+    void writesXlsxWithAHeaderRowAndOneRowPerRunner() throws IOException {
+        final var target = directory.resolve("report.xlsx");
+
+        write(new XlsxReportSink(target, BUFFER_SIZE), sampleMatch());
+
+        final List<List<List<String>>> sheets = readXlsx(target);
+        assertThat(sheets).hasSize(1);
+        assertThat(sheets.get(0)).hasSize(3);
+        assertThat(String.join(",", sheets.get(0).get(0))).isEqualTo(HEADER);
+        assertThat(sheets.get(0).get(1)).containsExactly("football", "league 1, \"A\"", "10", "match 10",
+                "2024-07-30T18:00", "100", "Winner", "1000", "1", "1.5", "leon");
+    }
+
+    @Test
+    void continuesOnANewSheetWhenASheetIsFull() throws IOException {
+        final var target = directory.resolve("report.xlsx");
+
+        write(new XlsxReportSink(target, BUFFER_SIZE, 2), sampleMatch(), sampleMatch());
+
+        final List<List<List<String>>> sheets = readXlsx(target);
+        assertThat(sheets).hasSize(4).allSatisfy(sheet -> {
+            assertThat(sheet).hasSize(2);
+            assertThat(String.join(",", sheet.get(0))).isEqualTo(HEADER);
+        });
+        assertThat(sheets).extracting(sheet -> sheet.get(1).get(8)).containsExactly("1", "2", "1", "2");
+    }
+
+    @Test
+    void writesOnlyTheHeaderOfAnEmptyXlsxReport() throws IOException {
+        final var target = directory.resolve("report.xlsx");
+
+        write(new XlsxReportSink(target, BUFFER_SIZE));
+
+        assertThat(readXlsx(target)).singleElement().satisfies(sheet -> assertThat(sheet).hasSize(1));
+    }
+
+    @Test
+    void replacesThePreviousReportOnlyOnCommit() throws IOException {
+        final var target = directory.resolve("report.csv");
+        Files.writeString(target, "previous");
+
+        try (ReportSink sink = new CsvReportSink(target, StandardCharsets.UTF_8, BUFFER_SIZE)) {
+            sink.write(sampleMatch());
+            assertThat(target).hasContent("previous");
+            sink.commit();
+        }
+
+        assertThat(Files.readAllLines(target)).hasSize(3).first().isEqualTo(HEADER);
+        assertThat(files()).containsExactly(target);
+    }
+
+    @Test
+    void keepsThePreviousReportAndDeletesTheTemporaryFileWhenNotCommitted() throws IOException {
+        final var csv = directory.resolve("report.csv");
+        final var ndjson = directory.resolve("report.ndjson");
+        final var xlsx = directory.resolve("report.xlsx");
+        for (Path target : List.of(csv, ndjson, xlsx)) {
+            Files.writeString(target, "previous");
+        }
+
+        try (ReportSink sink = new CsvReportSink(csv, StandardCharsets.UTF_8, BUFFER_SIZE)) {
+            sink.write(sampleMatch());
+        }
+        try (ReportSink sink = new NdjsonReportSink(ndjson, StandardCharsets.UTF_8, BUFFER_SIZE, objectMapper)) {
+            sink.write(sampleMatch());
+        }
+        try (ReportSink sink = new XlsxReportSink(xlsx, BUFFER_SIZE)) {
+            sink.write(sampleMatch());
+        }
+
+        assertThat(files()).containsExactlyInAnyOrder(csv, ndjson, xlsx)
+                .allSatisfy(target -> assertThat(target).hasContent("previous"));
+    }
+
+    @Test
+    void replacesFilesWrittenAtomicallyOnlyWhenWritingSucceeds() throws IOException {
+        final var target = directory.resolve("summary.json");
+        Files.writeString(target, "previous");
+
+        assertThatThrownBy(() -> AtomicFiles.write(target, file -> {
+            Files.writeString(file, "partial");
+            throw new IOException("disk full");
+        })).hasMessage("disk full");
+        assertThat(files()).containsExactly(target);
+        assertThat(target).hasContent("previous");
+
+        AtomicFiles.write(target, file -> Files.writeString(file, "next"));
+        assertThat(files()).containsExactly(target);
+        assertThat(target).hasContent("next");
+    }
+
+    private static void write(ReportSink sink, Match... matches) throws IOException {
+        try (sink) {
+            for (Match match : matches) {
+                sink.write(match);
+            }
+            sink.commit();
+        }
+    }
+
+    private static Match sampleMatch() {
+        final var match = match("10", "football", "1, \"A\"", LocalDateTime.parse("2024-07-30T18:00"),
+                market("100", "Winner", runner("1000", "1", "1.5"), runner("1001", "2", "2.5")));
+        match.getLeague().setName("league 1, \"A\"");
+        return match;
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.toList();
+        }
+    }
+
+    private static List<List<List<String>>> readXlsx(Path target) throws IOException {
+        final var formatter = new DataFormatter();
+        final List<List<List<String>>> sheets = new ArrayList<>();
+        try (InputStream in = Files.newInputStream(target); var workbook = new XSSFWorkbook(in)) {
+            for (Sheet sheet : workbook) {
+                final List<List<String>> rows = new ArrayList<>();
+                for (Row row : sheet) {
+                    final List<String> cells = new ArrayList<>();
+                    row.forEach(cell -> cells.add(formatter.formatCellValue(cell)));
+                    rows.add(cells);
+                }
+                sheets.add(rows);
+            }
+        }
+        return sheets;
+    }
+}
@@ -0,0 +1,107 @@
+package com.aspira.jspider.store;
+
+import com.aspira.jspider.MatchFixtures;
+import com.aspira.jspider.model.Match;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static com.aspira.jspider.MatchFixtures.market;
+import static com.aspira.jspider.MatchFixtures.runner;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OddsHistoryStoreTest {
+
+    private static final Instant START = Instant.parse("2024-07-30T10:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void returnsTimeSeriesAcrossSegmentsAndRestarts() throws Exception {
+        final var store = store(DataSize.ofBytes(200));
+        for (int poll = 0; poll < 5; poll++) {
+            store.append(match("1", "1.5" + poll, "2.5"), START.plusSeconds(poll * 60L));
+            store.append(match("2", "3.0", "1.2"), START.plusSeconds(poll * 60L));
+        }
+        store.close();
+        Files.write(Path.of(directory.toString(), lastSegment()), new byte[]{1, 2, 3}, StandardOpenOption.APPEND);
+
+        final var reopened = store(DataSize.ofBytes(200));
+        final List<OddsObservation> runner = reopened.runnerHistory(11, START.plusSeconds(60), START.plusSeconds(180));
+
+        assertThat(runner).extracting(OddsObservation::price).containsExactly(1.51, 1.52, 1.53);
+        assertThat(runner).allSatisfy(observation -> assertThat(observation.matchId()).isEqualTo(1));
+        assertThat(reopened.matchHistory(2, null, null)).hasSize(10);
+        assertThat(reopened.matchHistory(3, null, null)).isEmpty();
+        try (var segments = Files.list(directory)) {
+            assertThat(segments.count()).isGreaterThan(1);
+        }
+
+        reopened.append(match("1", "1.6", "2.5"), START.plusSeconds(600));
+        assertThat(reopened.runnerHistory(11, START.plusSeconds(600), null))
+                .extracting(OddsObservation::price).containsExactly(1.6);
+        reopened.close();
+    }
+
+    @Test
+    void rollsSegmentsOverUnderConcurrentAppends() throws Exception {
+        final var store = store(DataSize.ofBytes(500));
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Callable<Void>> appenders = IntStream.rangeClosed(1, 8).mapToObj(id -> (Callable<Void>) () -> {
+                for (int poll = 0; poll < 25; poll++) {
+                    store.append(match(String.valueOf(id), "1.0" + poll, "2.0"), START.plusSeconds(poll));
+                }
+                return null;
+            }).toList();
+            for (Future<Void> appender : executor.invokeAll(appenders)) {
+                appender.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        store.close();
+
+        final var reopened = store(DataSize.ofBytes(500));
+        for (int id = 1; id <= 8; id++) {
+            assertThat(reopened.matchHistory(id, null, null)).hasSize(50);
+            assertThat(reopened.runnerHistory(id * 10L + 1, null, null)).extracting(OddsObservation::price)
+                    .containsExactlyElementsOf(IntStream.range(0, 25).mapToObj(poll -> Double.parseDouble("1.0" + poll))
+                            .toList());
+        }
+        try (var segments = Files.list(directory)) {
+            // six appends of two records fit in a segment of 500 bytes
+            assertThat(segments.count()).isEqualTo((8 * 25 + 5) / 6);
+        }
+        reopened.close();
+    }
+
+    private OddsHistoryStore store(DataSize segmentSize) throws Exception {
+        final var store = new OddsHistoryStore(true, directory.toString(), segmentSize);
+        store.open();
+        return store;
+    }
+
+    private String lastSegment() throws Exception {
+        try (var segments = Files.list(directory)) {
+            return segments.map(path -> path.getFileName().toString()).sorted().reduce((a, b) -> b).orElseThrow();
+        }
+    }
+
+    private static Match match(String id, String home, String away) {
+        return MatchFixtures.match(id,
+                market("100" + id, null, runner(id + "1", null, home), runner(id + "2", null, away)));
+    }
+}
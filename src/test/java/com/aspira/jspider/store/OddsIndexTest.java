@@ -0,0 +1,80 @@
+package com.aspira.jspider.store;
+
+import com.aspira.jspider.MatchFixtures;
+import com.aspira.jspider.model.Market;
+import com.aspira.jspider.model.Match;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OddsIndexTest {
+
+    private static final LocalDateTime TODAY = LocalDateTime.parse("2024-07-30T00:00:00");
+
+    @Test
+    void answersQueriesFromTheLatestCrawlOfEachSport() {
+        final var index = new OddsIndex();
+        final var football = index.newUpdate(List.of("football", "tennis"));
+        football.add("football", match("1", "Football", "10", TODAY.plusHours(20), "Winner", "Total"));
+        football.add("football", match("2", "Football", "11", TODAY.plusHours(9), "Winner"));
+        football.add("football", match("3", "Football", "10", TODAY.plusDays(1), "Winner"));
+        football.add("tennis", match("4", "Tennis", "20", TODAY.plusHours(12), "Winner"));
+        football.publish();
+
+        assertThat(index.findMatch("1")).extracting(Match::getName).containsExactly("match 1");
+        assertThat(index.findMatches("football", null, TODAY, TODAY.plusHours(23)))
+                .extracting(Match::getId).containsExactly("2", "1");
+        assertThat(index.findMatches(null, "10", null, null)).extracting(Match::getId).containsExactly("1", "3");
+        assertThat(index.findMarkets("winner", "FOOTBALL", TODAY, TODAY.plusHours(23)))
+                .extracting(MarketQuote::matchId).containsExactly("2", "1");
+        assertThat(index.findMarkets("Winner", null, TODAY.plusHours(10), null))
+                .extracting(MarketQuote::matchId).containsExactly("4", "1", "3");
+
+        final var tennis = index.newUpdate(List.of("tennis"));
+        tennis.add("tennis", match("5", "Tennis", "20", TODAY.plusHours(13), "Winner"));
+        final var unpublished = index.newUpdate(List.of("football"));
+        unpublished.add("football", match("6", "Football", "10", TODAY.plusHours(1), "Winner"));
+        tennis.publish();
+
+        assertThat(index.findMatch("4")).isEmpty();
+        assertThat(index.findMatch("6")).isEmpty();
+        assertThat(index.findMatches(null, null, null, null)).extracting(Match::getId)
+                .containsExactly("2", "5", "1", "3");
+    }
+
+    @Test
+    void carriesForwardThePreviousMatchesOfIncompleteSports() {
+        final var index = new OddsIndex();
+        final var first = index.newUpdate(List.of("football", "tennis"));
+        first.add("football", match("1", "Football", "10", TODAY.plusHours(20), "Winner"));
+        first.add("football", match("2", "Football", "11", TODAY.plusHours(9), "Winner"));
+        first.add("tennis", match("4", "Tennis", "20", TODAY.plusHours(12), "Winner"));
+        first.publish();
+
+        final var failed = index.newUpdate(List.of("football", "tennis"));
+        failed.add("football", match("1", "Football", "10", TODAY.plusHours(20), "Winner", "Total"));
+        failed.add("tennis", match("5", "Tennis", "20", TODAY.plusHours(13), "Winner"));
+        failed.markIncomplete("football");
+        failed.publish();
+
+        assertThat(index.findMatches("football", null, null, null)).extracting(Match::getId).containsExactly("2", "1");
+        assertThat(index.findMarkets("Total", null, null, null)).extracting(MarketQuote::matchId).containsExactly("1");
+        assertThat(index.findMatches("tennis", null, null, null)).extracting(Match::getId).containsExactly("5");
+
+        final var deadline = index.newUpdate(List.of("football", "tennis"));
+        deadline.markIncomplete(null);
+        deadline.publish();
+
+        assertThat(index.findMatches(null, null, null, null)).extracting(Match::getId).containsExactly("2", "5", "1");
+    }
+
+    private static Match match(String id, String sportName, String leagueId, LocalDateTime kickoff,
+                               String... marketNames) {
+        return MatchFixtures.match(id, sportName, leagueId, kickoff,
+                Arrays.stream(marketNames).map(MatchFixtures::market).toArray(Market[]::new));
+    }
+}
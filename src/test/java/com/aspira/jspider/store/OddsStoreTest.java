@@ -0,0 +1,102 @@
+package com.aspira.jspider.store;
+
+import com.aspira.jspider.model.Match;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static com.aspira.jspider.MatchFixtures.market;
+import static com.aspira.jspider.MatchFixtures.match;
+import static com.aspira.jspider.MatchFixtures.runner;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OddsStoreTest {
+
+    private static final LocalDateTime KICKOFF = LocalDateTime.parse("2024-07-30T18:00:00");
+
+    @Test
+    void buildsCompactSnapshotsWithScaledPricesAndRunnerLookup() {
+        final var store = store(2);
+        final OddsSnapshot snapshot = store.newSnapshot()
+                .add(match("30", "Football", "7", KICKOFF, market("300", "Winner",
+                        runner("305", "1", "4.30"), runner("301", "X", "3.125"), runner("309", "2", "-"))))
+                .add(match("20", "Football", "7", null, market("200", "Total",
+                        runner("203", "Over (2.5)", "1.9"), runner("202", "Under (2.5)", null))))
+                .build();
+
+        assertThat(snapshot.matchCount()).isEqualTo(2);
+        assertThat(snapshot.runnerCount()).isEqualTo(5);
+        assertThat(snapshot.bookmaker(0)).isEqualTo("leon");
+        assertThat(snapshot.matchName(0)).isEqualTo("match 30");
+        assertThat(snapshot.leagueName(1)).isEqualTo("league 7");
+        assertThat(snapshot.sportName(1)).isEqualTo("Football");
+        assertThat(snapshot.kickoff(0)).isEqualTo(KICKOFF);
+        assertThat(snapshot.kickoff(1)).isNull();
+        assertThat(snapshot.firstRunner(1)).isEqualTo(3);
+        assertThat(snapshot.firstRunner(2)).isEqualTo(5);
+        assertThat(snapshot.matchOf(2)).isZero();
+        assertThat(snapshot.matchOf(3)).isEqualTo(1);
+
+        assertThat(snapshot.scaledPrice(0)).isEqualTo(4300);
+        assertThat(snapshot.price(1)).isEqualTo(3.125);
+        assertThat(snapshot.scaledPrice(2)).isEqualTo(OddsSnapshot.NO_PRICE);
+        assertThat(snapshot.price(4)).isNaN();
+        assertThat(OddsSnapshot.formatPrice(snapshot.scaledPrice(0))).isEqualTo("4.30");
+        assertThat(OddsSnapshot.formatPrice(snapshot.scaledPrice(1))).isEqualTo("3.125");
+        assertThat(OddsSnapshot.formatPrice(OddsSnapshot.NO_PRICE)).isNull();
+
+        for (long runnerId : new long[]{301, 202, 203, 305, 309}) {
+            assertThat(snapshot.runnerId(snapshot.indexOfRunner(runnerId))).isEqualTo(runnerId);
+        }
+        assertThat(snapshot.runnerName(snapshot.indexOfRunner(203))).isEqualTo("Over (2.5)");
+        assertThat(snapshot.marketName(snapshot.indexOfRunner(203))).isEqualTo("Total");
+        assertThat(snapshot.indexOfRunner(204)).isEqualTo(-1);
+        assertThat(snapshot.indexOfRunner(100)).isEqualTo(-1);
+        assertThat(snapshot.indexOfRunner(400)).isEqualTo(-1);
+    }
+
+    @Test
+    void internsOnlyMarketAndRunnerNames() {
+        final var store = store(2);
+        for (int poll = 0; poll < 10; poll++) {
+            store.newSnapshot()
+                    .add(match("1" + poll, "Sport " + poll, "League " + poll, KICKOFF,
+                            market("1", "Winner", runner("11", "1", "2.0"), runner("12", "2", "1.8"))))
+                    .build();
+        }
+
+        final var names = (NameTable) ReflectionTestUtils.getField(store, "names");
+        assertThat(names.size()).isEqualTo(3);
+    }
+
+    @Test
+    void keepsTheConfiguredNumberOfSnapshotsPerKey() {
+        final var store = store(2);
+        final var first = snapshot(store, "1");
+        final var second = snapshot(store, "2");
+        final var third = snapshot(store, "3");
+
+        assertThat(store.publish("football", first)).isEmpty();
+        assertThat(store.publish("football", second)).containsSame(first);
+        assertThat(store.publish("football", third)).containsSame(second);
+        store.publish("tennis", first);
+
+        assertThat(store.latest("football")).containsSame(third);
+        assertThat(store.history("football")).containsExactly(third, second);
+        assertThat(store.history("tennis")).containsExactly(first);
+        assertThat(store.latest("esports")).isEmpty();
+        assertThat(store.history("esports")).isEmpty();
+    }
+
+    private static OddsSnapshot snapshot(OddsStore store, String matchId) {
+        final Match match = match(matchId, market("1", "Winner", runner("11", "1", "2.0")));
+        return store.newSnapshot().add(match).build();
+    }
+
+    private static OddsStore store(int historySize) {
+        final var store = new OddsStore();
+        ReflectionTestUtils.setField(store, "historySize", historySize);
+        return store;
+    }
+}
@@ -0,0 +1,146 @@
+package com.aspira.jspider.webclient;
+
+import com.aspira.jspider.webclient.AdaptiveRateLimiter.RateLimitExceededException;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveRateLimiterTest {
+
+    private final MockWebServer server = new MockWebServer();
+
+    @AfterEach
+    void shutDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void spacesRequestsByTheTokenRate() {
+        final var client = client(new AdaptiveRateLimiter(5, 1, 8, 1, 8, 10, Duration.ofSeconds(10)));
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setBody("ok"));
+        }
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            assertThat(status(client)).isEqualTo(200);
+        }
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(350));
+    }
+
+    @Test
+    void pausesRequestsForRetryAfterAndHalvesTheLimits() {
+        final var limiter = new AdaptiveRateLimiter(100, 10, 8, 1, 8, 10, Duration.ofSeconds(10));
+        final var client = client(limiter);
+        server.enqueue(new MockResponse().setResponseCode(429).setHeader(HttpHeaders.RETRY_AFTER, "1"));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        assertThat(status(client)).isEqualTo(429);
+        assertThat(limiter.getConcurrencyLimit()).isEqualTo(4);
+        assertThat(limiter.getPermitsPerSecond()).isEqualTo(50);
+        final long start = System.nanoTime();
+        assertThat(status(client)).isEqualTo(200);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(900));
+    }
+
+    @Test
+    void decreasesTheLimitsOncePerRoundTrip() {
+        final var limiter = new AdaptiveRateLimiter(100, 10, 8, 1, 8, 10, Duration.ofSeconds(10));
+        final var client = client(limiter);
+        for (int i = 0; i < 4; i++) {
+            server.enqueue(new MockResponse().setResponseCode(429).setHeadersDelay(200, TimeUnit.MILLISECONDS));
+        }
+
+        Mono.when(request(client), request(client), request(client), request(client)).block();
+
+        assertThat(limiter.getConcurrencyLimit()).isEqualTo(4);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void holdsThePermitAndMeasuresLatencyUntilTheBodyIsRead() {
+        final var limiter = new AdaptiveRateLimiter(100, 10, 8, 1, 8, 10, Duration.ofMillis(100));
+        final var client = client(limiter);
+        server.enqueue(new MockResponse().setBody("slow").setBodyDelay(300, TimeUnit.MILLISECONDS));
+
+        final Integer inFlightWhileReading = client.get().uri("/events")
+                .exchangeToMono(response -> Mono.fromSupplier(limiter::getInFlight)
+                        .flatMap(inFlight -> response.bodyToMono(String.class).thenReturn(inFlight)))
+                .block(Duration.ofSeconds(5));
+
+        assertThat(inFlightWhileReading).isEqualTo(1);
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(limiter.getConcurrencyLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void releasesTheQueueSlotOfRequestsCancelledWhileQueued() throws InterruptedException {
+        final var limiter = new AdaptiveRateLimiter(100, 10, 1, 1, 1, 10, Duration.ofSeconds(10));
+        final var client = client(limiter);
+        server.enqueue(new MockResponse().setBody("slow").setHeadersDelay(300, TimeUnit.MILLISECONDS));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        final var slow = request(client).toFuture();
+        awaitInFlight(limiter, 1);
+        final var queued = request(client).subscribe();
+        assertThat(limiter.getQueueDepth()).isEqualTo(1);
+        queued.dispose();
+        assertThat(limiter.getQueueDepth()).isZero();
+
+        assertThat(slow.join()).isEqualTo(200);
+        assertThat(status(client)).isEqualTo(200);
+        assertThat(server.getRequestCount()).isEqualTo(2);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void rejectsRequestsWhenTheQueueIsFull() throws InterruptedException {
+        final var limiter = new AdaptiveRateLimiter(100, 10, 1, 1, 1, 1, Duration.ofSeconds(10));
+        final var client = client(limiter);
+        server.enqueue(new MockResponse().setBody("slow").setHeadersDelay(300, TimeUnit.MILLISECONDS));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        final var slow = request(client).toFuture();
+        awaitInFlight(limiter, 1);
+        final var queued = request(client).toFuture();
+
+        assertThatThrownBy(() -> status(client)).isInstanceOf(RateLimitExceededException.class);
+        assertThat(slow.join()).isEqualTo(200);
+        assertThat(queued.join()).isEqualTo(200);
+        assertThat(limiter.getQueueDepth()).isZero();
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    private WebClient client(AdaptiveRateLimiter limiter) {
+        return WebClient.builder().baseUrl(server.url("/").toString()).filter(limiter).build();
+    }
+
+    private static Mono<Integer> request(WebClient client) {
+        return client.get().uri("/events").exchangeToMono(response -> response.releaseBody()
+                .thenReturn(response.statusCode().value()));
+    }
+
+    private static int status(WebClient client) {
+        return request(client).block(Duration.ofSeconds(5));
+    }
+
+    private static void awaitInFlight(AdaptiveRateLimiter limiter, int inFlight) throws InterruptedException {
+        for (int i = 0; i < 100 && limiter.getInFlight() != inFlight; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(limiter.getInFlight()).isEqualTo(inFlight);
+    }
+}
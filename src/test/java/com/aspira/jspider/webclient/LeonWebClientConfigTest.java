@@ -0,0 +1,94 @@
+package com.aspira.jspider.webclient;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class LeonWebClientConfigTest {
+
+    private static final MockWebServer server = new MockWebServer();
+
+    @Autowired
+    private WebClient leonWebClient;
+
+    @DynamicPropertySource
+    static void leonProperties(DynamicPropertyRegistry registry) {
+        registry.add("web-client.base-url", () -> server.url("/").toString());
+        registry.add("web-client.connection.response-timeout", () -> "500ms");
+        registry.add("web-client.retry.max-attempts", () -> "2");
+        registry.add("web-client.retry.backoff", () -> "10ms");
+    }
+
+    @AfterAll
+    static void shutDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void requestsAndDecodesGzipResponses() throws Exception {
+        server.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .setBody(gzip("{\"events\":[]}")));
+
+        final String body = leonWebClient.get().uri("/gzip").retrieve().bodyToMono(String.class).block();
+
+        assertThat(body).isEqualTo("{\"events\":[]}");
+        assertThat(server.takeRequest(1, TimeUnit.SECONDS).getHeader(HttpHeaders.ACCEPT_ENCODING)).contains("gzip");
+    }
+
+    @Test
+    void retriesRequestsThatExceedTheResponseTimeout() {
+        final int requests = server.getRequestCount();
+        for (int attempt = 0; attempt < 3; attempt++) {
+            server.enqueue(new MockResponse().setBody("late").setHeadersDelay(2, TimeUnit.SECONDS));
+        }
+
+        assertThatThrownBy(() -> leonWebClient.get().uri("/slow").retrieve().bodyToMono(String.class).block())
+                .isInstanceOf(RetryExhaustedException.class)
+                .hasMessage("Retry attempts exhausted")
+                .hasCauseInstanceOf(WebClientRequestException.class)
+                .extracting("retries").isEqualTo(2L);
+        assertThat(server.getRequestCount() - requests).isEqualTo(3);
+    }
+
+    @Test
+    void retriesServerErrorsButNotOtherClientErrors() {
+        final int requests = server.getRequestCount();
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody("ok"));
+        server.enqueue(new MockResponse().setResponseCode(404));
+
+        assertThat(leonWebClient.get().uri("/unavailable").retrieve().bodyToMono(String.class).block()).isEqualTo("ok");
+        assertThatThrownBy(() -> leonWebClient.get().uri("/missing").retrieve().bodyToMono(String.class).block())
+                .isInstanceOf(WebClientResponseException.NotFound.class);
+        assertThat(server.getRequestCount() - requests).isEqualTo(3);
+    }
+
+    private static Buffer gzip(String content) throws IOException {
+        final var bytes = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return new Buffer().write(bytes.toByteArray());
+    }
+}
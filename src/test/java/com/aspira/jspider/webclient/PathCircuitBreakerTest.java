@@ -0,0 +1,101 @@
+package com.aspira.jspider.webclient;
+
+import com.aspira.jspider.webclient.PathCircuitBreaker.CircuitOpenException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PathCircuitBreakerTest {
+
+    private static final ClientRequest REQUEST =
+            ClientRequest.create(HttpMethod.GET, URI.create("http://localhost/events")).build();
+
+    private final PathCircuitBreaker breaker = new PathCircuitBreaker(4, 2, 0.5, Duration.ofMillis(100), 2);
+    private final Queue<Sinks.One<ClientResponse>> pending = new ArrayDeque<>();
+
+    @Test
+    void opensOnFailuresAndClosesAfterSuccessfulTrials() throws InterruptedException {
+        open();
+
+        assertThatThrownBy(this::send).isInstanceOf(CircuitOpenException.class);
+        assertThat(pending).isEmpty();
+        assertThat(breaker.getOpenCircuits()).isEqualTo(1);
+
+        Thread.sleep(150);
+        final var first = breaker.filter(REQUEST, this::exchange).toFuture();
+        final var second = breaker.filter(REQUEST, this::exchange).toFuture();
+        assertThatThrownBy(this::send).isInstanceOf(CircuitOpenException.class);
+        respond(HttpStatus.OK);
+        respond(HttpStatus.OK);
+
+        assertThat(first.join().statusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(second.join().statusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(breaker.getOpenCircuits()).isZero();
+    }
+
+    @Test
+    void reopensOnAFailedTrial() throws InterruptedException {
+        open();
+        Thread.sleep(150);
+
+        final var trial = breaker.filter(REQUEST, this::exchange).toFuture();
+        respond(HttpStatus.SERVICE_UNAVAILABLE);
+
+        assertThat(trial.join().statusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThatThrownBy(this::send).isInstanceOf(CircuitOpenException.class);
+        assertThat(breaker.getOpenCircuits()).isEqualTo(1);
+    }
+
+    @Test
+    void returnsThePermitOfACancelledTrialWithoutCountingIt() throws InterruptedException {
+        open();
+        Thread.sleep(150);
+
+        breaker.filter(REQUEST, this::exchange).subscribe().dispose();
+        pending.clear();
+        final var first = breaker.filter(REQUEST, this::exchange).toFuture();
+        final var second = breaker.filter(REQUEST, this::exchange).toFuture();
+        assertThatThrownBy(this::send).isInstanceOf(CircuitOpenException.class);
+
+        respond(HttpStatus.OK);
+        assertThat(first.join().statusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(breaker.getOpenCircuits()).isEqualTo(1);
+        respond(HttpStatus.OK);
+        assertThat(second.join().statusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(breaker.getOpenCircuits()).isZero();
+    }
+
+    private void open() {
+        for (int i = 0; i < 2; i++) {
+            final var response = breaker.filter(REQUEST, this::exchange).toFuture();
+            respond(HttpStatus.INTERNAL_SERVER_ERROR);
+            assertThat(response.join().statusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private ClientResponse send() {
+        return breaker.filter(REQUEST, this::exchange).block(Duration.ofSeconds(1));
+    }
+
+    private Mono<ClientResponse> exchange(ClientRequest request) {
+        final Sinks.One<ClientResponse> response = Sinks.one();
+        pending.add(response);
+        return response.asMono();
+    }
+
+    private void respond(HttpStatus status) {
+        pending.remove().tryEmitValue(ClientResponse.create(status).build());
+    }
+}
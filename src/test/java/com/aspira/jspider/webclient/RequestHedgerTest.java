@@ -0,0 +1,74 @@
+package com.aspira.jspider.webclient;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestHedgerTest {
+
+    private static final String ENDPOINT = "/events";
+
+    private final RequestHedger hedger = new RequestHedger(true, 0.5, Duration.ofMillis(50), 4, 2, 0.5);
+    private final AtomicInteger sent = new AtomicInteger();
+
+    @Test
+    void hedgesAtMostTheConfiguredRatioOfRequests() {
+        warmUp();
+
+        final var results = Flux.range(0, 6)
+                .flatMap(i -> hedger.hedge(ENDPOINT, request(Mono.delay(Duration.ofMillis(300)).thenReturn("slow"))))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(results).hasSize(6).containsOnly("slow");
+        assertThat(hedger.getHedgedRequests()).isEqualTo(4);
+        assertThat(sent).hasValue(12);
+    }
+
+    @Test
+    void usesTheFasterDuplicateOfASlowRequest() {
+        warmUp();
+        final var slow = new AtomicInteger();
+
+        final String result = hedger.hedge(ENDPOINT, request(Mono.defer(() -> slow.getAndIncrement() == 0
+                        ? Mono.delay(Duration.ofSeconds(5)).thenReturn("original")
+                        : Mono.just("duplicate"))))
+                .block(Duration.ofSeconds(1));
+
+        assertThat(result).isEqualTo("duplicate");
+        assertThat(hedger.getHedgedRequests()).isEqualTo(1);
+    }
+
+    @Test
+    void doesNotHedgeAnOriginalThatAlreadyTerminated() throws InterruptedException {
+        warmUp();
+
+        assertThat(hedger.hedge(ENDPOINT, request(Mono.<String>empty())).block(Duration.ofSeconds(1))).isNull();
+        assertThatThrownBy(() -> hedger.hedge(ENDPOINT, request(Mono.error(new IllegalStateException("failed"))))
+                .block(Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalStateException.class);
+        Thread.sleep(150);
+
+        assertThat(hedger.getHedgedRequests()).isZero();
+        assertThat(sent).hasValue(4);
+    }
+
+    private void warmUp() {
+        for (int i = 0; i < 2; i++) {
+            hedger.hedge(ENDPOINT, request(Mono.just("fast"))).block();
+        }
+    }
+
+    private <T> Mono<T> request(Mono<T> response) {
+        return Mono.defer(() -> {
+            sent.incrementAndGet();
+            return response;
+        });
+    }
+}
@@ -0,0 +1,72 @@
+package com.aspira.jspider.webclient.codec;
+
+import com.aspira.jspider.model.Match;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StreamingMatchDecoderTest {
+
+    private static final String PAYLOAD = """
+            {"id":1970324844425190,"name":"Morocco U23 - Iraq U23","nameDefault":"Morocco U23 - Iraq U23",
+             "competitors":[{"id":1,"name":"Morocco U23","logo":{"src":"x"}},{"id":2,"name":"Iraq U23"}],
+             "kickoff":1722351600000,"lastUpdated":1722340000000,
+             "league":{"id":1970324836974595,"name":"Olympic Games","sport":{"id":1970324836974593,"name":"Football","family":"Soccer"},"region":{"name":"World"}},
+             "markets":[{"id":"m1","name":"Winner","open":true,"specifiers":{"a":[1,2,{"b":null}]},
+                         "runners":[{"id":1970326224678567,"name":"1","open":true,"tags":["HOME"],"price":1.45,"priceStr":"1.45"},
+                                    {"id":1970326224678566,"name":"X","price":4.3,"priceStr":"4.30"}]},
+                        {"id":"m2","name":"Total","runners":[]}],
+             "tail":{"deep":[[[{}]]]}}
+            """;
+
+    @Test
+    void decodesProjectedFieldsFromSmallChunks() throws Exception {
+        final var decoder = decoder(DataSize.ofMegabytes(1));
+
+        final Match match = decoder.decode(chunks(PAYLOAD, 7)).block();
+        final Match expected = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .readValue(PAYLOAD, Match.class);
+
+        assertThat(match).isEqualTo(expected);
+        assertThat(match.getMarkets().get(0).getRunners().get(1).getValue()).isEqualTo("4.30");
+    }
+
+    @Test
+    void rejectsPayloadsAboveTheSizeLimit() {
+        final var decoder = decoder(DataSize.ofBytes(100));
+
+        assertThatThrownBy(() -> decoder.decode(chunks(PAYLOAD, 64)).block())
+                .isInstanceOf(DecodingException.class)
+                .hasMessageContaining("exceeds the limit");
+    }
+
+    private static StreamingMatchDecoder decoder(DataSize maxResponseSize) {
+        final var decoder = new StreamingMatchDecoder();
+        ReflectionTestUtils.setField(decoder, "maxResponseSize", maxResponseSize);
+        return decoder;
+    }
+
+    private static Flux<DataBuffer> chunks(String payload, int chunkSize) {
+        final byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        final List<DataBuffer> buffers = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            final int length = Math.min(chunkSize, bytes.length - offset);
+            buffers.add(DefaultDataBufferFactory.sharedInstance.allocateBuffer(length).write(bytes, offset, length));
+        }
+        return Flux.fromIterable(buffers);
+    }
+}
@@ -0,0 +1,139 @@
+package com.aspira.jspider.webclient.rest.impl;
+
+import com.aspira.jspider.model.Betline;
+import com.aspira.jspider.model.Event;
+import com.aspira.jspider.model.Market;
+import com.aspira.jspider.model.Match;
+import com.aspira.jspider.webclient.rest.ConditionalResponse;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+import static com.aspira.jspider.MatchFixtures.market;
+import static com.aspira.jspider.MatchFixtures.match;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingLeonClientImplTest {
+
+    private final LeonClientImpl delegate = mock(LeonClientImpl.class);
+
+    @Test
+    void servesFreshEntriesWithoutRequests() {
+        final var client = new CachingLeonClientImpl(delegate, true, false, Duration.ofHours(1), 10);
+        respond("1", response(match("1"), null));
+        when(delegate.getMatchesByLeagueId(eq("10"), any()))
+                .thenReturn(Mono.just(new ConditionalResponse<>(betline(event("1", 1L)), null, null, false)));
+
+        assertThat(get(client, "1").getId()).isEqualTo("1");
+        assertThat(get(client, "1").getId()).isEqualTo("1");
+        client.getMatchesByLeagueId("10").block();
+        assertThat(client.getMatchesByLeagueId("10").block().getEvents()).extracting(Event::getId)
+                .containsExactly("1");
+
+        verify(delegate).getMatchDataById(eq("1"), isNull());
+        verify(delegate).getMatchesByLeagueId(eq("10"), isNull());
+    }
+
+    @Test
+    void revalidatesStaleEntriesWithTheirValidators() {
+        final var client = new CachingLeonClientImpl(delegate, true, false, Duration.ZERO, 10);
+        final var first = response(match("1", market("Winner", "1", "1.5")), "\"v1\"");
+        respond("1", first);
+        get(client, "1");
+        when(delegate.getMatchDataById(eq("1"), same(first))).thenReturn(Mono.just(
+                new ConditionalResponse<>(first.body(), first.etag(), first.lastModified(), true)));
+
+        final Match revalidated = get(client, "1");
+
+        assertThat(revalidated.getMarkets()).extracting(Market::getName).containsExactly("Winner");
+        verify(delegate).getMatchDataById(eq("1"), isNull());
+        verify(delegate).getMatchDataById(eq("1"), same(first));
+    }
+
+    @Test
+    void refetchesMatchesOnlyWhenTheirLeagueListEntryChanged() {
+        final var client = new CachingLeonClientImpl(delegate, true, true, Duration.ZERO, 10);
+        when(delegate.getMatchesByLeagueId(eq("10"), any())).thenReturn(
+                Mono.just(new ConditionalResponse<>(betline(event("1", 1L)), null, null, false)),
+                Mono.just(new ConditionalResponse<>(betline(event("1", 2L)), null, null, false)));
+        respond("1", response(match("1"), null));
+
+        client.getMatchesByLeagueId("10").block();
+        get(client, "1");
+        get(client, "1");
+        verify(delegate, times(1)).getMatchDataById(eq("1"), any());
+
+        client.getMatchesByLeagueId("10").block();
+        get(client, "1");
+        verify(delegate, times(2)).getMatchDataById(eq("1"), any());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntry() {
+        final var client = new CachingLeonClientImpl(delegate, true, false, Duration.ofHours(1), 2);
+        for (String id : List.of("1", "2", "3")) {
+            respond(id, response(match(id), null));
+        }
+
+        get(client, "1");
+        get(client, "2");
+        get(client, "1");
+        get(client, "3");
+        get(client, "1");
+        get(client, "2");
+
+        verify(delegate, times(1)).getMatchDataById(eq("1"), any());
+        verify(delegate, times(2)).getMatchDataById(eq("2"), any());
+        verify(delegate, times(1)).getMatchDataById(eq("3"), any());
+    }
+
+    @Test
+    void returnsACopyOfTheCachedMatchToEveryCaller() {
+        final var client = new CachingLeonClientImpl(delegate, true, false, Duration.ofHours(1), 10);
+        respond("1", response(match("1", market("Winner", "1", "1.5")), null));
+
+        final Match first = get(client, "1");
+        first.setBookmaker("other");
+        first.getMarkets().get(0).getRunners().get(0).setValue("9.9");
+        final Match second = get(client, "1");
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getBookmaker()).isEqualTo("leon");
+        assertThat(second.getMarkets().get(0).getRunners().get(0).getValue()).isEqualTo("1.5");
+    }
+
+    private void respond(String id, ConditionalResponse<Match> response) {
+        when(delegate.getMatchDataById(eq(id), any())).thenReturn(Mono.just(response));
+    }
+
+    private static Match get(CachingLeonClientImpl client, String id) {
+        return client.getMatchDataById(id).block();
+    }
+
+    private static ConditionalResponse<Match> response(Match match, String etag) {
+        return new ConditionalResponse<>(match, etag, null, false);
+    }
+
+    private static Betline betline(Event... events) {
+        final var betline = new Betline();
+        betline.setEvents(List.of(events));
+        return betline;
+    }
+
+    private static Event event(String id, Long lastUpdated) {
+        final var event = new Event();
+        event.setId(id);
+        event.setLastUpdated(lastUpdated);
+        return event;
+    }
+}